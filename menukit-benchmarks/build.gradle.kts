@@ -0,0 +1,36 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+repositories {
+    maven("https://repo.papermc.io/repository/maven-public/")
+    mavenCentral()
+}
+
+/*
+ * Benchmarks run outside of a server, so paper is needed at runtime here rather than only to compile against. The
+ * Bukkit pieces MenuKit touches come from menukit-testkit's in-memory implementations, never from mocks, whose overhead
+ * would dwarf what is being measured.
+ */
+dependencies {
+    jmhImplementation(project(":menukit-core"))
+    jmhImplementation(project(":menukit-strings"))
+    jmhImplementation(project(":menukit-testkit"))
+    jmhImplementation(libs.papermc)
+}
+
+java {
+    toolchain.languageVersion.set(JavaLanguageVersion.of(21))
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh.version)
+    // throughput alongside the allocation rate reported by the gc profiler
+    benchmarkMode.set(listOf("thrpt"))
+    profilers.set(listOf("gc"))
+    timeUnit.set("us")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+}
@@ -0,0 +1,65 @@
+package sh.miles.menukit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import sh.miles.menukit.strings.MenuRecipe;
+import sh.miles.menukit.strings.MenuStack;
+import sh.miles.menukit.testkit.TestInventory;
+import sh.miles.menukit.testkit.TestItem;
+import sh.miles.menukit.util.PagedInventory;
+
+/**
+ * Benchmarks building a four page {@link MenuRecipe} from its layouts and applying it, eagerly and lazily.
+ */
+@State(Scope.Thread)
+public class MenuRecipeBenchmark {
+
+    private static final int PAGES = 4;
+    private static final String LAYOUT = """
+            #########
+            #abcdefg#
+            #abcdefg#
+            #abcdefg#
+            #abcdefg#
+            <###X###>""";
+
+    private MenuStack[] stacks;
+    private MenuRecipe recipe;
+    private PagedInventory inventory;
+
+    @Setup
+    public void setUp() {
+        final String keys = "#abcdefg<X>";
+        this.stacks = new MenuStack[keys.length()];
+        for (int i = 0; i < keys.length(); i++) {
+            this.stacks[i] = MenuStack.of(new TestItem(String.valueOf(keys.charAt(i))), true);
+        }
+        this.recipe = build();
+        this.inventory = new PagedInventory(new TestInventory(54).inventory(), PAGES);
+    }
+
+    @Benchmark
+    public MenuRecipe build() {
+        final MenuRecipe.Builder builder = MenuRecipe.builder();
+        for (int page = 0; page < PAGES; page++) {
+            builder.page(page, LAYOUT);
+        }
+        final String keys = "#abcdefg<X>";
+        for (int i = 0; i < keys.length(); i++) {
+            builder.map(keys.charAt(i), this.stacks[i]);
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public void apply() {
+        this.recipe.apply(this.inventory);
+    }
+
+    @Benchmark
+    public void applyLazily() {
+        this.recipe.applyLazily(this.inventory);
+    }
+}
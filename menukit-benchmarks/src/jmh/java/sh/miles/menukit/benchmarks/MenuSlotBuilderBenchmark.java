@@ -0,0 +1,40 @@
+package sh.miles.menukit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import sh.miles.menukit.menu.MenuEventCallback;
+import sh.miles.menukit.slot.MenuSlot;
+import sh.miles.menukit.testkit.TestInventory;
+import sh.miles.menukit.testkit.TestItem;
+import sh.miles.menukit.util.PagedInventory;
+
+/**
+ * Benchmarks {@link MenuSlot.Builder#build()} for a slot with fixed content, including filing it into its inventory.
+ */
+@State(Scope.Thread)
+public class MenuSlotBuilderBenchmark {
+
+    private PagedInventory inventory;
+    private TestItem content;
+    private int index = 0;
+
+    @Setup
+    public void setUp() {
+        this.inventory = new PagedInventory(new TestInventory(54).inventory(), 1);
+        this.content = new TestItem("content");
+    }
+
+    @Benchmark
+    public MenuSlot build() {
+        this.index = (this.index + 1) % 54;
+        return MenuSlot.builder()
+                .inventory(this.inventory)
+                .page(0)
+                .index(this.index)
+                .content(this.content)
+                .click(MenuEventCallback.CLICK_CANCEL)
+                .build();
+    }
+}
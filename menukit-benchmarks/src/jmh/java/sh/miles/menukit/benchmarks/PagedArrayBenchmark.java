@@ -0,0 +1,57 @@
+package sh.miles.menukit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import sh.miles.menukit.util.PagedArray;
+
+/**
+ * Benchmarks {@link PagedArray} reads, writes and page flips on a full double chest of twelve pages.
+ */
+@State(Scope.Thread)
+public class PagedArrayBenchmark {
+
+    private static final int PAGE_SIZE = 54;
+    private static final int PAGES = 12;
+
+    private PagedArray<String> array;
+    private int cursor = 0;
+
+    @Setup
+    public void setUp() {
+        this.array = new PagedArray<>(PAGE_SIZE, PAGES);
+        for (int page = 0; page < PAGES; page++) {
+            for (int slot = 0; slot < PAGE_SIZE; slot++) {
+                this.array.set(page, slot, page + ":" + slot);
+            }
+        }
+    }
+
+    private int next() {
+        this.cursor = (this.cursor + 1) % (PAGE_SIZE * PAGES);
+        return this.cursor;
+    }
+
+    @Benchmark
+    public String getShowing() {
+        return this.array.get(next() % PAGE_SIZE);
+    }
+
+    @Benchmark
+    public String getOnPage() {
+        final int position = next();
+        return this.array.get(position / PAGE_SIZE, position % PAGE_SIZE);
+    }
+
+    @Benchmark
+    public void set() {
+        final int position = next();
+        this.array.set(position / PAGE_SIZE, position % PAGE_SIZE, "value");
+    }
+
+    @Benchmark
+    public void setCurrentPage() {
+        this.array.setCurrentPage(next() % PAGES);
+    }
+}
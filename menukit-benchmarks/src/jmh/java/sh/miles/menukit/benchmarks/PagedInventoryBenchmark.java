@@ -0,0 +1,52 @@
+package sh.miles.menukit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import sh.miles.menukit.slot.MenuSlot;
+import sh.miles.menukit.testkit.TestInventory;
+import sh.miles.menukit.testkit.TestItem;
+import sh.miles.menukit.util.PagedInventory;
+
+/**
+ * Benchmarks {@link PagedInventory} page flips, plain and with a fallback page, each writing a full page into the
+ * backing inventory.
+ */
+@State(Scope.Thread)
+public class PagedInventoryBenchmark {
+
+    private static final int PAGE_SIZE = 54;
+    private static final int PAGES = 12;
+
+    private PagedInventory inventory;
+    private int page = 0;
+
+    @Setup
+    public void setUp() {
+        this.inventory = new PagedInventory(new TestInventory(PAGE_SIZE).inventory(), PAGES);
+        for (int page = 0; page < PAGES; page++) {
+            for (int slot = 0; slot < PAGE_SIZE; slot++) {
+                // page 0 is full, the rest only every other slot so that fallback flips have something to fall back on
+                if (page == 0 || slot % 2 == 0) {
+                    this.inventory.setItem(MenuSlot.builder().inventory(this.inventory).page(page).index(slot).content(new TestItem("item-" + page + "-" + slot)).build());
+                }
+            }
+        }
+    }
+
+    private int nextPage() {
+        this.page = this.page % (PAGES - 1) + 1;
+        return this.page;
+    }
+
+    @Benchmark
+    public void flip() {
+        this.inventory.setCurrentPage(nextPage());
+    }
+
+    @Benchmark
+    public void fallbackFlip() {
+        this.inventory.setPageWithFallback(nextPage(), 0);
+    }
+}
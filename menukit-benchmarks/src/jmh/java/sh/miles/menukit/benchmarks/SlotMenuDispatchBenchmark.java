@@ -0,0 +1,73 @@
+package sh.miles.menukit.benchmarks;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.inventory.InventoryView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import sh.miles.menukit.menu.MenuEventCallback;
+import sh.miles.menukit.menu.SlotMenu;
+import sh.miles.menukit.testkit.TestEvents;
+import sh.miles.menukit.testkit.TestInventory;
+import sh.miles.menukit.testkit.TestItem;
+import sh.miles.menukit.testkit.TestPlayer;
+import sh.miles.menukit.testkit.TestView;
+
+/**
+ * Benchmarks dispatching click and drag events through {@link SlotMenu#handleClick(InventoryClickEvent)} and
+ * {@link SlotMenu#handleDrag(InventoryDragEvent)} down to the callbacks of the slots involved.
+ */
+@State(Scope.Thread)
+public class SlotMenuDispatchBenchmark {
+
+    private BenchmarkMenu menu;
+    private InventoryClickEvent[] clicks;
+    private InventoryDragEvent drag;
+    private int click = 0;
+
+    @Setup
+    public void setUp() {
+        final TestPlayer player = new TestPlayer("benchmark");
+        final TestView view = new TestView(player, new TestInventory(54));
+        this.menu = new BenchmarkMenu(player.player(), view.view());
+        for (int slot = 0; slot < 54; slot++) {
+            final int index = slot;
+            this.menu.createSlot((builder) -> builder.index(index).content(new TestItem("slot-" + index)).click(MenuEventCallback.CLICK_CANCEL).drag(MenuEventCallback.DRAG_CANCEL));
+        }
+
+        this.clicks = new InventoryClickEvent[54];
+        for (int slot = 0; slot < 54; slot++) {
+            this.clicks[slot] = TestEvents.click(view, slot);
+        }
+        final int[] dragged = new int[9];
+        for (int slot = 0; slot < 9; slot++) {
+            dragged[slot] = slot * 6;
+        }
+        this.drag = TestEvents.drag(view, dragged);
+    }
+
+    @Benchmark
+    public void handleClick() {
+        this.click = (this.click + 1) % 54;
+        this.menu.handleClick(this.clicks[this.click]);
+    }
+
+    @Benchmark
+    public void handleDrag() {
+        this.menu.handleDrag(this.drag);
+    }
+
+    private static final class BenchmarkMenu extends SlotMenu<InventoryView> {
+
+        private BenchmarkMenu(final Player player, final InventoryView view) {
+            super(player, (ignored) -> view, 1);
+        }
+
+        @Override
+        protected void reload(final InventoryView view) {
+        }
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * JMH benchmarks of MenuKit's hot paths
+ */
+@NullMarked
+package sh.miles.menukit.benchmarks;
+
+import org.jspecify.annotations.NullMarked;
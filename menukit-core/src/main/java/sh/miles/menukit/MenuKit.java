@@ -4,7 +4,13 @@ import com.google.common.base.Preconditions;
 import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.Plugin;
+import org.jspecify.annotations.Nullable;
+import sh.miles.menukit.impl.OpenScheduler;
+import sh.miles.menukit.impl.RenderQueue;
 import sh.miles.menukit.impl.SlotMenuManager;
+import sh.miles.menukit.menu.MenuHistory;
+import sh.miles.menukit.state.InvalidationIndex;
+import sh.miles.menukit.util.PagedArrayPool;
 
 /**
  * Main Access Point for MenuKit.
@@ -41,7 +47,70 @@ public final class MenuKit {
         Preconditions.checkArgument(this.plugin != null, "Can not teardown MenuKit before MenuKit#setup is called");
         HandlerList.unregisterAll(this.listener);
         SlotMenuManager.shutdown();
+        InvalidationIndex.INSTANCE.clear();
         this.listener = null;
         this.plugin = null;
     }
+
+    /**
+     * Invalidates every slot, in every menu, filed under any of the given keys.
+     *
+     * @param keys the keys to invalidate
+     * @see InvalidationIndex
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void invalidate(String... keys) {
+        for (final String key : keys) {
+            InvalidationIndex.INSTANCE.invalidate(key);
+        }
+    }
+
+    /**
+     * Gets the navigation history menus opened with {@link sh.miles.menukit.menu.SlotMenu#openChild} are remembered in,
+     * for example to change its limits.
+     *
+     * @return the navigation history
+     * @throws IllegalArgumentException thrown if MenuKit was never started
+     * @since 2.1.1-SNAPSHOT
+     */
+    public MenuHistory getHistory() throws IllegalArgumentException {
+        return SlotMenuManager.menuManager().getHistory();
+    }
+
+    /**
+     * Gets the scheduler menus opened with {@link sh.miles.menukit.menu.SlotMenu#requestOpen()} go through, for example
+     * to change its budget.
+     *
+     * @return the open scheduler
+     * @throws IllegalArgumentException thrown if MenuKit was never started
+     * @since 2.1.1-SNAPSHOT
+     */
+    public OpenScheduler getOpenScheduler() throws IllegalArgumentException {
+        return SlotMenuManager.menuManager().getOpenScheduler();
+    }
+
+    /**
+     * Gets the queue slots are rendered through once per tick, for example to change its budget or to defer every
+     * write to it.
+     *
+     * @return the render queue
+     * @throws IllegalArgumentException thrown if MenuKit was never started
+     * @since 2.1.1-SNAPSHOT
+     */
+    public RenderQueue getRenderQueue() throws IllegalArgumentException {
+        return SlotMenuManager.menuManager().getRenderQueue();
+    }
+
+    /**
+     * Opts menus into recycling the arrays behind their inventories through the given pool. Only menus created after the
+     * pool is set are pooled.
+     *
+     * @param pool the pool, or null to stop pooling
+     * @throws IllegalArgumentException thrown if MenuKit was never started
+     * @see SlotMenuManager#setArrayPool(PagedArrayPool)
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void setArrayPool(@Nullable PagedArrayPool pool) throws IllegalArgumentException {
+        SlotMenuManager.menuManager().setArrayPool(pool);
+    }
 }
@@ -0,0 +1,101 @@
+package sh.miles.menukit.impl;
+
+import sh.miles.menukit.slot.Animation;
+import sh.miles.menukit.slot.MenuSlot;
+import sh.miles.menukit.util.PagedInventory;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Advances every animated slot from the one MenuKit ticker.
+ * <p>
+ * Animated slots are grouped by inventory so that an inventory nobody is viewing is skipped with a single check. Slots
+ * whose frame changes are invalidated, which queues them on the {@link RenderQueue} and so batches each tick's writes
+ * per inventory.
+ * <p>
+ * Note this is an internal class managed by {@link SlotMenuManager}
+ *
+ * @since 2.1.1-SNAPSHOT
+ */
+public final class Animator {
+
+    /*
+     * slots are referenced weakly, as a slot strongly references its inventory and would otherwise keep the weak key
+     * of its own entry alive forever
+     */
+    private final Map<PagedInventory, List<AnimatedSlot>> slots = new WeakHashMap<>();
+
+    /**
+     * Registers an animated slot.
+     *
+     * @param inventory the inventory the slot belongs to
+     * @param slot      the slot
+     * @param animation the animation the slot renders
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void register(PagedInventory inventory, MenuSlot slot, Animation animation) {
+        this.slots.computeIfAbsent(inventory, (key) -> new ArrayList<>()).add(new AnimatedSlot(new WeakReference<>(slot), animation));
+    }
+
+    /**
+     * Stops animating a slot.
+     *
+     * @param inventory the inventory the slot was registered under
+     * @param slot      the slot
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void unregister(PagedInventory inventory, MenuSlot slot) {
+        final List<AnimatedSlot> animated = this.slots.get(inventory);
+        if (animated == null) {
+            return;
+        }
+
+        animated.removeIf((entry) -> entry.slot().get() == slot);
+        if (animated.isEmpty()) {
+            this.slots.remove(inventory);
+        }
+    }
+
+    /**
+     * Advances every animated slot showing in a viewed inventory whose frame changes on the given tick.
+     *
+     * @param tick the current tick
+     * @since 2.1.1-SNAPSHOT
+     */
+    void tick(long tick) {
+        for (final Map.Entry<PagedInventory, List<AnimatedSlot>> entry : this.slots.entrySet()) {
+            final PagedInventory inventory = entry.getKey();
+            if (!inventory.isViewed()) {
+                continue;
+            }
+
+            final Iterator<AnimatedSlot> iterator = entry.getValue().iterator();
+            while (iterator.hasNext()) {
+                final AnimatedSlot animated = iterator.next();
+                final MenuSlot slot = animated.slot().get();
+                if (slot == null) {
+                    iterator.remove();
+                } else if (animated.animation().advancesAt(tick)) {
+                    slot.invalidate();
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets every animated slot.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    void clear() {
+        this.slots.clear();
+    }
+
+    private record AnimatedSlot(WeakReference<MenuSlot> slot, Animation animation) {
+    }
+}
@@ -0,0 +1,271 @@
+package sh.miles.menukit.impl;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.entity.Player;
+import sh.miles.menukit.menu.SlotMenu;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Spreads menu opens over several ticks once too many of them arrive at once.
+ * <p>
+ * Each tick may spend a budget on opens, counted both in opens and in nanoseconds measured around them, and stops at
+ * whichever runs out first. At least one open always goes through per tick, however long it takes. An open requested
+ * while there is budget left and nothing waiting happens right away; anything else waits for a later tick, in
+ * {@link Order#FIFO FIFO} or {@link Order#PRIORITY priority} order.
+ * <p>
+ * A player only ever has one open waiting, requesting another replaces it. A request for a menu the player already has
+ * open completes right away without spending any budget, whether it is made or still waiting when that happens.
+ * <p>
+ * Note this is an internal class managed by {@link SlotMenuManager}
+ *
+ * @since 2.1.1-SNAPSHOT
+ */
+public final class OpenScheduler {
+
+    /**
+     * The default number of opens a tick may spend.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    public static final int DEFAULT_OPENS_PER_TICK = 20;
+    /**
+     * The default number of nanoseconds a tick may spend on opens.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    public static final long DEFAULT_NANOS_PER_TICK = 5_000_000L;
+
+    private final Logger logger;
+    private final Map<UUID, Request> pending = new HashMap<>();
+    private PriorityQueue<Request> queue;
+    private Order order = Order.FIFO;
+    private int opensPerTick = DEFAULT_OPENS_PER_TICK;
+    private long nanosPerTick = DEFAULT_NANOS_PER_TICK;
+    private long sequence = 0;
+    private int opensThisTick = 0;
+    private long nanosThisTick = 0;
+
+    OpenScheduler(final Logger logger) {
+        this.logger = logger;
+        this.queue = new PriorityQueue<>(this.order.comparator);
+    }
+
+    /**
+     * Requests a menu be opened for its viewer, now if this tick's budget allows it and later otherwise.
+     *
+     * @param menu     the menu to open
+     * @param priority the priority of the open, higher opens first when the order is {@link Order#PRIORITY}
+     * @return true if the menu was opened, or was already open, right away
+     * @since 2.1.1-SNAPSHOT
+     */
+    public boolean schedule(SlotMenu<?> menu, int priority) {
+        Preconditions.checkArgument(menu != null, "The provided menu must not be null");
+        final UUID uuid = menu.getViewer().getUniqueId();
+        cancel(uuid);
+        if (menu.isOpen()) {
+            return true;
+        }
+
+        // cancelled requests may still sit in the queue, only the pending ones are actually waiting
+        if (this.pending.isEmpty() && hasBudget()) {
+            open(menu);
+            return true;
+        }
+
+        final Request request = new Request(menu, priority, this.sequence++);
+        this.pending.put(uuid, request);
+        this.queue.add(request);
+        return false;
+    }
+
+    /**
+     * Drops the open waiting for the given player, if any.
+     *
+     * @param playerUUID the uuid of the player
+     * @return true if an open was waiting
+     * @since 2.1.1-SNAPSHOT
+     */
+    public boolean cancel(UUID playerUUID) {
+        final Request request = this.pending.remove(playerUUID);
+        if (request == null) {
+            return false;
+        }
+
+        // left in the queue and skipped once it comes up, which is cheaper than searching the heap for it. It no longer
+        // counts as waiting, so it neither holds back opens that could happen right away nor spends any budget
+        request.cancelled = true;
+        return true;
+    }
+
+    /**
+     * Gets whether an open is waiting for the given player.
+     *
+     * @param playerUUID the uuid of the player
+     * @return true if an open is waiting
+     * @since 2.1.1-SNAPSHOT
+     */
+    public boolean isPending(UUID playerUUID) {
+        return this.pending.containsKey(playerUUID);
+    }
+
+    /**
+     * Gets the number of opens waiting.
+     *
+     * @return the pending count
+     * @since 2.1.1-SNAPSHOT
+     */
+    public int size() {
+        return this.pending.size();
+    }
+
+    /**
+     * Sets how much a single tick may spend on opens.
+     *
+     * @param opensPerTick the most opens per tick
+     * @param nanosPerTick the most nanoseconds per tick
+     * @throws IllegalArgumentException thrown if either budget is not positive
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void setBudget(int opensPerTick, long nanosPerTick) throws IllegalArgumentException {
+        Preconditions.checkArgument(opensPerTick > 0, "The opens per tick must be positive");
+        Preconditions.checkArgument(nanosPerTick > 0, "The nanos per tick must be positive");
+        this.opensPerTick = opensPerTick;
+        this.nanosPerTick = nanosPerTick;
+    }
+
+    /**
+     * Sets the order waiting opens are let through in. Opens already waiting are reordered.
+     *
+     * @param order the order
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void setOrder(Order order) {
+        Preconditions.checkArgument(order != null, "The provided order must not be null");
+        if (this.order == order) {
+            return;
+        }
+
+        this.order = order;
+        final PriorityQueue<Request> reordered = new PriorityQueue<>(Math.max(1, this.pending.size()), order.comparator);
+        reordered.addAll(this.pending.values());
+        this.queue = reordered;
+    }
+
+    /**
+     * Gets the order waiting opens are let through in.
+     *
+     * @return the order
+     * @since 2.1.1-SNAPSHOT
+     */
+    public Order getOrder() {
+        return this.order;
+    }
+
+    /**
+     * Starts a new tick's budget and spends it on waiting opens. An open that throws is logged, still counts against the
+     * budget, and does not keep the opens after it from happening.
+     */
+    void tick() {
+        this.opensThisTick = 0;
+        this.nanosThisTick = 0;
+        while (!this.pending.isEmpty() && (this.opensThisTick == 0 || hasBudget())) {
+            final Request request = this.queue.poll();
+            if (request.cancelled) {
+                continue;
+            }
+
+            final Player viewer = request.menu.getViewer();
+            this.pending.remove(viewer.getUniqueId());
+            if (request.menu.isOpen() || !viewer.isOnline()) {
+                continue;
+            }
+
+            try {
+                open(request.menu);
+            } catch (RuntimeException exception) {
+                this.logger.log(Level.SEVERE, "Failed to open a waiting menu for " + viewer.getName(), exception);
+            }
+        }
+
+        if (this.pending.isEmpty()) {
+            this.queue.clear();
+        }
+    }
+
+    /**
+     * Drops every waiting open.
+     */
+    void clear() {
+        this.pending.clear();
+        this.queue.clear();
+    }
+
+    private boolean hasBudget() {
+        return this.opensThisTick < this.opensPerTick && this.nanosThisTick < this.nanosPerTick;
+    }
+
+    private void open(final SlotMenu<?> menu) {
+        final long start = System.nanoTime();
+        try {
+            menu.open();
+        } finally {
+            this.opensThisTick++;
+            this.nanosThisTick += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * The order waiting opens are let through in.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    public enum Order {
+        /**
+         * Opens are let through in the order they were requested.
+         *
+         * @since 2.1.1-SNAPSHOT
+         */
+        FIFO(Comparator.comparingLong(Request::sequence)),
+        /**
+         * Opens of a higher priority are let through first, those of equal priority in the order they were requested.
+         *
+         * @since 2.1.1-SNAPSHOT
+         */
+        PRIORITY(Comparator.comparingInt(Request::priority).reversed().thenComparingLong(Request::sequence));
+
+        private final Comparator<Request> comparator;
+
+        Order(final Comparator<Request> comparator) {
+            this.comparator = comparator;
+        }
+    }
+
+    private static final class Request {
+
+        private final SlotMenu<?> menu;
+        private final int priority;
+        private final long sequence;
+        private boolean cancelled = false;
+
+        private Request(final SlotMenu<?> menu, final int priority, final long sequence) {
+            this.menu = menu;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        private int priority() {
+            return this.priority;
+        }
+
+        private long sequence() {
+            return this.sequence;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package sh.miles.menukit.impl;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.Bukkit;
+import sh.miles.menukit.slot.MenuSlot;
+import sh.miles.menukit.util.PagedInventory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Collects slots that need to be rendered again and renders them together once per tick, grouped by the inventory they
+ * belong to.
+ * <p>
+ * Each flush may spend a limited amount of time rendering. Slots left over once it runs out stay queued for the next
+ * flush, ahead of anything queued after them, and at least one slot is always rendered per flush. Inventories clicked
+ * within the last {@value #HOT_FLUSHES} flushes are rendered before any other, so that the menus players are
+ * interacting with stay responsive while a burst of updates is worked off.
+ * <p>
+ * By default only slots that are {@link PagedInventory#markDirty(MenuSlot) marked dirty} go through the queue. With
+ * {@link #setDeferWrites(boolean) deferred writes} every write of a slot into an inventory somebody is viewing does,
+ * including plain {@link MenuSlot#setContent(org.bukkit.inventory.ItemStack)} calls.
+ * <p>
+ * The queue is not thread safe and may only be used from the server thread, as the inventories it renders into may.
+ * Updates completed off the server thread, such as the result of an asynchronous lookup, must be handed back to it
+ * with the scheduler before they change any slot. Queueing or flushing from any other thread fails right away rather
+ * than corrupting the queue.
+ * <p>
+ * Note this is an internal class managed by {@link SlotMenuManager}
+ *
+ * @since 2.1.1-SNAPSHOT
+ */
+public final class RenderQueue {
+
+    /**
+     * The default number of nanoseconds a single flush may spend rendering.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    public static final long DEFAULT_NANOS_PER_FLUSH = 2_000_000L;
+    /**
+     * The number of flushes an inventory is rendered first for after it was clicked.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    public static final int HOT_FLUSHES = 20;
+
+    private final Map<PagedInventory, Set<MenuSlot>> dirty = new LinkedHashMap<>();
+    /*
+     * the flush each inventory was last clicked on
+     */
+    private final Map<PagedInventory, Long> clicked = new WeakHashMap<>();
+    private long nanosPerFlush = DEFAULT_NANOS_PER_FLUSH;
+    private boolean deferWrites = false;
+    private long flushes = 0;
+
+    /**
+     * Queues a slot to be rendered on the next flush. Queueing a slot that is already queued does nothing, so any number
+     * of changes within a tick cost a single render.
+     *
+     * @param inventory the inventory the slot belongs to
+     * @param slot      the slot to render
+     * @throws IllegalStateException thrown if called from any thread but the server thread
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void enqueue(PagedInventory inventory, MenuSlot slot) throws IllegalStateException {
+        checkServerThread();
+        this.dirty.computeIfAbsent(inventory, (key) -> new LinkedHashSet<>()).add(slot);
+    }
+
+    /**
+     * Gets whether a slot is queued to be rendered on the next flush.
+     *
+     * @param inventory the inventory the slot belongs to
+     * @param slot      the slot
+     * @return true if the slot is queued
+     * @since 2.1.1-SNAPSHOT
+     */
+    public boolean isQueued(PagedInventory inventory, MenuSlot slot) {
+        final Set<MenuSlot> slots = this.dirty.get(inventory);
+        return slots != null && slots.contains(slot);
+    }
+
+    /**
+     * Records that a player clicked the given inventory, so that its slots are rendered first for a while.
+     *
+     * @param inventory the inventory
+     * @throws IllegalStateException thrown if called from any thread but the server thread
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void touch(PagedInventory inventory) throws IllegalStateException {
+        checkServerThread();
+        this.clicked.put(inventory, this.flushes);
+    }
+
+    /**
+     * Renders queued slots that are still filed in their inventory, writing those that are still showing, until this
+     * flush's time budget runs out. A queued slot removed since, whose position nothing took over, has that position
+     * written empty if it is showing. Slots of inventories released since they were queued are dropped.
+     *
+     * @throws IllegalStateException thrown if called from any thread but the server thread
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void flush() throws IllegalStateException {
+        checkServerThread();
+        this.flushes++;
+        if (this.dirty.isEmpty()) {
+            return;
+        }
+
+        final long deadline = System.nanoTime() + this.nanosPerFlush;
+        if (!this.clicked.isEmpty() && flush(deadline, true)) {
+            return;
+        }
+        flush(deadline, false);
+    }
+
+    /**
+     * Renders the queued slots of either the hot or the other inventories.
+     *
+     * @param deadline the {@link System#nanoTime()} to stop at
+     * @param hot      whether to render recently clicked inventories or the rest
+     * @return true if the deadline was hit
+     */
+    private boolean flush(final long deadline, final boolean hot) {
+        final Iterator<Map.Entry<PagedInventory, Set<MenuSlot>>> entries = this.dirty.entrySet().iterator();
+        while (entries.hasNext()) {
+            final Map.Entry<PagedInventory, Set<MenuSlot>> entry = entries.next();
+            final PagedInventory inventory = entry.getKey();
+            if (isHot(inventory) != hot) {
+                continue;
+            }
+            if (inventory.isReleased()) {
+                entries.remove();
+                continue;
+            }
+
+            final Iterator<MenuSlot> slots = entry.getValue().iterator();
+            while (slots.hasNext()) {
+                final MenuSlot slot = slots.next();
+                slots.remove();
+                final MenuSlot filed = inventory.getSlot(slot.getPage(), slot.getSlot());
+                if (filed == slot) {
+                    inventory.update(slot);
+                } else if (filed == MenuSlot.DUMMY) {
+                    inventory.removeItem(slot.getPage(), slot.getSlot());
+                }
+                if (System.nanoTime() - deadline >= 0) {
+                    if (!slots.hasNext()) {
+                        entries.remove();
+                    }
+                    return true;
+                }
+            }
+            entries.remove();
+        }
+        return false;
+    }
+
+    private static void checkServerThread() {
+        Preconditions.checkState(Bukkit.isPrimaryThread(), "The render queue can only be used from the server thread");
+    }
+
+    private boolean isHot(final PagedInventory inventory) {
+        final Long clickedAt = this.clicked.get(inventory);
+        return clickedAt != null && this.flushes - clickedAt <= HOT_FLUSHES;
+    }
+
+    /**
+     * Sets how long a single flush may spend rendering.
+     *
+     * @param nanosPerFlush the budget in nanoseconds
+     * @throws IllegalArgumentException thrown if the budget is not positive
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void setBudget(long nanosPerFlush) throws IllegalArgumentException {
+        Preconditions.checkArgument(nanosPerFlush > 0, "The nanos per flush must be positive");
+        this.nanosPerFlush = nanosPerFlush;
+    }
+
+    /**
+     * Sets whether every write of a slot into an inventory somebody is viewing goes through this queue rather than only
+     * slots marked dirty.
+     *
+     * @param deferWrites true to defer every write
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void setDeferWrites(boolean deferWrites) {
+        this.deferWrites = deferWrites;
+    }
+
+    /**
+     * Gets whether every write of a slot into an inventory somebody is viewing goes through this queue.
+     *
+     * @return true if writes are deferred
+     * @since 2.1.1-SNAPSHOT
+     */
+    public boolean isDeferWrites() {
+        return this.deferWrites;
+    }
+
+    /**
+     * Gets the number of slots waiting to be rendered.
+     *
+     * @return the queued slot count
+     * @since 2.1.1-SNAPSHOT
+     */
+    public int size() {
+        int size = 0;
+        for (final Set<MenuSlot> slots : this.dirty.values()) {
+            size += slots.size();
+        }
+        return size;
+    }
+
+    /**
+     * Drops every queued slot without rendering it.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void clear() {
+        this.dirty.clear();
+        this.clicked.clear();
+    }
+}
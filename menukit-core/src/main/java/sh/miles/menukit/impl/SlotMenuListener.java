@@ -6,6 +6,8 @@ import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import sh.miles.menukit.menu.MenuCache;
 import sh.miles.menukit.menu.SlotMenu;
 
 /**
@@ -39,13 +41,25 @@ class SlotMenuListener implements Listener {
         menuManager.getMenu(event.getView().getPlayer().getUniqueId()).ifPresent(menu -> menu.handleDrag(event));
     }
 
+    /*
+     * open and close events are routed by view as well as by player, since switching from one menu to another closes
+     * the old view while the new menu is already on its way in
+     */
+
     @EventHandler
     public void onOpen(InventoryOpenEvent event) {
-        menuManager.getMenu(event.getView().getPlayer().getUniqueId()).ifPresent(menu -> menu.handleOpen(event));
+        menuManager.getMenu(event.getView().getPlayer().getUniqueId(), event.getView()).ifPresent(menu -> menu.handleOpen(event));
     }
 
     @EventHandler
     public void onClose(InventoryCloseEvent event) {
-        menuManager.getMenu(event.getView().getPlayer().getUniqueId()).ifPresent(menu -> menu.handleClose(event));
+        menuManager.getMenu(event.getView().getPlayer().getUniqueId(), event.getView()).ifPresent(menu -> menu.handleClose(event));
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        menuManager.getHistory().clear(event.getPlayer().getUniqueId());
+        menuManager.getOpenScheduler().cancel(event.getPlayer().getUniqueId());
+        MenuCache.invalidateEverywhere(event.getPlayer().getUniqueId());
     }
 }
@@ -4,8 +4,14 @@ import com.google.common.base.Preconditions;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Listener;
+import org.bukkit.inventory.InventoryView;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.jspecify.annotations.Nullable;
+import sh.miles.menukit.menu.MenuHistory;
 import sh.miles.menukit.menu.SlotMenu;
+import sh.miles.menukit.util.PagedArrayPool;
+import sh.miles.menukit.util.TimingWheel;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -24,7 +30,20 @@ public final class SlotMenuManager {
     private static SlotMenuManager instance = null;
 
     private final Map<UUID, SlotMenu<?>> menus = new HashMap<>();
+    /*
+     * menus between SlotMenu#open calling openInventory and registering, so that their open event can be routed. These
+     * outlive unregister, as the menu being replaced unregisters its player from its close event in the middle of this
+     */
+    private final Map<UUID, SlotMenu<?>> opening = new HashMap<>();
+    private final RenderQueue renderQueue = new RenderQueue();
+    private final Animator animator = new Animator();
+    private final TimingWheel timers;
+    private final OpenScheduler openScheduler;
+    private final MenuHistory history = new MenuHistory(MenuHistory.DEFAULT_MAX_DEPTH, MenuHistory.DEFAULT_MAX_SLOTS);
+    private @Nullable PagedArrayPool arrayPool;
     private final Listener listener;
+    private final BukkitTask ticker;
+    private long currentTick = 0;
 
     /**
      * Creates a new slot menu manager
@@ -35,8 +54,25 @@ public final class SlotMenuManager {
      * @since 1.0.0-SNAPSHOT
      */
     public SlotMenuManager(final Plugin plugin) {
+        this.timers = new TimingWheel(512, plugin.getLogger());
+        this.openScheduler = new OpenScheduler(plugin.getLogger());
         this.listener = new SlotMenuListener(this);
         Bukkit.getPluginManager().registerEvents(this.listener, plugin);
+        this.ticker = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /**
+     * Runs once every server tick for as long as this manager is active. This is the single task all of MenuKit's per
+     * tick work is driven from.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    void tick() {
+        this.currentTick++;
+        this.timers.tick();
+        this.openScheduler.tick();
+        this.animator.tick(this.currentTick);
+        this.renderQueue.flush();
     }
 
     /**
@@ -47,9 +83,23 @@ public final class SlotMenuManager {
      * @since 1.0.0-SNAPSHOT
      */
     public void register(Player player, SlotMenu<?> menu) {
+        this.opening.remove(player.getUniqueId());
         this.menus.put(player.getUniqueId(), menu);
     }
 
+    /**
+     * Marks the given menu as about to be opened for the given player. Until it is registered with
+     * {@link #register(Player, SlotMenu)} it only receives its own open event, while the menu it replaces stays
+     * registered long enough to receive its close event.
+     *
+     * @param player the player the menu belongs to
+     * @param menu   the menu being opened
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void beginOpen(Player player, SlotMenu<?> menu) {
+        this.opening.put(player.getUniqueId(), menu);
+    }
+
     /**
      * Stops tracking whatever menu is open for the given player. Doing so is what keeps closed menus from leaking.
      *
@@ -71,6 +121,124 @@ public final class SlotMenuManager {
         return Optional.ofNullable(menus.get(playerUUID));
     }
 
+    /**
+     * Gets the menu, open or being opened for the given player, that the given view belongs to.
+     *
+     * @param playerUUID the uuid of the player to look up
+     * @param view       the view an event was fired for
+     * @return the menu owning that view, or empty if neither menu tracked for that player does
+     * @since 2.1.1-SNAPSHOT
+     */
+    public Optional<SlotMenu<?>> getMenu(UUID playerUUID, InventoryView view) {
+        final SlotMenu<?> menu = this.menus.get(playerUUID);
+        if (menu != null && owns(menu, view)) {
+            return Optional.of(menu);
+        }
+
+        final SlotMenu<?> opening = this.opening.get(playerUUID);
+        if (opening != null && owns(opening, view)) {
+            return Optional.of(opening);
+        }
+        return Optional.empty();
+    }
+
+    private static boolean owns(SlotMenu<?> menu, InventoryView view) {
+        final InventoryView menuView = menu.getBukkitView();
+        return menuView != null && view.getTopInventory().equals(menuView.getTopInventory());
+    }
+
+    /**
+     * Gets the queue that showing slots are rendered through once per tick.
+     *
+     * @return the render queue
+     * @since 2.1.1-SNAPSHOT
+     */
+    public RenderQueue getRenderQueue() {
+        return this.renderQueue;
+    }
+
+    /**
+     * Gets the animator that advances animated slots.
+     *
+     * @return the animator
+     * @since 2.1.1-SNAPSHOT
+     */
+    public Animator getAnimator() {
+        return this.animator;
+    }
+
+    /**
+     * Gets the timing wheel menu scoped timers are scheduled on.
+     *
+     * @return the timing wheel
+     * @since 2.1.1-SNAPSHOT
+     */
+    public TimingWheel getTimers() {
+        return this.timers;
+    }
+
+    /**
+     * Gets the scheduler that spreads menu opens over several ticks.
+     *
+     * @return the open scheduler
+     * @since 2.1.1-SNAPSHOT
+     */
+    public OpenScheduler getOpenScheduler() {
+        return this.openScheduler;
+    }
+
+    /**
+     * Gets the navigation history of every player.
+     *
+     * @return the history
+     * @since 2.1.1-SNAPSHOT
+     */
+    public MenuHistory getHistory() {
+        return this.history;
+    }
+
+    /**
+     * Gets the pool menus take their paged arrays from.
+     *
+     * @return the pool, or null if menus are not pooled
+     * @since 2.1.1-SNAPSHOT
+     */
+    public @Nullable PagedArrayPool getArrayPool() {
+        return this.arrayPool;
+    }
+
+    /**
+     * Sets the pool menus take their paged arrays from. Menus created while a pool is set hand their arrays back to it
+     * once they are closed or transitioned away from, unless a cache or history is holding on to them to be opened
+     * again, in which case they do so as soon as it lets go of them.
+     *
+     * @param arrayPool the pool, or null to stop pooling
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void setArrayPool(@Nullable PagedArrayPool arrayPool) {
+        this.arrayPool = arrayPool;
+    }
+
+    /**
+     * Gets the number of ticks this manager has run for.
+     *
+     * @return the current tick
+     * @since 2.1.1-SNAPSHOT
+     */
+    public long getCurrentTick() {
+        return this.currentTick;
+    }
+
+    /**
+     * Gets whether a menu manager is currently active.
+     *
+     * @return true if MenuKit has been started
+     * @since 2.1.1-SNAPSHOT
+     */
+    public static boolean isInitialized() {
+        return instance != null;
+    }
+
     /**
      * Gets the active menu manager.
      *
@@ -106,7 +274,15 @@ public final class SlotMenuManager {
      */
     public static void shutdown() throws IllegalArgumentException {
         Preconditions.checkArgument(instance != null, "Can not shutdown MenuManager without initializing MenuKit");
+        instance.ticker.cancel();
         instance.menus.clear();
+        instance.opening.clear();
+        instance.renderQueue.clear();
+        instance.animator.clear();
+        instance.timers.clear();
+        instance.history.clear();
+        instance.openScheduler.clear();
+        instance.arrayPool = null;
         instance = null;
     }
 }
@@ -0,0 +1,201 @@
+package sh.miles.menukit.menu;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.InventoryView;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+
+/**
+ * A cache of closed menus, keyed by player and {@link SlotMenuFactory}, so that a player returning to a menu they just
+ * left gets the same menu back instead of a freshly built one.
+ * <p>
+ * Each menu is cached together with what it was built from, such as the initializable given to
+ * {@link SlotMenuFactory#create(Player, SlotMenuFactory.MenuInitializable)}. A menu is only reused for a request to
+ * build it from the very same source, one built from anything else is dropped and built again.
+ * <p>
+ * A cached menu is only loaded the first time it opens, every open after that merely
+ * {@link SlotMenu#revalidate(InventoryView) revalidates} it, so it comes back on whatever pages it
+ * was showing. Menus are dropped once they have been closed for longer than the time to live, and the cache as a whole
+ * is bounded, evicting the least recently used menu first.
+ * <p>
+ * A cache is attached to factories with {@link SlotMenuFactory#setReopenCache(MenuCache)} and may be shared between
+ * several of them, which bounds their menus together. Every cache drops the menus of a player as soon as they quit, so
+ * that a cached menu never keeps a player who left alive.
+ *
+ * @since 2.1.1-SNAPSHOT
+ */
+public final class MenuCache {
+
+    /*
+     * every live cache, so that a quitting player can be dropped from all of them at once
+     */
+    private static final Set<MenuCache> CACHES = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private final long timeToLive;
+    private final int maxSize;
+    private final Map<Key, Entry> menus;
+
+    /**
+     * Creates a new menu cache.
+     *
+     * @param timeToLive how long a menu may stay closed before it is dropped
+     * @param maxSize    the most menus this cache may hold at once
+     * @throws IllegalArgumentException thrown if the time to live is negative or the max size is not positive
+     * @since 2.1.1-SNAPSHOT
+     */
+    public MenuCache(Duration timeToLive, int maxSize) throws IllegalArgumentException {
+        Preconditions.checkArgument(timeToLive != null && !timeToLive.isNegative(), "The time to live must not be negative");
+        Preconditions.checkArgument(maxSize > 0, "The max size must be positive");
+        this.timeToLive = timeToLive.toNanos();
+        this.maxSize = maxSize;
+        this.menus = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, Entry> eldest) {
+                if (size() > MenuCache.this.maxSize) {
+                    eldest.getValue().menu().retained = false;
+                    eldest.getValue().menu().releaseIfUnheld();
+                    return true;
+                }
+                return false;
+            }
+        };
+        CACHES.add(this);
+    }
+
+    /**
+     * Drops every menu cached for the given player by any cache. MenuKit calls this when a player quits.
+     *
+     * @param playerUUID the uuid of the player
+     * @since 2.1.1-SNAPSHOT
+     */
+    public static void invalidateEverywhere(final UUID playerUUID) {
+        for (final MenuCache cache : new ArrayList<>(CACHES)) {
+            cache.invalidate(playerUUID);
+        }
+    }
+
+    /**
+     * Gets the cached menu for the given player and factory, if there is one that can be reused.
+     * <p>
+     * A menu can be reused if it was made for this very player object, so not for a previous login, from the given
+     * source, is not open right now and has not been closed for longer than the time to live. Menus that can not be
+     * reused are dropped, along with every other menu whose time to live ran out.
+     *
+     * @param player  the player
+     * @param factory the factory
+     * @param source  what the menu is to be built from, such as its initializable
+     * @param <V>     the type of view
+     * @return the menu, or null if there is none to reuse
+     */
+    @SuppressWarnings("unchecked")
+    <V extends InventoryView> @Nullable SlotMenu<V> get(final Player player, final SlotMenuFactory<V> factory, final Object source) {
+        purgeExpired();
+        final Key key = new Key(player.getUniqueId(), factory);
+        final Entry entry = this.menus.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        final SlotMenu<?> menu = entry.menu();
+        if (menu.viewer != player || entry.source() != source || menu.isOpen()) {
+            this.menus.remove(key);
+            menu.retained = false;
+            menu.releaseIfUnheld();
+            return null;
+        }
+        return (SlotMenu<V>) menu;
+    }
+
+    /**
+     * Caches a menu for the given player and factory, replacing any menu already cached for them.
+     *
+     * @param player  the player
+     * @param factory the factory
+     * @param source  what the menu was built from, such as its initializable
+     * @param menu    the menu
+     */
+    void put(final Player player, final SlotMenuFactory<?> factory, final Object source, final SlotMenu<?> menu) {
+        purgeExpired();
+        menu.retained = true;
+        final Entry previous = this.menus.put(new Key(player.getUniqueId(), factory), new Entry(menu, source));
+        if (previous != null && previous.menu() != menu) {
+            previous.menu().retained = false;
+            previous.menu().releaseIfUnheld();
+        }
+    }
+
+    /**
+     * Drops every menu cached for the given player.
+     *
+     * @param playerUUID the uuid of the player
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void invalidate(final UUID playerUUID) {
+        final Iterator<Map.Entry<Key, Entry>> iterator = this.menus.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<Key, Entry> entry = iterator.next();
+            if (entry.getKey().player().equals(playerUUID)) {
+                entry.getValue().menu().retained = false;
+                entry.getValue().menu().releaseIfUnheld();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Drops every cached menu.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void clear() {
+        for (final Entry entry : this.menus.values()) {
+            final SlotMenu<?> menu = entry.menu();
+            menu.retained = false;
+            menu.releaseIfUnheld();
+        }
+        this.menus.clear();
+    }
+
+    /**
+     * Gets the number of menus currently cached.
+     *
+     * @return the size of this cache
+     * @since 2.1.1-SNAPSHOT
+     */
+    public int size() {
+        return this.menus.size();
+    }
+
+    private void purgeExpired() {
+        final long now = System.nanoTime();
+        final Iterator<Entry> iterator = this.menus.values().iterator();
+        while (iterator.hasNext()) {
+            final SlotMenu<?> menu = iterator.next().menu();
+            if (isExpired(menu, now)) {
+                menu.retained = false;
+                menu.releaseIfUnheld();
+                iterator.remove();
+            }
+        }
+    }
+
+    private boolean isExpired(final SlotMenu<?> menu, final long now) {
+        return !menu.isOpen() && menu.isLoaded() && now - menu.getClosedAt() > this.timeToLive;
+    }
+
+    private record Key(UUID player, SlotMenuFactory<?> factory) {
+    }
+
+    private record Entry(SlotMenu<?> menu, Object source) {
+    }
+}
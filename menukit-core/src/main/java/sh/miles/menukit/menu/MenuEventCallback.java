@@ -7,6 +7,7 @@ import org.bukkit.event.Cancellable;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.event.inventory.InventoryEvent;
+import sh.miles.menukit.util.PagedInventory;
 
 import java.util.function.Consumer;
 
@@ -82,6 +83,19 @@ public final class MenuEventCallback<T extends InventoryEvent> {
         return menu;
     }
 
+    /**
+     * Gets the paged inventory of the menu directly involved in this event callback.
+     * <p>
+     * Callbacks of slots stamped from a {@link MenuTemplate} are shared by every menu the template was stamped into, so
+     * they must act on this inventory rather than on the one their initializer was given.
+     *
+     * @return the involved menu's inventory
+     * @since 2.1.1-SNAPSHOT
+     */
+    public PagedInventory getInventory() {
+        return this.menu.getInventory();
+    }
+
     /**
      * Cancels the provided event if possible.
      *
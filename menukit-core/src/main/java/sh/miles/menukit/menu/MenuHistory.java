@@ -0,0 +1,191 @@
+package sh.miles.menukit.menu;
+
+import com.google.common.base.Preconditions;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The navigation history of every player, a stack of the menus they opened children from with
+ * {@link SlotMenu#openChild(SlotMenu)} and can go {@link SlotMenu#back() back} to.
+ * <p>
+ * Menus in the history are suspended rather than discarded. They keep their {@link sh.miles.menukit.util.PagedInventory}
+ * and current pages, and going back to one merely {@link SlotMenu#revalidate(org.bukkit.inventory.InventoryView)
+ * revalidates} it instead of reloading it.
+ * <p>
+ * The history is bounded in two ways. Each player's stack holds at most a set number of menus, dropping the oldest
+ * once it grows past that, and all stacks together hold on to at most a set number of menu slots, counted as the page
+ * size times the page count of every suspended menu. Past that, the oldest menus of the players who navigated least
+ * recently are dropped first. A menu that was dropped is rebuilt as usual should it be opened again.
+ *
+ * @since 2.1.1-SNAPSHOT
+ */
+public final class MenuHistory {
+
+    /**
+     * The default number of menus a single player's history holds.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    public static final int DEFAULT_MAX_DEPTH = 16;
+    /**
+     * The default number of menu slots all histories together hold on to.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    public static final int DEFAULT_MAX_SLOTS = 54 * 4096;
+
+    /*
+     * access ordered, so that iteration starts at the player who navigated least recently
+     */
+    private final Map<UUID, Deque<SlotMenu<?>>> stacks = new LinkedHashMap<>(16, 0.75f, true);
+    private int maxDepth;
+    private int maxSlots;
+    private int heldSlots = 0;
+
+    /**
+     * Creates a new navigation history.
+     *
+     * @param maxDepth the most menus a single player's history may hold
+     * @param maxSlots the most menu slots all histories together may hold on to
+     * @throws IllegalArgumentException thrown if either limit is not positive
+     * @since 2.1.1-SNAPSHOT
+     */
+    public MenuHistory(int maxDepth, int maxSlots) throws IllegalArgumentException {
+        setLimits(maxDepth, maxSlots);
+    }
+
+    /**
+     * Changes the limits of this history, dropping menus right away if it holds more than the new limits allow.
+     *
+     * @param maxDepth the most menus a single player's history may hold
+     * @param maxSlots the most menu slots all histories together may hold on to
+     * @throws IllegalArgumentException thrown if either limit is not positive
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void setLimits(int maxDepth, int maxSlots) throws IllegalArgumentException {
+        Preconditions.checkArgument(maxDepth > 0, "The max depth must be positive");
+        Preconditions.checkArgument(maxSlots > 0, "The max slot count must be positive");
+        this.maxDepth = maxDepth;
+        this.maxSlots = maxSlots;
+        for (final Deque<SlotMenu<?>> stack : this.stacks.values()) {
+            while (stack.size() > maxDepth) {
+                drop(stack.removeLast());
+            }
+        }
+        trim();
+    }
+
+    /**
+     * Suspends a menu onto the top of its viewer's history.
+     *
+     * @param menu the menu to suspend
+     */
+    void push(final SlotMenu<?> menu) {
+        final Deque<SlotMenu<?>> stack = this.stacks.computeIfAbsent(menu.viewer.getUniqueId(), uuid -> new ArrayDeque<>());
+        menu.suspended = true;
+        stack.push(menu);
+        this.heldSlots += weigh(menu);
+        if (stack.size() > this.maxDepth) {
+            drop(stack.removeLast());
+        }
+        trim();
+    }
+
+    /**
+     * Takes the most recently suspended menu off the given player's history. The menu is left suspended, so that it
+     * can be resumed rather than reloaded, and it is up to the caller to clear that.
+     *
+     * @param playerUUID the uuid of the player
+     * @return the menu, or null if the player's history is empty
+     */
+    @Nullable
+    SlotMenu<?> pop(final UUID playerUUID) {
+        final Deque<SlotMenu<?>> stack = this.stacks.get(playerUUID);
+        if (stack == null) {
+            return null;
+        }
+
+        final SlotMenu<?> menu = stack.pop();
+        this.heldSlots -= weigh(menu);
+        if (stack.isEmpty()) {
+            this.stacks.remove(playerUUID);
+        }
+        return menu;
+    }
+
+    /**
+     * Gets the number of menus in the given player's history.
+     *
+     * @param playerUUID the uuid of the player
+     * @return the depth of that player's history
+     * @since 2.1.1-SNAPSHOT
+     */
+    public int depth(UUID playerUUID) {
+        final Deque<SlotMenu<?>> stack = this.stacks.get(playerUUID);
+        return stack == null ? 0 : stack.size();
+    }
+
+    /**
+     * Gets the number of menu slots all histories together are currently holding on to.
+     *
+     * @return the held slot count
+     * @since 2.1.1-SNAPSHOT
+     */
+    public int getHeldSlots() {
+        return this.heldSlots;
+    }
+
+    /**
+     * Drops the given player's whole history, for example once they leave.
+     *
+     * @param playerUUID the uuid of the player
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void clear(UUID playerUUID) {
+        final Deque<SlotMenu<?>> stack = this.stacks.remove(playerUUID);
+        if (stack != null) {
+            stack.forEach(this::drop);
+        }
+    }
+
+    /**
+     * Drops every player's history.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void clear() {
+        for (final Deque<SlotMenu<?>> stack : this.stacks.values()) {
+            stack.forEach(this::drop);
+        }
+        this.stacks.clear();
+    }
+
+    private void trim() {
+        final Iterator<Deque<SlotMenu<?>>> iterator = this.stacks.values().iterator();
+        while (this.heldSlots > this.maxSlots && iterator.hasNext()) {
+            final Deque<SlotMenu<?>> stack = iterator.next();
+            while (this.heldSlots > this.maxSlots && !stack.isEmpty()) {
+                drop(stack.removeLast());
+            }
+            if (stack.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void drop(final SlotMenu<?> menu) {
+        menu.suspended = false;
+        this.heldSlots -= weigh(menu);
+        menu.releaseIfUnheld();
+    }
+
+    private static int weigh(final SlotMenu<?> menu) {
+        return menu.inventory.getPageSize() * menu.inventory.getPages();
+    }
+}
@@ -0,0 +1,103 @@
+package sh.miles.menukit.menu;
+
+import com.google.common.base.Preconditions;
+import sh.miles.menukit.slot.MenuSlot;
+import sh.miles.menukit.util.PagedInventory;
+
+import java.util.function.Consumer;
+
+/**
+ * The player independent part of a menu, such as borders, navigation buttons and decoration, built once and then
+ * stamped into every menu that uses it.
+ * <p>
+ * Compiling a template runs its initializer against a {@link PagedInventory#detached(int, int) detached} inventory.
+ * Stamping copies the resulting slots into a real inventory with {@link MenuSlot#relocate(PagedInventory, int, int)},
+ * which shares their content and callbacks rather than building them again.
+ * <p>
+ * Only slots that support relocation are stamped, as slots built with {@link MenuSlot#builder()} do. Empty positions
+ * and slots the initializer placed some other way, which can not be relocated, are skipped.
+ * <p>
+ * Every stamped copy is bound to the same values, filed under the same invalidation keys and animated the same way as
+ * the slot it was copied from, so it behaves exactly like a slot built directly into the inventory. Stamping again into
+ * the same inventory, as a menu does each time it reloads, unregisters the copies it replaces.
+ * <p>
+ * The inventory the initializer is given is never shown and its click and drag callbacks are shared by every stamped
+ * copy, so a callback must not act on that inventory. It should act on the inventory of the menu that was clicked,
+ * {@link MenuEventCallback#getInventory()}, instead.
+ *
+ * @since 2.1.1-SNAPSHOT
+ */
+public final class MenuTemplate {
+
+    private final PagedInventory slots;
+
+    private MenuTemplate(final PagedInventory slots) {
+        this.slots = slots;
+    }
+
+    /**
+     * Compiles a template.
+     *
+     * @param pageSize    the size of each page
+     * @param pages       the number of pages
+     * @param initializer the function filling the template's slots
+     * @return the compiled template
+     * @since 2.1.1-SNAPSHOT
+     */
+    public static MenuTemplate compile(final int pageSize, final int pages, final Consumer<PagedInventory> initializer) {
+        Preconditions.checkArgument(initializer != null, "The provided initializer must not be null");
+        final PagedInventory slots = PagedInventory.detached(pageSize, pages);
+        initializer.accept(slots);
+        return new MenuTemplate(slots);
+    }
+
+    /**
+     * Copies every slot of this template into the given inventory, at the same page and index. Empty positions and slots
+     * that can not be relocated are skipped. The slots the copies replace are {@link MenuSlot#unregister() unregistered}.
+     *
+     * @param inventory the inventory to stamp into
+     * @throws IllegalArgumentException thrown if the inventory is smaller than this template
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void stamp(final PagedInventory inventory) throws IllegalArgumentException {
+        Preconditions.checkArgument(inventory != null, "The provided inventory must not be null");
+        Preconditions.checkArgument(getPageSize() <= inventory.getPageSize() && getPages() <= inventory.getPages(), "The template can not be stamped into this inventory because the template is too large");
+        for (int page = 0; page < getPages(); page++) {
+            for (int index = 0; index < getPageSize(); index++) {
+                final MenuSlot slot = this.slots.getSlot(page, index);
+                if (slot == MenuSlot.DUMMY) {
+                    continue;
+                }
+
+                final MenuSlot replaced = inventory.getSlot(page, index);
+                try {
+                    slot.relocate(inventory, page, index);
+                } catch (UnsupportedOperationException ignored) {
+                    // not relocatable, so not part of what the template can stamp
+                    continue;
+                }
+                replaced.unregister();
+            }
+        }
+    }
+
+    /**
+     * Gets the size of each page of this template.
+     *
+     * @return the page size
+     * @since 2.1.1-SNAPSHOT
+     */
+    public int getPageSize() {
+        return this.slots.getPageSize();
+    }
+
+    /**
+     * Gets the number of pages of this template.
+     *
+     * @return the page count
+     * @since 2.1.1-SNAPSHOT
+     */
+    public int getPages() {
+        return this.slots.getPages();
+    }
+}
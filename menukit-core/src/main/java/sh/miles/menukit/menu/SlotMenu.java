@@ -1,16 +1,21 @@
 package sh.miles.menukit.menu;
 
 import com.google.common.base.Preconditions;
+import net.kyori.adventure.text.Component;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryView;
 import org.jspecify.annotations.Nullable;
+import sh.miles.menukit.impl.OpenScheduler;
 import sh.miles.menukit.impl.SlotMenuManager;
 import sh.miles.menukit.slot.MenuSlot;
+import sh.miles.menukit.util.PagedArrayPool;
 import sh.miles.menukit.util.PagedInventory;
+import sh.miles.menukit.util.TimingWheel;
 
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -26,14 +31,34 @@ public abstract class SlotMenu<V extends InventoryView> {
 
     protected final Player viewer;
     protected final PagedInventory inventory;
-    protected final V bukkitView;
+    /*
+     * not final, as a transition swaps the views of the two menus involved
+     */
+    protected V bukkitView;
+    private final TimingWheel.Group timers = new TimingWheel.Group();
+    private final Component title;
+    /*
+     * set by a MenuCache holding on to this menu, so that opening it again resumes it rather than reloading it
+     */
+    boolean retained = false;
+    /*
+     * set while this menu sits in a MenuHistory, to the same effect
+     */
+    boolean suspended = false;
+    private boolean loaded = false;
+    private boolean open = false;
+    private long closedAt = 0L;
 
     protected SlotMenu(final Player player, final Function<Player, V> viewFactory, final int pageCount) {
         Preconditions.checkArgument(player != null, "A non null player must be provided");
         Preconditions.checkArgument(viewFactory != null, "A non null view factory must be provided");
         this.viewer = player;
         this.bukkitView = viewFactory.apply(player);
-        this.inventory = new PagedInventory(bukkitView.getTopInventory(), pageCount);
+        final PagedArrayPool pool = SlotMenuManager.isInitialized() ? SlotMenuManager.menuManager().getArrayPool() : null;
+        this.inventory = pool == null
+                ? new PagedInventory(bukkitView.getTopInventory(), pageCount)
+                : new PagedInventory(bukkitView.getTopInventory(), pageCount, pool);
+        this.title = bukkitView.title();
     }
 
     /**
@@ -52,6 +77,22 @@ public abstract class SlotMenu<V extends InventoryView> {
         return slotBuilder.build();
     }
 
+    /**
+     * Schedules a task to run after the given number of ticks, for example to revert a confirmation button or close an
+     * idle menu.
+     * <p>
+     * Timers run off MenuKit's single ticker rather than a scheduler task each, and every timer scheduled through this
+     * menu is cancelled when it closes.
+     *
+     * @param delay the delay in ticks
+     * @param task  the task to run
+     * @return the timer, which can be used to cancel the task early
+     * @since 2.1.1-SNAPSHOT
+     */
+    public final TimingWheel.Timer schedule(final long delay, final Runnable task) {
+        return SlotMenuManager.menuManager().getTimers().schedule(delay, task, this.timers);
+    }
+
     /**
      * Handles the click event for this menu.
      *
@@ -65,6 +106,9 @@ public abstract class SlotMenu<V extends InventoryView> {
         if (event.getClickedInventory() != null
                 && event.getClickedInventory().equals(this.bukkitView.getTopInventory())) {
             final int slot = event.getSlot();
+            if (SlotMenuManager.isInitialized()) {
+                SlotMenuManager.menuManager().getRenderQueue().touch(this.inventory);
+            }
             this.inventory.getSlot(slot).click(new MenuEventCallback<>(event, this));
         }
     }
@@ -105,18 +149,30 @@ public abstract class SlotMenu<V extends InventoryView> {
     /**
      * Handles the close event for this menu.
      *
-     * <p>When overriding this method ensure to call the super method or memory leaks will occur
+     * <p>When overriding this method ensure to call the super method or memory leaks will occur, and timers scheduled
+     * with {@link #schedule(long, Runnable)} will keep running
+     *
+     * <p>If MenuKit has a {@link PagedArrayPool} set, a menu that no {@link MenuCache} or {@link MenuHistory} is holding
+     * on to hands its inventory's arrays back to the pool here, and can not be used or opened again afterwards
      *
      * @param event the close event
      * @since 1.0.0-SNAPSHOT
      */
     public void handleClose(final InventoryCloseEvent event) {
+        this.timers.cancelAll();
+        this.open = false;
+        this.closedAt = System.nanoTime();
         SlotMenuManager.menuManager().unregister(this.bukkitView.getPlayer().getUniqueId());
+        releaseIfUnheld();
     }
 
     /**
      * Opens the menu for the player and registers it to the menu manager.
      *
+     * <p>A menu is loaded with {@link #reload(InventoryView)} every time it is opened, unless it is being held by a
+     * {@link MenuCache} or suspended in a {@link MenuHistory}, in which case it is only loaded the first time and merely
+     * {@link #revalidate(InventoryView) revalidated} after that, keeping whatever pages it was showing when it closed.
+     *
      * @throws IllegalStateException thrown if the player already has the menu open
      * @since 1.0.0-SNAPSHOT
      */
@@ -125,9 +181,209 @@ public abstract class SlotMenu<V extends InventoryView> {
             throw new IllegalStateException("Can not re-open same menu twice");
         }
 
-        reload(this.bukkitView);
-        SlotMenuManager.menuManager().register(viewer, this);
+        load();
+
+        // the menu being replaced, if any, must still be registered when its close event fires during the open
+        final SlotMenuManager manager = SlotMenuManager.menuManager();
+        manager.beginOpen(viewer, this);
         viewer.openInventory(this.bukkitView);
+        manager.register(viewer, this);
+        this.open = true;
+    }
+
+    /**
+     * Replaces this open menu with the given menu without closing the window the player is looking at.
+     * <p>
+     * The target menu is loaded as {@link #open()} would load it and then takes over this menu's open view, writing only
+     * the slots whose content differs between the two menus. The window keeps its title, so both menus must have the
+     * same {@link Component} title. No close or open events are fired, so neither
+     * {@link #handleClose(InventoryCloseEvent)} nor {@link #handleOpen(InventoryOpenEvent)} is called, but this menu's
+     * timers are cancelled as they would be on close.
+     * <p>
+     * This menu is left closed, holding the view the target was created with, and may be opened again later like any
+     * other closed menu. As on close, if MenuKit has a {@link PagedArrayPool} set and no {@link MenuCache} or
+     * {@link MenuHistory} is holding on to this menu, its inventory's arrays are handed back to the pool instead.
+     *
+     * @param target the menu to transition to
+     * @throws IllegalArgumentException thrown if the target is this menu, belongs to another player, has another title,
+     *                                  or its inventory is not of the same type and size as this menu's
+     * @throws IllegalStateException    thrown if this menu is not open or the target is
+     * @since 2.1.1-SNAPSHOT
+     */
+    public final void transition(final SlotMenu<V> target) throws IllegalArgumentException, IllegalStateException {
+        Preconditions.checkArgument(target != null && target != this, "The target menu must be another non null menu");
+        Preconditions.checkArgument(target.viewer == this.viewer, "The target menu must belong to the same player");
+        Preconditions.checkState(this.open, "Can not transition from a menu that is not open");
+        Preconditions.checkState(!target.open, "Can not transition to a menu that is already open");
+        Preconditions.checkArgument(canTransitionTo(target), "Can only transition between menus of the same title, inventory type and size");
+        final Inventory from = this.bukkitView.getTopInventory();
+        final Inventory to = target.bukkitView.getTopInventory();
+
+        target.load();
+
+        final V view = this.bukkitView;
+        this.bukkitView = target.bukkitView;
+        target.bukkitView = view;
+        this.inventory.rebind(to);
+        target.inventory.rebind(from);
+
+        SlotMenuManager.menuManager().register(this.viewer, target);
+        target.open = true;
+        this.timers.cancelAll();
+        this.open = false;
+        this.closedAt = System.nanoTime();
+        releaseIfUnheld();
+    }
+
+    /**
+     * Opens a child of this open menu, remembering this menu in the player's {@link MenuHistory} so that
+     * {@link #back()} can return to it.
+     * <p>
+     * This menu is suspended rather than discarded, keeping its inventory and current pages, and going back to it
+     * resumes it without reloading it. If the child's view is of the same kind and has the same title as this menu's,
+     * it {@link #transition(SlotMenu) takes over} the open window, otherwise it is opened as usual.
+     *
+     * @param child the menu to open
+     * @throws IllegalArgumentException thrown if the child is this menu, belongs to another player or is already in the
+     *                                  player's history
+     * @throws IllegalStateException    thrown if this menu is not open
+     * @since 2.1.1-SNAPSHOT
+     */
+    public final void openChild(final SlotMenu<?> child) throws IllegalArgumentException, IllegalStateException {
+        Preconditions.checkArgument(child != null && child != this, "The child menu must be another non null menu");
+        Preconditions.checkArgument(child.viewer == this.viewer, "The child menu must belong to the same player");
+        Preconditions.checkArgument(!child.suspended, "The child menu is already in the navigation history");
+        Preconditions.checkState(this.open, "Can not open a child from a menu that is not open");
+        SlotMenuManager.menuManager().getHistory().push(this);
+        switchTo(child);
+    }
+
+    /**
+     * Returns from this menu to the menu it was opened from with {@link #openChild(SlotMenu)}, resuming that menu on the
+     * pages it was showing. This menu is discarded from the navigation.
+     *
+     * @return true if there was a menu to go back to, false if the player's history is empty
+     * @throws IllegalStateException thrown if this menu is not open
+     * @since 2.1.1-SNAPSHOT
+     */
+    public final boolean back() throws IllegalStateException {
+        Preconditions.checkState(this.open, "Can not go back from a menu that is not open");
+        final SlotMenu<?> parent = SlotMenuManager.menuManager().getHistory().pop(this.viewer.getUniqueId());
+        if (parent == null) {
+            return false;
+        }
+
+        switchTo(parent);
+        parent.suspended = false;
+        return true;
+    }
+
+    /**
+     * Shows the given menu in place of this open one, through a transition if their views allow it.
+     *
+     * @param target the menu to show
+     */
+    @SuppressWarnings("unchecked")
+    private void switchTo(final SlotMenu<?> target) {
+        // menus whose views are of the same class are of the same view type, whatever their declared generics
+        if (target.bukkitView.getClass() == this.bukkitView.getClass() && canTransitionTo(target)) {
+            transition((SlotMenu<V>) target);
+        } else {
+            target.open();
+        }
+    }
+
+    private boolean canTransitionTo(final SlotMenu<?> target) {
+        final Inventory from = this.bukkitView.getTopInventory();
+        final Inventory to = target.bukkitView.getTopInventory();
+        return this.title.equals(target.title) && from.getType() == to.getType() && from.getSize() == to.getSize();
+    }
+
+    /**
+     * Loads this menu ahead of being shown, fully the first time and merely revalidated after that if a
+     * {@link MenuCache} or {@link MenuHistory} is holding on to it.
+     */
+    private void load() {
+        if ((this.retained || this.suspended) && this.loaded) {
+            this.inventory.repaintStale();
+            revalidate(this.bukkitView);
+        } else {
+            reload(this.bukkitView);
+            this.loaded = true;
+        }
+    }
+
+    /**
+     * Hands this menu's inventory arrays back to their pool if this menu is closed and nothing is holding on to it to be
+     * opened again. Called as the menu closes and whenever a {@link MenuCache} or {@link MenuHistory} lets go of it.
+     */
+    void releaseIfUnheld() {
+        if (!this.open && !this.retained && !this.suspended && !this.inventory.isReleased()) {
+            this.inventory.release();
+        }
+    }
+
+    /**
+     * Opens the menu for the player through MenuKit's {@link OpenScheduler}, right away if this tick's open budget
+     * allows it and on a later tick otherwise. Prefer this over {@link #open()} when opening menus for many players at
+     * once.
+     *
+     * @return true if the menu was opened right away, false if the open is waiting
+     * @see #requestOpen(int)
+     * @since 2.1.1-SNAPSHOT
+     */
+    public final boolean requestOpen() {
+        return requestOpen(0);
+    }
+
+    /**
+     * Opens the menu for the player through MenuKit's {@link OpenScheduler}, right away if this tick's open budget
+     * allows it and on a later tick otherwise.
+     *
+     * @param priority the priority of the open, higher opens first when the scheduler orders by priority
+     * @return true if the menu was opened right away, false if the open is waiting
+     * @since 2.1.1-SNAPSHOT
+     */
+    public final boolean requestOpen(final int priority) {
+        return SlotMenuManager.menuManager().getOpenScheduler().schedule(this, priority);
+    }
+
+    /**
+     * Gets whether this menu is currently open.
+     *
+     * @return true if the menu is open
+     * @since 2.1.1-SNAPSHOT
+     */
+    public boolean isOpen() {
+        return this.open;
+    }
+
+    /**
+     * Gets whether this menu has been loaded at least once.
+     *
+     * @return true if the menu has been loaded
+     */
+    boolean isLoaded() {
+        return this.loaded;
+    }
+
+    /**
+     * Gets the {@link System#nanoTime()} this menu was last closed at.
+     *
+     * @return the close time, or 0 if it has never been closed
+     */
+    long getClosedAt() {
+        return this.closedAt;
+    }
+
+    /**
+     * Gets the player this menu was created for.
+     *
+     * @return the viewer
+     * @since 2.1.1-SNAPSHOT
+     */
+    public Player getViewer() {
+        return this.viewer;
     }
 
     /**
@@ -159,4 +415,17 @@ public abstract class SlotMenu<V extends InventoryView> {
      * @since 1.0.0-SNAPSHOT
      */
     protected abstract void reload(final V view);
+
+    /**
+     * Function called instead of {@link #reload(InventoryView)} when a menu that was already loaded is opened again
+     * without being rebuilt, such as a menu reused from a {@link MenuCache}.
+     *
+     * <p>This method has no base functionality. Override it to refresh anything that may have gone stale while the menu
+     * was closed
+     *
+     * @param view the view
+     * @since 2.1.1-SNAPSHOT
+     */
+    protected void revalidate(final V view) {
+    }
 }
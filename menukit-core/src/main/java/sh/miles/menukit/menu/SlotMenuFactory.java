@@ -3,8 +3,13 @@ package sh.miles.menukit.menu;
 import com.google.common.base.Preconditions;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.InventoryView;
+import org.jspecify.annotations.Nullable;
 import sh.miles.menukit.util.PagedInventory;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
@@ -18,6 +23,9 @@ public class SlotMenuFactory<V extends InventoryView> {
     private final int pageCount;
 
     private MenuConstructor<V> constructor;
+    private @Nullable Consumer<PagedInventory> templateInitializer;
+    private @Nullable MenuTemplate template;
+    private @Nullable MenuCache reopenCache;
 
     /**
      * Initializes a new view factory.
@@ -30,6 +38,9 @@ public class SlotMenuFactory<V extends InventoryView> {
         this.viewFactory = viewFactory;
         this.pageCount = pageCount;
         this.constructor = null;
+        this.templateInitializer = null;
+        this.template = null;
+        this.reopenCache = null;
     }
 
     /**
@@ -38,6 +49,10 @@ public class SlotMenuFactory<V extends InventoryView> {
      * A factorized or simplified slot menu that allows for basic initializable logic, but nothing else. In order to use
      * a factory to build your own type of menu a menu constructor should be set in
      * {@link #setMenuConstructor(MenuConstructor)} then use the method {@link #create(Player)}.
+     * <p>
+     * If this factory has a {@link #setReopenCache(MenuCache) reopen cache} and it holds a reusable menu for the player
+     * that was created with this very initializable, that menu is returned as is. A cached menu created with any other
+     * initializable is dropped and a new one is created.
      *
      * @param player        the player to assign this menu to
      * @param initializable the initialization logic of this simple menu
@@ -47,11 +62,54 @@ public class SlotMenuFactory<V extends InventoryView> {
     public SlotMenu<V> create(final Player player, final MenuInitializable<V> initializable) {
         Preconditions.checkArgument(player != null, "The provided player must not be null");
         Preconditions.checkArgument(initializable != null, "The provided initializable must not be null");
-        return new FactorizedSlotMenu<>(player, this.viewFactory, this.pageCount, initializable);
+        final SlotMenu<V> cached = fromCache(player, initializable);
+        if (cached != null) {
+            return cached;
+        }
+        return toCache(player, initializable, new FactorizedSlotMenu<>(player, this.viewFactory, this.pageCount, this, initializable));
+    }
+
+    /**
+     * Creates and opens the same menu for every given player, building its content once rather than once per player.
+     * <p>
+     * The content function runs a single time, against a detached inventory that belongs to none of the menus, and its
+     * slots are compiled together with this factory's {@link #setTemplate(Consumer) template} into a
+     * {@link MenuTemplate}. Every menu then merely has that template stamped into it as it loads, sharing the slots'
+     * content and callbacks. As with templates, the stamped slots keep their bindings, invalidation keys and animations,
+     * and click and drag callbacks must act on {@link MenuEventCallback#getInventory()} rather than on the inventory
+     * the content function was given.
+     * <p>
+     * The menus are opened through MenuKit's {@link sh.miles.menukit.impl.OpenScheduler}, which spreads the opens over
+     * as many ticks as its budget requires. A player with a menu in this factory's {@link #setReopenCache(MenuCache)
+     * reopen cache} that can be reused, and was opened with this very content function, has that menu opened instead.
+     *
+     * @param players the players to open the menu for
+     * @param content the function filling the slots shared by every menu
+     * @return the menus, in the order of the given players
+     * @since 2.1.1-SNAPSHOT
+     */
+    public List<SlotMenu<V>> openAll(final Collection<? extends Player> players, final Consumer<PagedInventory> content) {
+        Preconditions.checkArgument(players != null, "The provided players must not be null");
+        Preconditions.checkArgument(content != null, "The provided content must not be null");
+        final List<SlotMenu<V>> menus = new ArrayList<>(players.size());
+        final SharedContent shared = new SharedContent(this, content);
+        for (final Player player : players) {
+            Preconditions.checkArgument(player != null, "The provided players must not contain null");
+            final SlotMenu<V> cached = fromCache(player, content);
+            menus.add(cached != null ? cached : toCache(player, content, new SharedSlotMenu<>(player, this.viewFactory, this.pageCount, shared)));
+        }
+
+        for (final SlotMenu<V> menu : menus) {
+            menu.requestOpen();
+        }
+        return menus;
     }
 
     /**
      * Creates a new menu designated by {@link #setMenuConstructor(MenuConstructor)}
+     * <p>
+     * If this factory has a {@link #setReopenCache(MenuCache) reopen cache} and it holds a reusable menu for the player
+     * that was created by the menu constructor, that menu is returned instead.
      *
      * @param player the player to assign this menu to
      * @return the slot menu
@@ -60,7 +118,11 @@ public class SlotMenuFactory<V extends InventoryView> {
     public SlotMenu<V> create(final Player player) {
         Preconditions.checkArgument(this.constructor != null, "The constructor should not be null when using this method set it with" + " #setMenuConstructor");
         Preconditions.checkArgument(player != null, "The provided player must not be null");
-        return this.constructor.construct(player, this.viewFactory, this.pageCount);
+        final SlotMenu<V> cached = fromCache(player, this.constructor);
+        if (cached != null) {
+            return cached;
+        }
+        return toCache(player, this.constructor, this.constructor.construct(player, this.viewFactory, this.pageCount));
     }
 
     /**
@@ -78,21 +140,130 @@ public class SlotMenuFactory<V extends InventoryView> {
         this.constructor = constructor;
     }
 
+    /**
+     * Sets the player independent part of every menu this factory creates with {@link #create(Player,
+     * MenuInitializable)}.
+     * <p>
+     * The template initializer runs exactly once, when the first menu is created, and is compiled into a
+     * {@link MenuTemplate}. Every menu after that has the template stamped into it before its own, now smaller,
+     * initializer runs. Static content such as borders and navigation buttons belongs in the template, anything that
+     * depends on the player belongs in the initializer given to create.
+     * <p>
+     * The inventory the template initializer is given is a detached one that is never shown, and the callbacks of its
+     * slots are shared by every menu. Click and drag callbacks must therefore act on
+     * {@link MenuEventCallback#getInventory()} rather than on that inventory. Reloading a menu stamps the template again
+     * and unregisters the copies stamped before.
+     *
+     * <p>Note you can only set the template of a given factory once. Trying to set it again will throw an
+     * IllegalArgumentException
+     *
+     * @param templateInitializer the function filling the static slots
+     * @throws IllegalArgumentException thrown if the template is already set
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void setTemplate(final Consumer<PagedInventory> templateInitializer) throws IllegalArgumentException {
+        Preconditions.checkArgument(templateInitializer != null, "the provided template initializer must not be null");
+        Preconditions.checkArgument(this.templateInitializer == null, "The template of this factory can only be set once");
+        this.templateInitializer = templateInitializer;
+    }
+
+    /**
+     * Sets the cache closed menus from this factory are kept in, so that reopening a menu soon after closing it reuses
+     * the closed menu and its page state instead of building a new one.
+     *
+     * @param reopenCache the cache, or null to stop caching
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void setReopenCache(final @Nullable MenuCache reopenCache) {
+        this.reopenCache = reopenCache;
+    }
+
+    private @Nullable SlotMenu<V> fromCache(final Player player, final Object source) {
+        return this.reopenCache == null ? null : this.reopenCache.get(player, this, source);
+    }
+
+    private SlotMenu<V> toCache(final Player player, final Object source, final SlotMenu<V> menu) {
+        if (this.reopenCache != null) {
+            this.reopenCache.put(player, this, source, menu);
+        }
+        return menu;
+    }
+
+    /**
+     * Stamps this factory's template, compiling it first if this is the first time it is needed.
+     *
+     * @param inventory the inventory to stamp into
+     */
+    private void stampTemplate(final PagedInventory inventory) {
+        if (this.templateInitializer == null) {
+            return;
+        }
+
+        if (this.template == null) {
+            this.template = MenuTemplate.compile(inventory.getPageSize(), this.pageCount, this.templateInitializer);
+        }
+        this.template.stamp(inventory);
+    }
+
     static class FactorizedSlotMenu<V extends InventoryView> extends SlotMenu<V> {
 
+        private final SlotMenuFactory<V> factory;
         private final MenuInitializable<V> initializable;
 
-        protected FactorizedSlotMenu(final Player player, final Function<Player, V> viewFactory, final int pageCount, final MenuInitializable<V> initializable) {
+        protected FactorizedSlotMenu(final Player player, final Function<Player, V> viewFactory, final int pageCount, final SlotMenuFactory<V> factory, final MenuInitializable<V> initializable) {
             super(player, viewFactory, pageCount);
+            this.factory = factory;
             this.initializable = initializable;
         }
 
         @Override
         protected void reload(final V view) {
+            this.factory.stampTemplate(this.inventory);
             this.initializable.init(view, this.inventory);
         }
     }
 
+    /**
+     * The content shared by every menu of a single {@link #openAll(Collection, Consumer)}, compiled the first time one of
+     * them loads. Only the size of that menu's inventory is taken from it, never its view or its viewer.
+     */
+    private static final class SharedContent {
+
+        private final SlotMenuFactory<?> factory;
+        private final Consumer<PagedInventory> content;
+        private @Nullable MenuTemplate template;
+
+        private SharedContent(final SlotMenuFactory<?> factory, final Consumer<PagedInventory> content) {
+            this.factory = factory;
+            this.content = content;
+        }
+
+        private void stamp(final PagedInventory inventory) {
+            if (this.template == null) {
+                this.template = MenuTemplate.compile(inventory.getPageSize(), this.factory.pageCount, (slots) -> {
+                    this.factory.stampTemplate(slots);
+                    this.content.accept(slots);
+                });
+            }
+            this.template.stamp(inventory);
+        }
+    }
+
+    static class SharedSlotMenu<V extends InventoryView> extends SlotMenu<V> {
+
+        private final SharedContent content;
+
+        private SharedSlotMenu(final Player player, final Function<Player, V> viewFactory, final int pageCount, final SharedContent content) {
+            super(player, viewFactory, pageCount);
+            this.content = content;
+        }
+
+        @Override
+        protected void reload(final V view) {
+            this.content.stamp(this.inventory);
+        }
+    }
+
     /**
      * Functional interface used to edit the preliminary factorized slot menu.
      *
@@ -0,0 +1,108 @@
+package sh.miles.menukit.slot;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.function.IntFunction;
+
+/**
+ * An immutable list of frames a slot cycles through, advancing one frame every {@code period} ticks.
+ * <p>
+ * Frames are built once when the animation is created and are shared by every slot using it, however many menus those
+ * slots are in. Animated slots are advanced by MenuKit's single ticker, and only while they are showing in a menu
+ * somebody is viewing.
+ *
+ * @since 2.1.1-SNAPSHOT
+ */
+public final class Animation {
+
+    private final ItemStack[] frames;
+    private final int period;
+
+    private Animation(final ItemStack[] frames, final int period) {
+        this.frames = frames;
+        this.period = period;
+    }
+
+    /**
+     * Creates an animation from the given frames.
+     *
+     * @param period the number of ticks each frame is shown for
+     * @param frames the frames in order
+     * @return the animation
+     * @throws IllegalArgumentException thrown if the period is not positive, or no frames or a null frame is given
+     * @since 2.1.1-SNAPSHOT
+     */
+    public static Animation of(final int period, final ItemStack... frames) throws IllegalArgumentException {
+        Preconditions.checkArgument(period > 0, "The period of an animation must be positive");
+        Preconditions.checkArgument(frames.length > 0, "An animation needs at least one frame");
+        final ItemStack[] copies = new ItemStack[frames.length];
+        for (int i = 0; i < frames.length; i++) {
+            Preconditions.checkArgument(frames[i] != null, "The provided frames must not be null");
+            copies[i] = frames[i].clone();
+        }
+        return new Animation(copies, period);
+    }
+
+    /**
+     * Creates an animation by calling the given function once for every frame up front.
+     *
+     * @param frameCount the number of frames
+     * @param period     the number of ticks each frame is shown for
+     * @param frame      the function building the frame at each index
+     * @return the animation
+     * @throws IllegalArgumentException thrown if the frame count or period is not positive, or the function returns null
+     * @since 2.1.1-SNAPSHOT
+     */
+    public static Animation generate(final int frameCount, final int period, final IntFunction<ItemStack> frame) throws IllegalArgumentException {
+        Preconditions.checkArgument(frameCount > 0, "An animation needs at least one frame");
+        Preconditions.checkArgument(frame != null, "The provided frame function must not be null");
+        final ItemStack[] frames = new ItemStack[frameCount];
+        for (int i = 0; i < frameCount; i++) {
+            frames[i] = frame.apply(i);
+        }
+        return of(period, frames);
+    }
+
+    /**
+     * Gets the frame showing at the given tick. The returned item is shared and must not be modified.
+     *
+     * @param tick the tick
+     * @return the frame
+     * @since 2.1.1-SNAPSHOT
+     */
+    public ItemStack frameAt(final long tick) {
+        return this.frames[(int) ((tick / this.period) % this.frames.length)];
+    }
+
+    /**
+     * Gets whether a new frame starts at the given tick.
+     *
+     * @param tick the tick
+     * @return true if the frame changes on that tick
+     * @since 2.1.1-SNAPSHOT
+     */
+    public boolean advancesAt(final long tick) {
+        return this.frames.length > 1 && tick % this.period == 0;
+    }
+
+    /**
+     * Gets the number of frames.
+     *
+     * @return the frame count
+     * @since 2.1.1-SNAPSHOT
+     */
+    public int getFrameCount() {
+        return this.frames.length;
+    }
+
+    /**
+     * Gets the number of ticks each frame is shown for.
+     *
+     * @return the period
+     * @since 2.1.1-SNAPSHOT
+     */
+    public int getPeriod() {
+        return this.period;
+    }
+}
@@ -4,10 +4,16 @@ import com.google.common.base.Preconditions;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.inventory.ItemStack;
+import sh.miles.menukit.impl.SlotMenuManager;
 import sh.miles.menukit.menu.MenuEventCallback;
+import sh.miles.menukit.state.InvalidationIndex;
+import sh.miles.menukit.state.MenuValue;
 import sh.miles.menukit.util.PagedInventory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Represents a singular slot within a greater menu
@@ -31,6 +37,10 @@ public interface MenuSlot {
             return false;
         }
 
+        @Override
+        public void invalidate() {
+        }
+
         @Override
         public void click(final MenuEventCallback<InventoryClickEvent> callback) {
         }
@@ -73,6 +83,17 @@ public interface MenuSlot {
      */
     boolean hasContent();
 
+    /**
+     * Discards the content this slot rendered from its content supplier, so that it is rendered again the next time it
+     * is needed. If the slot is currently showing it is marked dirty with {@link PagedInventory#markDirty(MenuSlot)}
+     * and repainted from there.
+     * <p>
+     * Slots with fixed content are unaffected.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    void invalidate();
+
     /**
      * Called when the slot is clicked.
      *
@@ -105,6 +126,40 @@ public interface MenuSlot {
      */
     int getPage();
 
+    /**
+     * Creates a copy of this slot at another position, sharing this slot's content and callbacks rather than building
+     * them again.
+     * <p>
+     * The copy is filed into the given inventory just as a freshly built slot would be. This slot is left untouched and
+     * still refers to its own position.
+     * <p>
+     * Slots built with {@link #builder()} support this. Other implementations do not unless they override it, and
+     * neither does {@link #DUMMY}, which has no position to begin with.
+     *
+     * @param inventory the inventory to file the copy into
+     * @param page      the page of the copy
+     * @param index     the index of the copy
+     * @return the copy
+     * @throws IllegalArgumentException      thrown if the position is not within the bounds of the given inventory
+     * @throws UnsupportedOperationException thrown if this slot can not be relocated
+     * @since 2.1.1-SNAPSHOT
+     */
+    default MenuSlot relocate(PagedInventory inventory, int page, int index) throws IllegalArgumentException, UnsupportedOperationException {
+        throw new UnsupportedOperationException("%s does not support relocation".formatted(getClass().getName()));
+    }
+
+    /**
+     * Unbinds this slot from every value it is bound to, removes it from every invalidation key it is filed under and
+     * stops animating it, for when the slot is being replaced. Copies made with
+     * {@link #relocate(PagedInventory, int, int)} keep their own registrations.
+     * <p>
+     * Slots that never register anywhere, such as {@link #DUMMY}, do nothing.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    default void unregister() {
+    }
+
     static MenuSlot.Builder builder() {
         return new Builder();
     }
@@ -119,6 +174,11 @@ public interface MenuSlot {
         private int page = -999;
         private PagedInventory inventory = null;
         private ItemStack content = ItemStack.empty();
+        private boolean sharedContent = false;
+        private Supplier<ItemStack> contentSupplier = null;
+        private Animation animation = null;
+        private final List<MenuValue<?>> bindings = new ArrayList<>();
+        private final List<String> keys = new ArrayList<>();
         private Consumer<MenuEventCallback<InventoryClickEvent>> click = MenuEventCallback.CLICK_NOTHING;
         private Consumer<MenuEventCallback<InventoryDragEvent>> drag = MenuEventCallback.DRAG_NOTHING;
 
@@ -159,6 +219,101 @@ public interface MenuSlot {
         public Builder content(final ItemStack itemStack) {
             Preconditions.checkArgument(itemStack != null, "The provided item must not be null");
             this.content = itemStack;
+            this.sharedContent = false;
+            this.contentSupplier = null;
+            this.animation = null;
+            return this;
+        }
+
+        /**
+         * Sets the content of this slot to an item shared with other slots rather than copied into each of them.
+         * <p>
+         * Unlike {@link #content(ItemStack)} the item is stored in the slot as is, so building many slots of the same
+         * item costs no copies. The item must never be mutated once it is passed here, since every slot given it would
+         * see the change without being repainted.
+         *
+         * @param itemStack the item content, never to be mutated
+         * @return this builder
+         * @since 2.1.1-SNAPSHOT
+         */
+        public Builder sharedContent(final ItemStack itemStack) {
+            Preconditions.checkArgument(itemStack != null, "The provided item must not be null");
+            this.content = itemStack;
+            this.sharedContent = true;
+            this.contentSupplier = null;
+            this.animation = null;
+            return this;
+        }
+
+        /**
+         * Sets the content of this slot to be rendered lazily.
+         * <p>
+         * The supplier is not called when the slot is built, only the first time the slot's content is needed, usually
+         * when its page is flipped to. The rendered item is cached until {@link MenuSlot#invalidate()} is called, so
+         * slots on pages that are never opened are never rendered at all. Asking whether the slot
+         * {@link MenuSlot#hasContent()}, as the fallback page methods of {@link PagedInventory} do, renders it as well.
+         *
+         * @param supplier the content supplier
+         * @return this builder
+         * @since 2.1.1-SNAPSHOT
+         */
+        public Builder lazyContent(final Supplier<ItemStack> supplier) {
+            Preconditions.checkArgument(supplier != null, "The provided supplier must not be null");
+            this.contentSupplier = supplier;
+            this.animation = null;
+            return this;
+        }
+
+        /**
+         * Sets the content of this slot to an animation.
+         * <p>
+         * The slot shows whichever frame of the animation is current on MenuKit's ticker, and is advanced by that ticker
+         * only while it is showing in a menu somebody is viewing. While MenuKit is not running the first frame is shown.
+         *
+         * @param animation the animation
+         * @return this builder
+         * @since 2.1.1-SNAPSHOT
+         */
+        public Builder animation(final Animation animation) {
+            Preconditions.checkArgument(animation != null, "The provided animation must not be null");
+            this.contentSupplier = () -> animation.frameAt(SlotMenuManager.isInitialized() ? SlotMenuManager.menuManager().getCurrentTick() : 0);
+            this.animation = animation;
+            return this;
+        }
+
+        /**
+         * Binds the slot to the given values, so that it is invalidated whenever any of them change.
+         * <p>
+         * A bound slot should render its content with {@link #lazyContent(Supplier)}, reading from the values it is
+         * bound to.
+         *
+         * @param values the values to bind to
+         * @return this builder
+         * @since 2.1.1-SNAPSHOT
+         */
+        public Builder bind(final MenuValue<?>... values) {
+            for (final MenuValue<?> value : values) {
+                Preconditions.checkArgument(value != null, "The provided values must not be null");
+                this.bindings.add(value);
+            }
+            return this;
+        }
+
+        /**
+         * Files the slot under the given invalidation keys, so that it is invalidated whenever
+         * {@link InvalidationIndex#invalidate(String)} is called with any of them.
+         * <p>
+         * A keyed slot should render its content with {@link #lazyContent(Supplier)}.
+         *
+         * @param keys the keys, for example {@code "price:diamond"}
+         * @return this builder
+         * @since 2.1.1-SNAPSHOT
+         */
+        public Builder keys(final String... keys) {
+            for (final String key : keys) {
+                Preconditions.checkArgument(key != null, "The provided keys must not be null");
+                this.keys.add(key);
+            }
             return this;
         }
 
@@ -237,7 +392,14 @@ public interface MenuSlot {
                             + " page size");
 
             final var slotImpl = new MenuSlotImpl(this.index, this.page, this.inventory, this.click, this.drag);
-            slotImpl.setContent(this.content);
+            if (this.contentSupplier != null) {
+                slotImpl.setContentSupplier(this.contentSupplier);
+            } else if (this.sharedContent) {
+                slotImpl.setSharedContent(this.content);
+            } else {
+                slotImpl.setContent(this.content);
+            }
+            slotImpl.register(this.bindings, this.keys, this.animation);
             return slotImpl;
         }
     }
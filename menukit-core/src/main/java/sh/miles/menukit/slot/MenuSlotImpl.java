@@ -4,10 +4,16 @@ import com.google.common.base.Preconditions;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.inventory.ItemStack;
+import org.jspecify.annotations.Nullable;
+import sh.miles.menukit.impl.SlotMenuManager;
 import sh.miles.menukit.menu.MenuEventCallback;
+import sh.miles.menukit.state.InvalidationIndex;
+import sh.miles.menukit.state.MenuValue;
 import sh.miles.menukit.util.PagedInventory;
 
+import java.util.List;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Standard implementation for {@link MenuSlot}
@@ -22,7 +28,14 @@ public class MenuSlotImpl implements MenuSlot {
     private final Consumer<MenuEventCallback<InventoryClickEvent>> click;
     private final Consumer<MenuEventCallback<InventoryDragEvent>> drag;
 
-    private ItemStack content = ItemStack.empty();
+    /*
+     * null only while a content supplier is set and has not been rendered since it was last invalidated
+     */
+    private @Nullable ItemStack content = ItemStack.empty();
+    private @Nullable Supplier<ItemStack> contentSupplier = null;
+    private List<MenuValue<?>> bindings = List.of();
+    private List<String> keys = List.of();
+    private @Nullable Animation animation = null;
 
     /**
      * Creates a MenuSlotImpl
@@ -48,7 +61,7 @@ public class MenuSlotImpl implements MenuSlot {
 
     @Override
     public ItemStack getContent() {
-        return this.content.clone();
+        return render().clone();
     }
 
     @Override
@@ -56,12 +69,82 @@ public class MenuSlotImpl implements MenuSlot {
         Preconditions.checkArgument(
                 item != null, "The provided item must not be null use ItemStack#empty() for an empty item");
         this.content = item.clone();
+        this.contentSupplier = null;
         inventory.setItem(this);
     }
 
+    /**
+     * Sets the content of this slot to an instance shared with other slots and files the slot into its inventory.
+     *
+     * @param item the content, never to be mutated
+     */
+    void setSharedContent(final ItemStack item) {
+        this.content = item;
+        this.contentSupplier = null;
+        inventory.setItem(this);
+    }
+
+    /**
+     * Sets the supplier this slot renders its content from and files the slot into its inventory, without rendering it
+     * unless it is showing.
+     *
+     * @param supplier the content supplier
+     */
+    void setContentSupplier(final Supplier<ItemStack> supplier) {
+        this.contentSupplier = supplier;
+        this.content = null;
+        inventory.setItem(this);
+    }
+
+    /**
+     * Binds this slot to the given values, files it under the given invalidation keys and registers its animation with
+     * the animator of the running MenuKit, under this slot's inventory.
+     *
+     * @param bindings  the values to bind to
+     * @param keys      the invalidation keys
+     * @param animation the animation the slot renders, or null if it is not animated
+     */
+    void register(final List<MenuValue<?>> bindings, final List<String> keys, final @Nullable Animation animation) {
+        this.bindings = List.copyOf(bindings);
+        this.keys = List.copyOf(keys);
+        this.animation = animation;
+        for (final MenuValue<?> value : this.bindings) {
+            value.bind(this);
+        }
+        for (final String key : this.keys) {
+            InvalidationIndex.INSTANCE.register(key, this);
+        }
+        if (animation != null && SlotMenuManager.isInitialized()) {
+            SlotMenuManager.menuManager().getAnimator().register(this.inventory, this, animation);
+        }
+    }
+
+    @Override
+    public void unregister() {
+        for (final MenuValue<?> value : this.bindings) {
+            value.unbind(this);
+        }
+        for (final String key : this.keys) {
+            InvalidationIndex.INSTANCE.unregister(key, this);
+        }
+        if (this.animation != null && SlotMenuManager.isInitialized()) {
+            SlotMenuManager.menuManager().getAnimator().unregister(this.inventory, this);
+        }
+    }
+
     @Override
     public boolean hasContent() {
-        return !this.content.isEmpty();
+        return !render().isEmpty();
+    }
+
+    @Override
+    public void invalidate() {
+        if (this.contentSupplier == null) {
+            return;
+        }
+
+        this.content = null;
+        inventory.markDirty(this);
     }
 
     @Override
@@ -83,4 +166,32 @@ public class MenuSlotImpl implements MenuSlot {
     public int getPage() {
         return this.page;
     }
+
+    @Override
+    public MenuSlot relocate(final PagedInventory inventory, final int page, final int index) {
+        Preconditions.checkArgument(inventory != null, "The provided inventory must not be null");
+        Preconditions.checkArgument(index >= 0 && index < inventory.getPageSize(), "The provided index must be within the bounds of the provided inventory");
+        Preconditions.checkArgument(page >= 0 && page < inventory.getPages(), "The provided page must be within the bounds of the provided inventory");
+        final var copy = new MenuSlotImpl(index, page, inventory, this.click, this.drag);
+        copy.content = this.content; // never mutated in place, so the reference can be shared without a clone
+        copy.contentSupplier = this.contentSupplier;
+        // registered before being filed, so that the copy can never miss an invalidation
+        copy.register(this.bindings, this.keys, this.animation);
+        inventory.setItem(copy);
+        return copy;
+    }
+
+    /**
+     * Gets the content of this slot, rendering it from the content supplier first if it has not been yet.
+     *
+     * @return the content, never to be mutated
+     */
+    private ItemStack render() {
+        if (this.content == null) {
+            final ItemStack rendered = this.contentSupplier.get();
+            Preconditions.checkState(rendered != null, "The content supplier of the slot at page %s index %s supplied null", this.page, this.index);
+            this.content = rendered;
+        }
+        return this.content;
+    }
 }
@@ -0,0 +1,136 @@
+package sh.miles.menukit.state;
+
+import com.google.common.base.Preconditions;
+import sh.miles.menukit.slot.MenuSlot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * A reverse index from invalidation keys, such as {@code "price:diamond"}, to the slots that declared them with
+ * {@link MenuSlot.Builder#keys(String...)}.
+ * <p>
+ * Invalidating a key invalidates exactly the slots filed under it, so the cost of a refresh grows with the number of
+ * slots affected rather than the number of menus open. As with {@link MenuValue}, only slots showing in a menu
+ * somebody is viewing are rendered again right away, the rest are merely marked. Slots are held weakly and fall out of
+ * the index once their menu is thrown away. Keys left without any slot are dropped as they are invalidated, and every
+ * so often while slots are registered, so keys that are never used again do not pile up.
+ *
+ * @since 2.1.1-SNAPSHOT
+ */
+public final class InvalidationIndex {
+
+    public static final InvalidationIndex INSTANCE = new InvalidationIndex();
+
+    /*
+     * the fewest registrations between two sweeps for emptied keys, so that a small index is not swept on every one
+     */
+    private static final int MIN_SWEEP_INTERVAL = 64;
+
+    private final Map<String, Set<MenuSlot>> slots = new HashMap<>();
+    private int registrationsSinceSweep = 0;
+
+    private InvalidationIndex() {
+    }
+
+    /**
+     * Files a slot under the given key.
+     *
+     * @param key  the key
+     * @param slot the slot
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void register(String key, MenuSlot slot) {
+        Preconditions.checkArgument(key != null, "The provided key must not be null");
+        Preconditions.checkArgument(slot != null, "The provided slot must not be null");
+        this.slots.computeIfAbsent(key, (k) -> Collections.newSetFromMap(new WeakHashMap<>())).add(slot);
+        // sweeping once per as many registrations as there are keys keeps the cost per registration constant
+        if (++this.registrationsSinceSweep >= Math.max(MIN_SWEEP_INTERVAL, this.slots.size())) {
+            sweep();
+        }
+    }
+
+    /**
+     * Removes a slot from the given key.
+     *
+     * @param key  the key
+     * @param slot the slot
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void unregister(String key, MenuSlot slot) {
+        final Set<MenuSlot> dependents = this.slots.get(key);
+        if (dependents != null && dependents.remove(slot) && dependents.isEmpty()) {
+            this.slots.remove(key);
+        }
+    }
+
+    /**
+     * Invalidates every slot filed under the given key.
+     *
+     * @param key the key
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void invalidate(String key) {
+        Preconditions.checkArgument(key != null, "The provided key must not be null");
+        final Set<MenuSlot> dependents = this.slots.get(key);
+        if (dependents == null) {
+            return;
+        }
+
+        if (dependents.isEmpty()) {
+            this.slots.remove(key);
+            return;
+        }
+
+        for (final MenuSlot slot : new ArrayList<>(dependents)) {
+            slot.invalidate();
+        }
+    }
+
+    /**
+     * Gets the number of live slots filed under the given key.
+     *
+     * @param key the key
+     * @return the slot count
+     * @since 2.1.1-SNAPSHOT
+     */
+    public int count(String key) {
+        final Set<MenuSlot> dependents = this.slots.get(key);
+        return dependents == null ? 0 : dependents.size();
+    }
+
+    /**
+     * Drops every key whose slots were all garbage collected.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void sweep() {
+        this.slots.values().removeIf(Set::isEmpty);
+        this.registrationsSinceSweep = 0;
+    }
+
+    /**
+     * Gets the number of keys slots are filed under, including keys whose slots were garbage collected since the last
+     * {@link #sweep()}.
+     *
+     * @return the key count
+     * @since 2.1.1-SNAPSHOT
+     */
+    public int size() {
+        return this.slots.size();
+    }
+
+    /**
+     * Forgets every key.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void clear() {
+        this.slots.clear();
+        this.registrationsSinceSweep = 0;
+    }
+}
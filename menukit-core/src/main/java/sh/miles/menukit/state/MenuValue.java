@@ -0,0 +1,108 @@
+package sh.miles.menukit.state;
+
+import com.google.common.base.Preconditions;
+import sh.miles.menukit.slot.MenuSlot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * An observable value that menu slots can be bound to.
+ * <p>
+ * Changing the value invalidates every slot bound to it with {@link MenuSlot#invalidate()}. Bound slots are meant to
+ * render their content with {@link MenuSlot.Builder#lazyContent(java.util.function.Supplier)}, reading this value, so
+ * that invalidation is all it takes to bring them up to date. Slots that are hidden or in menus nobody is viewing are
+ * merely marked and render again once they are shown, showing slots are rendered at most once per tick however often
+ * the value changes.
+ * <p>
+ * Slots are held weakly, so a menu that is thrown away never has to be unbound by hand.
+ *
+ * @param <T> the type of value
+ * @since 2.1.1-SNAPSHOT
+ */
+public final class MenuValue<T> {
+
+    private final Set<MenuSlot> dependents = Collections.newSetFromMap(new WeakHashMap<>());
+    private T value;
+
+    private MenuValue(final T value) {
+        this.value = value;
+    }
+
+    /**
+     * Creates a new value.
+     *
+     * @param value the initial value
+     * @param <T>   the type of value
+     * @return the value
+     * @since 2.1.1-SNAPSHOT
+     */
+    public static <T> MenuValue<T> of(final T value) {
+        Preconditions.checkArgument(value != null, "The provided value must not be null");
+        return new MenuValue<>(value);
+    }
+
+    /**
+     * Gets the current value.
+     *
+     * @return the value
+     * @since 2.1.1-SNAPSHOT
+     */
+    public T get() {
+        return this.value;
+    }
+
+    /**
+     * Sets the value, invalidating every bound slot if it changed.
+     *
+     * @param value the new value
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void set(final T value) {
+        Preconditions.checkArgument(value != null, "The provided value must not be null");
+        if (Objects.equals(this.value, value)) {
+            return;
+        }
+
+        this.value = value;
+        for (final MenuSlot slot : new ArrayList<>(this.dependents)) {
+            slot.invalidate();
+        }
+    }
+
+    /**
+     * Sets the value to the result of applying the given function to the current value.
+     *
+     * @param function the function to apply
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void update(final UnaryOperator<T> function) {
+        Preconditions.checkArgument(function != null, "The provided function must not be null");
+        set(function.apply(this.value));
+    }
+
+    /**
+     * Binds a slot to this value.
+     *
+     * @param slot the slot to bind
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void bind(final MenuSlot slot) {
+        Preconditions.checkArgument(slot != null, "The provided slot must not be null");
+        this.dependents.add(slot);
+    }
+
+    /**
+     * Unbinds a slot from this value.
+     *
+     * @param slot the slot to unbind
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void unbind(final MenuSlot slot) {
+        this.dependents.remove(slot);
+    }
+}
@@ -0,0 +1,9 @@
+/**
+ * Package containing observable state that menu slots can bind to and be rendered from
+ *
+ * @since 2.1.1-SNAPSHOT
+ */
+@NullMarked
+package sh.miles.menukit.state;
+
+import org.jspecify.annotations.NullMarked;
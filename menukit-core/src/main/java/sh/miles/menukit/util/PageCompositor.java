@@ -0,0 +1,230 @@
+package sh.miles.menukit.util;
+
+import com.google.common.base.Preconditions;
+import sh.miles.menukit.slot.MenuSlot;
+
+import java.util.BitSet;
+import java.util.function.Consumer;
+
+/**
+ * Composites several pages of a {@link PagedInventory} as stacked layers, showing in every slot the topmost shown layer
+ * that holds a slot there, and nothing where no shown layer does.
+ * <p>
+ * Each layer is simply a page of the inventory, so a layer is exactly as sparse as the page it lives on and slots are
+ * added to it the usual way, by building them onto that page. Layers are ordered bottom to top in the order their pages
+ * are given to the constructor. A layer claims a slot by holding a {@link MenuSlot} there, even one without an item, so
+ * an overlay can mask whatever is beneath it.
+ * <p>
+ * A slot no shown layer claims is flipped to a page that holds nothing there, so hiding even the bottom layer empties
+ * its slots. The inventory therefore needs a page left empty at every slot that may end up unclaimed, which any layer
+ * without a slot there, or a spare page, provides.
+ * <p>
+ * The compositor keeps track of which slots may have changed their winning layer and only resolves those. A slot is
+ * only repainted when its winning layer actually changes; edits to a slot that is already winning write through on their
+ * own, as they would for any visible page.
+ *
+ * @since 2.1.1-SNAPSHOT
+ */
+public final class PageCompositor {
+
+    private final PagedInventory inventory;
+    /*
+     * the pages acting as layers, bottom first
+     */
+    private final int[] layers;
+    /*
+     * hidden state of each layer, indexed by position in layers rather than by page
+     */
+    private final boolean[] hidden;
+    private final BitSet dirty;
+
+    /**
+     * Creates a new compositor over the given pages.
+     * <p>
+     * Every slot starts out dirty so that the first {@link #composite()} resolves the whole inventory.
+     *
+     * @param inventory the inventory whose pages are composited
+     * @param layers    the pages to use as layers ordered bottom to top
+     * @throws IllegalArgumentException thrown if no layers are given, or any layer is not a page of the inventory or is
+     *                                  given twice
+     * @since 2.1.1-SNAPSHOT
+     */
+    public PageCompositor(PagedInventory inventory, int... layers) throws IllegalArgumentException {
+        Preconditions.checkArgument(inventory != null, "The provided inventory must not be null");
+        Preconditions.checkArgument(layers.length > 0, "The provided layers must not be empty");
+        for (int i = 0; i < layers.length; i++) {
+            final int page = layers[i];
+            Preconditions.checkArgument(page >= 0 && page < inventory.getPages(), "The provided layer %s must be a page of the provided inventory", page);
+            for (int j = 0; j < i; j++) {
+                Preconditions.checkArgument(layers[j] != page, "The provided layer %s must not be given more than once", page);
+            }
+        }
+
+        this.inventory = inventory;
+        this.layers = layers.clone();
+        this.hidden = new boolean[layers.length];
+        this.dirty = new BitSet(inventory.getPageSize());
+        this.dirty.set(0, inventory.getPageSize());
+    }
+
+    /**
+     * Creates a slot on the given layer and composites the slot it lands on.
+     * <p>
+     * The builder already has its inventory and page filled in, only the index and content need to be provided.
+     *
+     * @param layer   the page of the layer to create the slot on
+     * @param builder the builder function
+     * @return the new menu slot
+     * @throws IllegalArgumentException thrown if the given page is not a layer of this compositor
+     * @since 2.1.1-SNAPSHOT
+     */
+    public MenuSlot createSlot(int layer, Consumer<MenuSlot.Builder> builder) throws IllegalArgumentException {
+        positionOf(layer);
+        final MenuSlot.Builder slotBuilder = MenuSlot.builder().inventory(this.inventory).page(layer);
+        builder.accept(slotBuilder);
+        final MenuSlot slot = slotBuilder.build();
+        this.dirty.set(slot.getSlot());
+        composite();
+        return slot;
+    }
+
+    /**
+     * Removes the slot at the given index of a layer and composites that index.
+     *
+     * @param layer the page of the layer to remove from
+     * @param slot  the slot to remove
+     * @throws IllegalArgumentException thrown if the given page is not a layer of this compositor
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void removeItem(int layer, int slot) throws IllegalArgumentException {
+        positionOf(layer);
+        if (this.inventory.getCurrentPage(slot) == layer) {
+            // flipped to the uncovered layer first, so that the removal itself is no longer showing and writes nothing
+            final int winner = resolve(slot, layer);
+            if (winner != layer) {
+                this.inventory.setCurrentPageFor(winner, slot);
+            }
+        }
+        this.inventory.removeItem(layer, slot);
+        this.dirty.set(slot);
+        composite();
+    }
+
+    /**
+     * Shows a hidden layer, repainting only the slots that layer now wins.
+     *
+     * @param layer the page of the layer to show
+     * @throws IllegalArgumentException thrown if the given page is not a layer of this compositor
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void show(int layer) throws IllegalArgumentException {
+        setHidden(positionOf(layer), false);
+    }
+
+    /**
+     * Hides a layer, repainting only the slots that layer was winning.
+     *
+     * @param layer the page of the layer to hide
+     * @throws IllegalArgumentException thrown if the given page is not a layer of this compositor
+     * @throws IllegalStateException    thrown if a slot the layer leaves unclaimed is held by every page of the
+     *                                  inventory, so it can not be shown empty
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void hide(int layer) throws IllegalArgumentException, IllegalStateException {
+        setHidden(positionOf(layer), true);
+    }
+
+    /**
+     * Gets whether the given layer is currently shown.
+     *
+     * @param layer the page of the layer
+     * @return true if the layer is shown
+     * @throws IllegalArgumentException thrown if the given page is not a layer of this compositor
+     * @since 2.1.1-SNAPSHOT
+     */
+    public boolean isShown(int layer) throws IllegalArgumentException {
+        return !this.hidden[positionOf(layer)];
+    }
+
+    /**
+     * Marks a slot as needing to be resolved again on the next {@link #composite()}.
+     * <p>
+     * This is only needed for slots placed onto or removed from a layer directly through the {@link PagedInventory},
+     * the methods of this compositor mark what they touch themselves.
+     *
+     * @param slot the slot to mark
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void markDirty(int slot) {
+        Preconditions.checkArgument(slot >= 0 && slot < this.inventory.getPageSize(), "The provided slot must be within the bounds of the inventory");
+        this.dirty.set(slot);
+    }
+
+    /**
+     * Resolves the winning layer of every dirty slot, flipping only those whose winner changed.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void composite() {
+        for (int slot = this.dirty.nextSetBit(0); slot >= 0; slot = this.dirty.nextSetBit(slot + 1)) {
+            final int winner = resolve(slot, -1);
+            if (this.inventory.getCurrentPage(slot) != winner) {
+                this.inventory.setCurrentPageFor(winner, slot);
+            }
+        }
+        this.dirty.clear();
+    }
+
+    private void setHidden(int position, boolean hidden) {
+        if (this.hidden[position] == hidden) {
+            return;
+        }
+
+        this.hidden[position] = hidden;
+        final int page = this.layers[position];
+        for (int slot = 0; slot < this.inventory.getPageSize(); slot++) {
+            if (this.inventory.getSlot(page, slot) != MenuSlot.DUMMY) {
+                this.dirty.set(slot);
+            }
+        }
+        composite();
+    }
+
+    /**
+     * Finds the page of the topmost shown layer holding a slot at the given index. A slot no shown layer claims is shown
+     * empty instead, through its current page if that holds nothing there, or else through the first page that does.
+     *
+     * @param slot     the slot
+     * @param excluded a page whose slot does not count, or -1 for none
+     * @return the winning page
+     * @throws IllegalStateException thrown if no shown layer claims the slot and every page holds a slot there
+     */
+    private int resolve(int slot, int excluded) throws IllegalStateException {
+        for (int position = this.layers.length - 1; position >= 0; position--) {
+            final int page = this.layers[position];
+            if (!this.hidden[position] && page != excluded && this.inventory.getSlot(page, slot) != MenuSlot.DUMMY) {
+                return page;
+            }
+        }
+
+        final int current = this.inventory.getCurrentPage(slot);
+        if (current == excluded || this.inventory.getSlot(current, slot) == MenuSlot.DUMMY) {
+            return current;
+        }
+        for (int page = 0; page < this.inventory.getPages(); page++) {
+            if (this.inventory.getSlot(page, slot) == MenuSlot.DUMMY) {
+                return page;
+            }
+        }
+        throw new IllegalStateException("No page of the inventory is empty at slot %d, so it can not be shown empty".formatted(slot));
+    }
+
+    private int positionOf(int layer) {
+        for (int position = 0; position < this.layers.length; position++) {
+            if (this.layers[position] == layer) {
+                return position;
+            }
+        }
+        throw new IllegalArgumentException("The provided page %d must be a layer of this compositor".formatted(layer));
+    }
+}
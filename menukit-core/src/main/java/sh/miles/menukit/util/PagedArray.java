@@ -2,6 +2,8 @@ package sh.miles.menukit.util;
 
 import org.jspecify.annotations.Nullable;
 
+import java.util.Arrays;
+
 /**
  * Data structure consisting of a backing array exposed as a single array and "pages" the current page can be adjusted
  * for each index in the array individually.
@@ -13,11 +15,15 @@ import org.jspecify.annotations.Nullable;
  */
 public final class PagedArray<T> {
 
-    private final Object[][] array;
+    /*
+     * both backing arrays are nulled once they are released to a PagedArrayPool, after which any use of this paged array
+     * fails
+     */
+    private Object @Nullable [][] array;
     /*
      * this array is used to determine which "page" each slot is on
      */
-    private final int[] pageStats;
+    private int @Nullable [] pageStats;
     private final int pageSize;
     private final int pages;
 
@@ -39,6 +45,19 @@ public final class PagedArray<T> {
         this.pages = pages;
     }
 
+    /**
+     * Creates a paged array over backing arrays recycled by a {@link PagedArrayPool}. The arrays must be cleared.
+     *
+     * @param array     the pages
+     * @param pageStats the current page of each index
+     */
+    PagedArray(Object[][] array, int[] pageStats) {
+        this.array = array;
+        this.pageStats = pageStats;
+        this.pageSize = pageStats.length;
+        this.pages = array.length;
+    }
+
     /**
      * Gets the content from the index provided on the selected page for that index.
      * <p>
@@ -167,13 +186,47 @@ public final class PagedArray<T> {
         return this.pageSize;
     }
 
+    /**
+     * Gets whether this paged array was released to a {@link PagedArrayPool}.
+     *
+     * @return true if this paged array may no longer be used
+     * @since 2.1.1-SNAPSHOT
+     */
+    public boolean isReleased() {
+        return this.array == null;
+    }
+
+    /**
+     * Clears this paged array and hands its backing arrays over to the given pool, leaving this paged array unusable.
+     *
+     * @param pool the pool to hand the backing arrays to
+     */
+    void releaseTo(PagedArrayPool pool) {
+        assertLive();
+        for (final Object[] page : this.array) {
+            Arrays.fill(page, null);
+        }
+        Arrays.fill(this.pageStats, 0);
+        pool.recycle(this.array, this.pageStats);
+        this.array = null;
+        this.pageStats = null;
+    }
+
+    private void assertLive() {
+        if (this.array == null) {
+            throw new IllegalStateException("Can not use a paged array after it was released to its pool");
+        }
+    }
+
     private void assertBoundsPageStats(int index) {
+        assertLive();
         if (index < 0 || index >= pageStats.length) {
             throw new IllegalStateException("Out of bounds for getting current page for an index given value %d is not within 0 and %d".formatted(index, pageStats.length));
         }
     }
 
     private void assertBoundsPages(int page) {
+        assertLive();
         if (page < 0 || page >= this.pages) {
             throw new IllegalStateException("Out of bounds for amount of pages available index given value %d is not within 0 and %d".formatted(page, this.pages));
         }
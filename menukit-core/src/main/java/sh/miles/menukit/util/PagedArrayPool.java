@@ -0,0 +1,148 @@
+package sh.miles.menukit.util;
+
+import com.google.common.base.Preconditions;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * A pool of the backing arrays of {@link PagedArray}s, so that menus opening and closing in quick succession reuse the
+ * same arrays rather than allocating and discarding them every time.
+ * <p>
+ * Backing arrays are pooled by shape, their page size and page count, and only arrays of the exact shape asked for are
+ * handed out. Arrays are cleared as they are released. Every paged array handed out is a fresh object over recycled
+ * arrays, and releasing it leaves that object unusable, so anything still holding on to it fails loudly instead of
+ * silently reading or writing the arrays of whichever menu received them next.
+ * <p>
+ * Pools are not thread safe and are meant to be used from the server thread alone, as menus are.
+ *
+ * @since 2.1.1-SNAPSHOT
+ */
+public final class PagedArrayPool {
+
+    /*
+     * one shelf per shape seen so far, searched linearly as menus come in a handful of shapes at most. Shelves are
+     * sized to the limit up front, so neither acquiring nor releasing allocates anything but the paged array itself
+     */
+    private Shelf[] shelves = new Shelf[0];
+    private final int maxPerShape;
+    private int size = 0;
+
+    /**
+     * Creates a new pool.
+     *
+     * @param maxPerShape the most backing arrays of any one shape kept around for reuse, releases past that are dropped
+     * @throws IllegalArgumentException thrown if the limit is not positive
+     * @since 2.1.1-SNAPSHOT
+     */
+    public PagedArrayPool(int maxPerShape) throws IllegalArgumentException {
+        Preconditions.checkArgument(maxPerShape > 0, "The max per shape must be positive");
+        this.maxPerShape = maxPerShape;
+    }
+
+    /**
+     * Gets an empty paged array of the given shape, over recycled backing arrays if there are any.
+     *
+     * @param pageSize the size of each page
+     * @param pages    the number of pages
+     * @param <T>      the type of element
+     * @return the paged array
+     * @throws IllegalStateException thrown if either parameter is less than or equal to 0
+     * @since 2.1.1-SNAPSHOT
+     */
+    public <T> PagedArray<T> acquire(int pageSize, int pages) throws IllegalStateException {
+        final Shelf shelf = find(pageSize, pages);
+        if (shelf == null || shelf.count == 0) {
+            return new PagedArray<>(pageSize, pages);
+        }
+
+        final int top = --shelf.count;
+        final PagedArray<T> array = new PagedArray<>(shelf.arrays[top], shelf.pageStats[top]);
+        shelf.arrays[top] = null;
+        shelf.pageStats[top] = null;
+        this.size--;
+        return array;
+    }
+
+    /**
+     * Clears the given paged array and takes its backing arrays back for reuse. The paged array can not be used again
+     * afterwards.
+     *
+     * @param array the paged array to release
+     * @throws IllegalStateException thrown if the paged array was already released
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void release(PagedArray<?> array) throws IllegalStateException {
+        Preconditions.checkArgument(array != null, "The provided array must not be null");
+        array.releaseTo(this);
+    }
+
+    /**
+     * Gets the number of backing arrays currently waiting to be reused.
+     *
+     * @return the pooled count
+     * @since 2.1.1-SNAPSHOT
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Drops every pooled backing array.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void clear() {
+        this.shelves = new Shelf[0];
+        this.size = 0;
+    }
+
+    /**
+     * Files the cleared backing arrays of a released paged array.
+     *
+     * @param array     the pages
+     * @param pageStats the current page of each index
+     */
+    void recycle(Object[][] array, int[] pageStats) {
+        Shelf shelf = find(pageStats.length, array.length);
+        if (shelf == null) {
+            shelf = new Shelf(pageStats.length, array.length, this.maxPerShape);
+            this.shelves = Arrays.copyOf(this.shelves, this.shelves.length + 1);
+            this.shelves[this.shelves.length - 1] = shelf;
+        }
+
+        if (shelf.count < this.maxPerShape) {
+            shelf.arrays[shelf.count] = array;
+            shelf.pageStats[shelf.count] = pageStats;
+            shelf.count++;
+            this.size++;
+        }
+    }
+
+    private @Nullable Shelf find(int pageSize, int pages) {
+        for (final Shelf shelf : this.shelves) {
+            if (shelf.pageSize == pageSize && shelf.pages == pages) {
+                return shelf;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The pooled backing arrays of a single shape, kept as a stack.
+     */
+    private static final class Shelf {
+        private final int pageSize;
+        private final int pages;
+        private final Object[] @Nullable [][] arrays;
+        private final int[] @Nullable [] pageStats;
+        private int count = 0;
+
+        private Shelf(int pageSize, int pages, int capacity) {
+            this.pageSize = pageSize;
+            this.pages = pages;
+            this.arrays = new Object[capacity][][];
+            this.pageStats = new int[capacity][];
+        }
+    }
+}
@@ -3,8 +3,15 @@ package sh.miles.menukit.util;
 import com.google.common.base.Preconditions;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
+import org.jspecify.annotations.Nullable;
+import sh.miles.menukit.impl.SlotMenuManager;
 import sh.miles.menukit.slot.MenuSlot;
 
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntConsumer;
+
 /**
  * A wrapper around a single {@link Inventory} and a {@link PagedArray} instance to simulate the idea of a "PagedArray".
  * This class utilizes the extra bundled data of {@link MenuSlot} to bundle components together and assignt hem to their
@@ -14,8 +21,32 @@ import sh.miles.menukit.slot.MenuSlot;
  */
 public final class PagedInventory {
 
-    private final Inventory inventory;
+    /*
+     * null for a detached inventory, whose writes go nowhere
+     */
+    private @Nullable Inventory inventory;
     private final PagedArray<MenuSlot> pagedArray;
+    /*
+     * the pool the paged array was taken from, if any
+     */
+    private final @Nullable PagedArrayPool pool;
+    /*
+     * showing slots marked dirty while nobody was viewing the inventory, and so never repainted
+     */
+    private final BitSet stale = new BitSet();
+    /*
+     * fills pages the first time they are shown, see setPageLoader
+     */
+    private @Nullable IntConsumer pageLoader;
+    private final BitSet loadedPages = new BitSet();
+    /*
+     * the number of page loads under way, as a loader may swap pages itself and so load other pages from within
+     */
+    private int loadingPages = 0;
+    /*
+     * set while moveSlot files a relocated slot whose content the backing inventory already shows elsewhere
+     */
+    private boolean carrying = false;
 
     /**
      * Creates a new instance of PagedInventory.
@@ -25,12 +56,53 @@ public final class PagedInventory {
      * @since 1.0.0-SNAPSHOT
      */
     public PagedInventory(Inventory inventory, int pages) {
+        this(inventory, inventory.getSize(), pages);
+    }
+
+    /**
+     * Creates a new instance of PagedInventory whose paged array is taken from the given pool, to be handed back with
+     * {@link #release()} once the inventory is no longer needed.
+     *
+     * @param inventory the inventory to use
+     * @param pages     the amount of pages this PagedInventory will have
+     * @param pool      the pool to take the paged array from
+     * @since 2.1.1-SNAPSHOT
+     */
+    public PagedInventory(Inventory inventory, int pages, PagedArrayPool pool) {
+        Preconditions.checkArgument(pool != null, "the provided pool must not be null");
+        this.inventory = inventory;
+        this.pagedArray = pool.acquire(inventory.getSize(), pages);
+        this.pool = pool;
+    }
+
+    private PagedInventory(@Nullable Inventory inventory, int pageSize, int pages) {
         this.inventory = inventory;
-        this.pagedArray = new PagedArray<>(inventory.getSize(), pages);
+        this.pagedArray = new PagedArray<>(pageSize, pages);
+        this.pool = null;
+    }
+
+    /**
+     * Creates a PagedInventory that is not backed by any inventory. Slots can be filed into it and read back like any
+     * other, but nothing is ever written or rendered.
+     * <p>
+     * This is useful for building up slots ahead of time, to be copied into real inventories later with
+     * {@link MenuSlot#relocate(PagedInventory, int, int)}.
+     *
+     * @param pageSize the size of each page
+     * @param pages    the amount of pages
+     * @return the detached inventory
+     * @since 2.1.1-SNAPSHOT
+     */
+    public static PagedInventory detached(int pageSize, int pages) {
+        return new PagedInventory(null, pageSize, pages);
     }
 
     /**
      * Sets an item on a specific page.
+     * <p>
+     * If the item is showing it is written right away, unless MenuKit's render queue
+     * {@link sh.miles.menukit.impl.RenderQueue#setDeferWrites(boolean) defers writes} and somebody is viewing this
+     * inventory, in which case it is queued and written on the next tick.
      *
      * @param item the item to put
      * @throws IllegalArgumentException thrown if the item is null
@@ -41,7 +113,78 @@ public final class PagedInventory {
         final int page = item.getPage();
         final int slot = item.getSlot();
         pagedArray.set(page, slot, item);
-        writeIfVisible(page, slot, item.getContent());
+        if (!isShowing(page, slot) || this.carrying) {
+            return;
+        }
+
+        if (defersWrites()) {
+            SlotMenuManager.menuManager().getRenderQueue().enqueue(this, item);
+        } else {
+            write(slot, item);
+        }
+    }
+
+    /**
+     * Sets many items at once. Every item is filed first, and the showing ones are then written together. While somebody
+     * is viewing this inventory and MenuKit is running, that write happens through the render queue on the next tick,
+     * so any number of items cost a single batch of slot updates.
+     *
+     * @param items the items to put
+     * @throws IllegalArgumentException thrown if any item is null
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void setItems(Collection<? extends MenuSlot> items) throws IllegalArgumentException {
+        setItems(items, List.of());
+    }
+
+    /**
+     * Sets many items and removes many others at once, writing the showing positions of both together as
+     * {@link #setItems(Collection)} does. The removals are made first, so an item may take the place of a removed slot.
+     * A removed slot that is no longer filed at its position is ignored, and a removed position left empty is written
+     * empty through the same render queue flush as the items.
+     *
+     * @param items   the items to put
+     * @param removed the slots to remove
+     * @throws IllegalArgumentException thrown if any item or removed slot is null
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void setItems(Collection<? extends MenuSlot> items, Collection<? extends MenuSlot> removed) throws IllegalArgumentException {
+        Preconditions.checkArgument(items != null, "the provided items must not be null");
+        Preconditions.checkArgument(removed != null, "the provided removed slots must not be null");
+        final boolean queue = SlotMenuManager.isInitialized() && isViewed();
+        for (final MenuSlot slot : removed) {
+            Preconditions.checkArgument(slot != null, "the provided removed slot must not be null");
+            if (pagedArray.get(slot.getPage(), slot.getSlot()) == slot) {
+                pagedArray.set(slot.getPage(), slot.getSlot(), null);
+            }
+        }
+        for (final MenuSlot item : items) {
+            Preconditions.checkArgument(item != null, "the provided item slot must not be null");
+            pagedArray.set(item.getPage(), item.getSlot(), item);
+        }
+        for (final MenuSlot slot : removed) {
+            if (!isShowing(slot.getPage(), slot.getSlot()) || pagedArray.get(slot.getPage(), slot.getSlot()) != null) {
+                continue;
+            }
+
+            if (queue) {
+                // no longer filed, so the flush writes the position empty
+                SlotMenuManager.menuManager().getRenderQueue().enqueue(this, slot);
+            } else {
+                write(slot.getSlot(), MenuSlot.DUMMY);
+            }
+        }
+        for (final MenuSlot item : items) {
+            if (!isShowing(item.getPage(), item.getSlot()) || getSlot(item.getSlot()) != item) {
+                continue;
+            }
+
+            if (queue) {
+                SlotMenuManager.menuManager().getRenderQueue().enqueue(this, item);
+            } else {
+                write(item.getSlot(), item);
+            }
+        }
     }
 
     /**
@@ -53,7 +196,43 @@ public final class PagedInventory {
      */
     public void removeItem(int page, int slot) {
         pagedArray.set(page, slot, null);
-        writeIfVisible(page, slot, ItemStack.empty());
+        if (isShowing(page, slot)) {
+            write(slot, MenuSlot.DUMMY);
+        }
+    }
+
+    /**
+     * Relocates the slot at one index of a page to another index of that page, moving what the backing inventory shows
+     * for it along rather than taking its content and writing it again.
+     * <p>
+     * The content is only carried over when both indexes are showing the page and the backing inventory is up to date
+     * for the source, that is the slot is neither stale nor queued to be rendered again. Otherwise the copy is written
+     * like any other slot.
+     *
+     * @param page the page of the slot
+     * @param from the index the slot is at
+     * @param to   the index to relocate the slot to
+     * @return the relocated copy
+     * @throws UnsupportedOperationException thrown if the slot can not be {@link MenuSlot#relocate(PagedInventory, int,
+     *                                       int) relocated}, which includes an empty position
+     */
+    MenuSlot moveSlot(final int page, final int from, final int to) throws UnsupportedOperationException {
+        final MenuSlot slot = getSlot(page, from);
+        final boolean carried = this.inventory != null && isShowing(page, from) && isShowing(page, to) && !this.stale.get(from)
+                && !(SlotMenuManager.isInitialized() && SlotMenuManager.menuManager().getRenderQueue().isQueued(this, slot));
+        final MenuSlot copy;
+        this.carrying = carried;
+        try {
+            copy = slot.relocate(this, page, to);
+        } finally {
+            this.carrying = false;
+        }
+
+        if (carried) {
+            this.inventory.setItem(to, this.inventory.getItem(from));
+            this.stale.clear(to);
+        }
+        return copy;
     }
 
     /**
@@ -99,9 +278,10 @@ public final class PagedInventory {
      * @since 1.0.0-SNAPSHOT
      */
     public void setCurrentPage(int page) {
+        loadPage(page);
         this.pagedArray.setCurrentPage(page);
-        for (int i = 0; i < inventory.getSize(); i++) {
-            inventory.setItem(i, this.getSlot(i).getContent());
+        for (int i = 0; i < getPageSize(); i++) {
+            write(i, this.getSlot(i));
         }
     }
 
@@ -115,7 +295,9 @@ public final class PagedInventory {
      * @since 2.1.0-SNAPSHOT
      */
     public void setPageWithFallback(int page, int fallbackPage) {
-        for (int slot = 0; slot < inventory.getSize(); slot++) {
+        loadPage(page);
+        loadPage(fallbackPage);
+        for (int slot = 0; slot < getPageSize(); slot++) {
             this.setCurrentPageFor(this.getSlot(page, slot).hasContent() ? page : fallbackPage, slot);
         }
     }
@@ -128,8 +310,9 @@ public final class PagedInventory {
      * @since 1.0.0-SNAPSHOT
      */
     public void setCurrentPageFor(int page, int slot) {
+        loadPage(page);
         this.pagedArray.setCurrentPageFor(page, slot);
-        inventory.setItem(slot, this.getSlot(slot).getContent());
+        write(slot, this.getSlot(slot));
     }
 
     /**
@@ -154,11 +337,96 @@ public final class PagedInventory {
      * @since 2.1.0-SNAPSHOT
      */
     public void setPageWithFallbackFor(int page, int fallbackPage, int... slots) {
+        loadPage(page);
+        loadPage(fallbackPage);
         for (final int slot : slots) {
             this.setCurrentPageFor(this.getSlot(page, slot).hasContent() ? page : fallbackPage, slot);
         }
     }
 
+    /**
+     * Sets a function that fills pages with slots the first time they are shown, rather than every page being filled
+     * up front. The loader is called with a page number right before any slot first swaps to that page, and its
+     * {@link #setItem(MenuSlot)} calls for that page are kept in the paged array until the swap writes them. Pages that
+     * are showing in any slot right now are loaded right away.
+     * <p>
+     * Each page is loaded at most once per loader. A page whose load throws is not counted as loaded, and is loaded
+     * again the next time it is about to be shown. A loader is dropped once it loaded every page, and setting another
+     * loader replaces it along with any pages it never got to. Until a page is loaded,
+     * {@link #getSlot(int, int)} reads every slot of it as {@link MenuSlot#DUMMY}.
+     *
+     * @param loader the page loader, or null to stop loading pages lazily
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void setPageLoader(@Nullable IntConsumer loader) {
+        this.pageLoader = loader;
+        this.loadedPages.clear();
+        if (loader == null) {
+            return;
+        }
+
+        for (int slot = 0; slot < getPageSize() && this.pageLoader == loader; slot++) {
+            loadPage(this.pagedArray.getCurrentPage(slot));
+        }
+    }
+
+    /**
+     * Replaces the {@link #setPageLoader(IntConsumer) page loader} without loading again the pages the current one
+     * already loaded, for when those pages were brought up to date some other way. Does nothing if there is no page
+     * loader.
+     *
+     * @param loader the page loader taking over the pages not loaded yet
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void replacePageLoader(IntConsumer loader) {
+        Preconditions.checkArgument(loader != null, "the provided loader must not be null");
+        if (this.pageLoader != null) {
+            this.pageLoader = loader;
+        }
+    }
+
+    /**
+     * Gets whether the given page was loaded by the current {@link #setPageLoader(IntConsumer) page loader}. Every page
+     * counts as loaded while there is none.
+     *
+     * @param page the page
+     * @return true if the page is loaded
+     * @since 2.1.1-SNAPSHOT
+     */
+    public boolean isPageLoaded(int page) {
+        return this.pageLoader == null || this.loadedPages.get(page);
+    }
+
+    /**
+     * Loads a page through the page loader, if it has not been loaded yet.
+     *
+     * @param page the page
+     */
+    private void loadPage(final int page) {
+        final IntConsumer loader = this.pageLoader;
+        if (loader == null || this.loadedPages.get(page)) {
+            return;
+        }
+
+        Preconditions.checkElementIndex(page, getPages(), "page");
+        // marked first, so that a loader swapping pages itself does not load the same page again
+        this.loadedPages.set(page);
+        this.loadingPages++;
+        boolean loaded = false;
+        try {
+            loader.accept(page);
+            loaded = true;
+        } finally {
+            this.loadingPages--;
+            if (!loaded && this.pageLoader == loader) {
+                this.loadedPages.clear(page);
+            } else if (loaded && this.loadingPages == 0 && this.pageLoader != null && this.loadedPages.cardinality() == getPages()) {
+                this.pageLoader = null;
+                this.loadedPages.clear();
+            }
+        }
+    }
+
     /**
      * Updates the MenuSlot contents in the backing inventory.
      *
@@ -166,7 +434,130 @@ public final class PagedInventory {
      * @since 1.0.0-SNAPSHOT
      */
     public void update(MenuSlot slot) {
-        writeIfVisible(slot.getPage(), slot.getSlot(), slot.getContent());
+        if (isShowing(slot.getPage(), slot.getSlot())) {
+            write(slot.getSlot(), slot);
+        }
+    }
+
+    /**
+     * Marks a slot as needing to be rendered again.
+     * <p>
+     * A slot that is showing in an inventory somebody is viewing is queued and rendered on the next tick, together with
+     * everything else marked before then. A slot that is hidden, or whose inventory nobody is viewing, is not rendered
+     * at all, the latter is remembered for {@link #repaintStale()}. While MenuKit is not running the slot is repainted
+     * right away if it is showing. Slots of a {@link #release() released} inventory are ignored.
+     * <p>
+     * Like every other change to an inventory this must happen on the server thread, see
+     * {@link sh.miles.menukit.impl.RenderQueue}.
+     *
+     * @param slot the slot to mark
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void markDirty(MenuSlot slot) {
+        Preconditions.checkArgument(slot != null, "the provided item slot must not be null");
+        if (this.inventory == null || isReleased() || !isShowing(slot.getPage(), slot.getSlot())) {
+            return;
+        }
+
+        if (!SlotMenuManager.isInitialized()) {
+            update(slot);
+        } else if (isViewed()) {
+            SlotMenuManager.menuManager().getRenderQueue().enqueue(this, slot);
+        } else {
+            this.stale.set(slot.getSlot());
+        }
+    }
+
+    /**
+     * Repaints every slot that was marked dirty while nobody was viewing this inventory. This is what brings a menu that
+     * is opened again without being rebuilt up to date.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void repaintStale() {
+        for (int slot = this.stale.nextSetBit(0); slot >= 0; slot = this.stale.nextSetBit(slot + 1)) {
+            write(slot, this.getSlot(slot));
+        }
+        this.stale.clear();
+    }
+
+    /**
+     * Moves this PagedInventory onto another backing inventory of the same size, writing only the slots whose content
+     * differs from what that inventory already holds.
+     * <p>
+     * This is what lets one menu take over the inventory of another while it is open, at the cost of the slots the two
+     * menus actually disagree on.
+     *
+     * @param inventory the inventory to move onto
+     * @throws IllegalArgumentException thrown if the inventory is null or not the size of a page
+     * @throws IllegalStateException    thrown if this inventory is detached
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void rebind(Inventory inventory) throws IllegalArgumentException, IllegalStateException {
+        Preconditions.checkArgument(inventory != null, "the provided inventory must not be null");
+        Preconditions.checkArgument(inventory.getSize() == getPageSize(), "the provided inventory must be the size of a page");
+        Preconditions.checkState(this.inventory != null, "a detached inventory can not be rebound");
+        this.inventory = inventory;
+        this.stale.clear();
+        for (int slot = 0; slot < getPageSize(); slot++) {
+            final ItemStack content = this.getSlot(slot).getContent();
+            final ItemStack current = inventory.getItem(slot);
+            if (current == null ? !content.isEmpty() : !current.equals(content)) {
+                inventory.setItem(slot, content);
+            }
+        }
+    }
+
+    /**
+     * Hands this inventory's paged array back to the pool it was taken from, after which the inventory can no longer be
+     * used. Inventories not created from a pool are left untouched.
+     *
+     * @throws IllegalStateException thrown if this inventory was already released
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void release() throws IllegalStateException {
+        if (this.pool != null) {
+            this.pool.release(this.pagedArray);
+            this.stale.clear();
+            this.pageLoader = null;
+            this.loadedPages.clear();
+        }
+    }
+
+    /**
+     * Gets whether this inventory's paged array was handed back to its pool.
+     *
+     * @return true if this inventory can no longer be used
+     * @since 2.1.1-SNAPSHOT
+     */
+    public boolean isReleased() {
+        return this.pagedArray.isReleased();
+    }
+
+    /**
+     * Gets whether anybody is currently viewing the backing inventory.
+     *
+     * @return true if the inventory has at least one viewer
+     * @since 2.1.1-SNAPSHOT
+     */
+    public boolean isViewed() {
+        return this.inventory != null && !this.inventory.getViewers().isEmpty();
+    }
+
+    /**
+     * Gets whether the given page is the one the given slot is currently showing.
+     * <p>
+     * Writes for any page that is not showing are kept in the paged array alone until that page is swapped to, and
+     * content is only ever taken from a {@link MenuSlot} once it is showing, so lazily rendered slots stay unrendered
+     * until then.
+     *
+     * @param page the page
+     * @param slot the slot
+     * @return true if that slot is showing the given page
+     * @since 2.1.1-SNAPSHOT
+     */
+    public boolean isShowing(int page, int slot) {
+        return this.pagedArray.getCurrentPage(slot) == page;
     }
 
     /**
@@ -189,17 +580,20 @@ public final class PagedInventory {
         return this.pagedArray.getPageSize();
     }
 
+    private boolean defersWrites() {
+        return SlotMenuManager.isInitialized() && SlotMenuManager.menuManager().getRenderQueue().isDeferWrites() && isViewed();
+    }
+
     /**
-     * Writes the given content into the backing inventory, but only if the given page is the one that slot is currently
-     * showing. Writes for any other page are kept in the paged array alone until that page is swapped to.
+     * Writes the content of a slot into the backing inventory, if there is one. Together with {@link #rebind(Inventory)}
+     * this is the only place content is taken from a slot, and callers only get here for slots that are showing.
      *
-     * @param page    the page the content belongs to
-     * @param slot    the slot to write
-     * @param content the content to write
+     * @param slot the slot index to write
+     * @param item the slot to take the content from
      */
-    private void writeIfVisible(int page, int slot, ItemStack content) {
-        if (this.pagedArray.getCurrentPage(slot) == page) {
-            this.inventory.setItem(slot, content);
+    private void write(int slot, MenuSlot item) {
+        if (this.inventory != null) {
+            this.inventory.setItem(slot, item.getContent());
         }
     }
 }
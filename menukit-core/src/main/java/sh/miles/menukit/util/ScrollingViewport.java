@@ -0,0 +1,225 @@
+package sh.miles.menukit.util;
+
+import com.google.common.base.Preconditions;
+import sh.miles.menukit.slot.MenuSlot;
+
+/**
+ * A window onto a logical grid of cells that is taller than the {@link PagedInventory} page it is shown on, scrolled a
+ * row at a time.
+ * <p>
+ * Cells are rendered on demand by a {@link CellRenderer}. When the view scrolls, the slots already on screen are moved
+ * by reference with {@link MenuSlot#relocate(PagedInventory, int, int)}, and the items the backing inventory shows for
+ * them are shifted along with them rather than taken from the slots and written again. Only the rows that scroll into
+ * view are rendered and written. Scrolling a six row view by a single row therefore renders one row of cells rather
+ * than all fifty four.
+ * <p>
+ * Empty positions, which hold {@link MenuSlot#DUMMY}, are never relocated. Neither are slots that do not support
+ * relocation, such as ones placed onto the viewport's page by hand; their cells are rendered again at the position
+ * they scroll to instead.
+ * <p>
+ * Moved cells keep their value bindings, invalidation keys and animations. A slot the view replaces or drops is
+ * unregistered from all of them, so it no longer receives invalidations meant for the cells on screen.
+ *
+ * @since 2.1.1-SNAPSHOT
+ */
+public final class ScrollingViewport {
+
+    private final PagedInventory inventory;
+    private final int page;
+    private final int columns;
+    private final int rows;
+    private final CellRenderer renderer;
+
+    private int cells;
+    private int offset = 0;
+
+    /**
+     * Creates a new viewport.
+     * <p>
+     * Nothing is rendered until {@link #render()} is called.
+     *
+     * @param inventory the inventory to show the viewport in
+     * @param page      the page of the inventory the viewport occupies
+     * @param columns   the number of cells in each row, the page size must be a multiple of it
+     * @param cells     the total number of cells in the logical grid
+     * @param renderer  the renderer used to materialize cells as they come into view
+     * @throws IllegalArgumentException thrown if any argument is null or out of bounds
+     * @since 2.1.1-SNAPSHOT
+     */
+    public ScrollingViewport(PagedInventory inventory, int page, int columns, int cells, CellRenderer renderer) throws IllegalArgumentException {
+        Preconditions.checkArgument(inventory != null, "The provided inventory must not be null");
+        Preconditions.checkArgument(renderer != null, "The provided renderer must not be null");
+        Preconditions.checkArgument(page >= 0 && page < inventory.getPages(), "The provided page must be within the bounds of the provided inventory");
+        Preconditions.checkArgument(columns > 0 && inventory.getPageSize() % columns == 0, "The page size of the provided inventory must be a multiple of the column count");
+        Preconditions.checkArgument(cells >= 0, "The cell count must not be negative");
+        this.inventory = inventory;
+        this.page = page;
+        this.columns = columns;
+        this.rows = inventory.getPageSize() / columns;
+        this.renderer = renderer;
+        this.cells = cells;
+    }
+
+    /**
+     * Renders every cell currently in view.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void render() {
+        renderRows(0, this.rows);
+    }
+
+    /**
+     * Scrolls the view so that the given logical row is the top row shown. The row is clamped to the rows that can be
+     * scrolled to.
+     *
+     * @param row the logical row to show at the top
+     * @return true if the view moved
+     * @since 2.1.1-SNAPSHOT
+     */
+    public boolean scrollTo(int row) {
+        final int target = Math.max(0, Math.min(row, getMaxOffset()));
+        final int delta = target - this.offset;
+        if (delta == 0) {
+            return false;
+        }
+
+        this.offset = target;
+        if (Math.abs(delta) >= this.rows) {
+            render();
+        } else if (delta > 0) {
+            for (int screenRow = 0; screenRow < this.rows - delta; screenRow++) {
+                shiftRow(screenRow + delta, screenRow);
+            }
+            renderRows(this.rows - delta, this.rows);
+        } else {
+            for (int screenRow = this.rows - 1; screenRow >= -delta; screenRow--) {
+                shiftRow(screenRow + delta, screenRow);
+            }
+            renderRows(0, -delta);
+        }
+        return true;
+    }
+
+    /**
+     * Scrolls the view by the given number of rows, downwards for positive values. The result is clamped to the rows
+     * that can be scrolled to.
+     *
+     * @param rows the number of rows to scroll by
+     * @return true if the view moved
+     * @since 2.1.1-SNAPSHOT
+     */
+    public boolean scroll(int rows) {
+        return scrollTo(this.offset + rows);
+    }
+
+    /**
+     * Renders the given cell again if it is currently in view.
+     *
+     * @param cell the logical cell
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void refresh(int cell) {
+        final int index = cell - this.offset * this.columns;
+        if (index >= 0 && index < this.inventory.getPageSize()) {
+            renderIndex(index);
+        }
+    }
+
+    /**
+     * Changes the number of cells in the logical grid and renders the view again, clamping the offset if the grid
+     * shrank past it.
+     *
+     * @param cells the new cell count
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void setCells(int cells) {
+        Preconditions.checkArgument(cells >= 0, "The cell count must not be negative");
+        this.cells = cells;
+        this.offset = Math.min(this.offset, getMaxOffset());
+        render();
+    }
+
+    /**
+     * Gets the logical row currently shown at the top of the view.
+     *
+     * @return the row offset
+     * @since 2.1.1-SNAPSHOT
+     */
+    public int getOffset() {
+        return this.offset;
+    }
+
+    /**
+     * Gets the largest row offset the view can scroll to.
+     *
+     * @return the max row offset, 0 if every cell fits in view
+     * @since 2.1.1-SNAPSHOT
+     */
+    public int getMaxOffset() {
+        final int logicalRows = (this.cells + this.columns - 1) / this.columns;
+        return Math.max(0, logicalRows - this.rows);
+    }
+
+    private void shiftRow(int from, int to) {
+        for (int column = 0; column < this.columns; column++) {
+            final int source = from * this.columns + column;
+            final int target = to * this.columns + column;
+            retire(target);
+            if (this.inventory.getSlot(this.page, source) == MenuSlot.DUMMY) {
+                this.inventory.removeItem(this.page, target);
+                continue;
+            }
+
+            try {
+                this.inventory.moveSlot(this.page, source, target);
+            } catch (UnsupportedOperationException exception) {
+                renderIndex(target);
+            }
+        }
+    }
+
+    private void renderRows(int fromRow, int toRow) {
+        for (int index = fromRow * this.columns; index < toRow * this.columns; index++) {
+            renderIndex(index);
+        }
+    }
+
+    private void renderIndex(int index) {
+        final int cell = this.offset * this.columns + index;
+        retire(index);
+        if (cell >= this.cells) {
+            this.inventory.removeItem(this.page, index);
+            return;
+        }
+
+        final MenuSlot.Builder builder = MenuSlot.builder().inventory(this.inventory).page(this.page).index(index);
+        this.renderer.render(cell, builder);
+        builder.build();
+    }
+
+    /**
+     * Unregisters the slot at the given index, which is about to be replaced or removed.
+     *
+     * @param index the index
+     */
+    private void retire(int index) {
+        this.inventory.getSlot(this.page, index).unregister();
+    }
+
+    /**
+     * Materializes a single logical cell of a {@link ScrollingViewport}.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    @FunctionalInterface
+    public interface CellRenderer {
+        /**
+         * Fills in the given builder for a cell. The builder already has its inventory, page and index set.
+         *
+         * @param cell    the logical cell being rendered
+         * @param builder the builder of the slot the cell is shown in
+         */
+        void render(int cell, MenuSlot.Builder builder);
+    }
+}
@@ -0,0 +1,295 @@
+package sh.miles.menukit.util;
+
+import com.google.common.base.Preconditions;
+import org.jspecify.annotations.Nullable;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A hashed timing wheel for short lived, tick based timers.
+ * <p>
+ * Timers are hashed into a fixed ring of buckets by the tick they are due on, and each call to {@link #tick()} only
+ * visits the single bucket of the tick being entered. Timers due further out than one revolution of the wheel simply
+ * wait out the extra revolutions in their bucket. Scheduling and cancelling a timer are both constant time, as each
+ * bucket is an intrusive doubly linked list.
+ * <p>
+ * Timers may optionally be scheduled into a {@link Group}, which allows every timer belonging to some owner to be
+ * cancelled at once.
+ * <p>
+ * A task that throws is logged and does not keep the timers after it from running.
+ *
+ * @since 2.1.1-SNAPSHOT
+ */
+public final class TimingWheel {
+
+    private final @Nullable Timer[] buckets;
+    private final int mask;
+    private final Logger logger;
+    private long currentTick = 0;
+    private int size = 0;
+
+    /**
+     * Creates a new timing wheel.
+     *
+     * @param wheelSize the number of buckets, must be a power of two
+     * @throws IllegalArgumentException thrown if the wheel size is not a positive power of two
+     * @since 2.1.1-SNAPSHOT
+     */
+    public TimingWheel(int wheelSize) throws IllegalArgumentException {
+        this(wheelSize, Logger.getLogger(TimingWheel.class.getName()));
+    }
+
+    /**
+     * Creates a new timing wheel that logs tasks which throw to the given logger.
+     *
+     * @param wheelSize the number of buckets, must be a power of two
+     * @param logger    the logger failing tasks are reported to
+     * @throws IllegalArgumentException thrown if the wheel size is not a positive power of two
+     * @since 2.1.1-SNAPSHOT
+     */
+    public TimingWheel(int wheelSize, Logger logger) throws IllegalArgumentException {
+        Preconditions.checkArgument(wheelSize > 0 && Integer.bitCount(wheelSize) == 1, "The wheel size must be a positive power of two");
+        Preconditions.checkArgument(logger != null, "The provided logger must not be null");
+        this.buckets = new Timer[wheelSize];
+        this.mask = wheelSize - 1;
+        this.logger = logger;
+    }
+
+    /**
+     * Schedules a task to run after the given number of ticks.
+     *
+     * @param delay the delay in ticks, anything less than one runs on the next tick
+     * @param task  the task to run
+     * @return the timer, which can be used to cancel the task
+     * @since 2.1.1-SNAPSHOT
+     */
+    public Timer schedule(long delay, Runnable task) {
+        return schedule(delay, task, null);
+    }
+
+    /**
+     * Schedules a task to run after the given number of ticks as part of a group.
+     *
+     * @param delay the delay in ticks, anything less than one runs on the next tick
+     * @param task  the task to run
+     * @param group the group the timer belongs to, or null for none
+     * @return the timer, which can be used to cancel the task
+     * @since 2.1.1-SNAPSHOT
+     */
+    public Timer schedule(long delay, Runnable task, @Nullable Group group) {
+        Preconditions.checkArgument(task != null, "The provided task must not be null");
+        final long ticks = Math.max(1L, delay);
+        final int bucket = (int) ((this.currentTick + ticks) & this.mask);
+        final Timer timer = new Timer(this, task, bucket, (ticks - 1) / this.buckets.length);
+
+        // new timers go to the head, so a bucket being run never reaches the timers its own tasks schedule into it
+        final Timer head = this.buckets[bucket];
+        timer.next = head;
+        if (head != null) {
+            head.prev = timer;
+        }
+        this.buckets[bucket] = timer;
+        this.size++;
+
+        if (group != null) {
+            group.add(timer);
+        }
+        return timer;
+    }
+
+    /**
+     * Advances the wheel by one tick, running every timer due on it. A task that throws is logged and the rest of the
+     * due timers still run.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void tick() {
+        this.currentTick++;
+        Timer timer = this.buckets[(int) (this.currentTick & this.mask)];
+        while (timer != null) {
+            final Timer next = timer.next;
+            if (timer.isPending()) {
+                if (timer.rounds == 0) {
+                    timer.unlink();
+                    try {
+                        timer.task.run();
+                    } catch (RuntimeException exception) {
+                        this.logger.log(Level.SEVERE, "A timer task threw an exception", exception);
+                    }
+                } else {
+                    timer.rounds--;
+                }
+            }
+            timer = next;
+        }
+    }
+
+    /**
+     * Cancels every pending timer.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void clear() {
+        for (final Timer head : this.buckets) {
+            Timer timer = head;
+            while (timer != null) {
+                final Timer next = timer.next;
+                timer.cancel();
+                timer = next;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of pending timers.
+     *
+     * @return the pending timer count
+     * @since 2.1.1-SNAPSHOT
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets the number of ticks this wheel has been advanced.
+     *
+     * @return the current tick
+     * @since 2.1.1-SNAPSHOT
+     */
+    public long getCurrentTick() {
+        return this.currentTick;
+    }
+
+    /**
+     * A single scheduled task.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    public static final class Timer {
+
+        private final TimingWheel wheel;
+        private final Runnable task;
+        /*
+         * the bucket this timer is linked into, or -1 once it ran or was cancelled
+         */
+        private int bucket;
+        private long rounds;
+        private @Nullable Timer prev;
+        private @Nullable Timer next;
+        private @Nullable Group group;
+        private @Nullable Timer groupPrev;
+        private @Nullable Timer groupNext;
+
+        private Timer(final TimingWheel wheel, final Runnable task, final int bucket, final long rounds) {
+            this.wheel = wheel;
+            this.task = task;
+            this.bucket = bucket;
+            this.rounds = rounds;
+        }
+
+        /**
+         * Cancels this timer if it has not run yet.
+         *
+         * @return true if the timer was pending and is now cancelled
+         * @since 2.1.1-SNAPSHOT
+         */
+        public boolean cancel() {
+            if (!isPending()) {
+                return false;
+            }
+
+            unlink();
+            return true;
+        }
+
+        /**
+         * Gets whether this timer has neither run nor been cancelled yet.
+         *
+         * @return true if the timer is still pending
+         * @since 2.1.1-SNAPSHOT
+         */
+        public boolean isPending() {
+            return this.bucket != -1;
+        }
+
+        /**
+         * Unlinks this timer from its bucket and group. Forward links are left in place so that a walk currently passing
+         * through this timer can carry on past it.
+         */
+        private void unlink() {
+            if (this.prev != null) {
+                this.prev.next = this.next;
+            } else {
+                this.wheel.buckets[this.bucket] = this.next;
+            }
+            if (this.next != null) {
+                this.next.prev = this.prev;
+            }
+            this.bucket = -1;
+            this.wheel.size--;
+
+            if (this.group != null) {
+                this.group.remove(this);
+            }
+        }
+    }
+
+    /**
+     * A set of timers that can be cancelled together.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    public static final class Group {
+
+        private @Nullable Timer head;
+        private int size = 0;
+
+        /**
+         * Cancels every pending timer in this group.
+         *
+         * @since 2.1.1-SNAPSHOT
+         */
+        public void cancelAll() {
+            Timer timer = this.head;
+            while (timer != null) {
+                final Timer next = timer.groupNext;
+                timer.cancel();
+                timer = next;
+            }
+        }
+
+        /**
+         * Gets the number of pending timers in this group.
+         *
+         * @return the pending timer count
+         * @since 2.1.1-SNAPSHOT
+         */
+        public int size() {
+            return this.size;
+        }
+
+        private void add(final Timer timer) {
+            timer.group = this;
+            timer.groupNext = this.head;
+            if (this.head != null) {
+                this.head.groupPrev = timer;
+            }
+            this.head = timer;
+            this.size++;
+        }
+
+        private void remove(final Timer timer) {
+            if (timer.groupPrev != null) {
+                timer.groupPrev.groupNext = timer.groupNext;
+            } else {
+                this.head = timer.groupNext;
+            }
+            if (timer.groupNext != null) {
+                timer.groupNext.groupPrev = timer.groupPrev;
+            }
+            timer.group = null;
+            this.size--;
+        }
+    }
+}
@@ -5,6 +5,8 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,6 +21,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
@@ -36,6 +39,8 @@ class MenuKitLifecycleTest {
 
     private MockedStatic<Bukkit> bukkitStatics;
     private PluginManager pluginManager;
+    private BukkitScheduler scheduler;
+    private BukkitTask ticker;
     private Plugin plugin;
 
     @BeforeEach
@@ -44,6 +49,10 @@ class MenuKitLifecycleTest {
         this.bukkitStatics = mockStatic(Bukkit.class);
         this.bukkitStatics.when(Bukkit::getPluginManager).thenReturn(this.pluginManager);
         this.plugin = mock(Plugin.class);
+        this.ticker = mock(BukkitTask.class);
+        this.scheduler = mock(BukkitScheduler.class);
+        when(this.scheduler.runTaskTimer(any(Plugin.class), any(Runnable.class), anyLong(), anyLong())).thenReturn(this.ticker);
+        this.bukkitStatics.when(Bukkit::getScheduler).thenReturn(this.scheduler);
 
         teardownMenuKit();
     }
@@ -77,6 +86,17 @@ class MenuKitLifecycleTest {
         verify(this.pluginManager).registerEvents(any(Listener.class), eq(this.plugin));
     }
 
+    @Test
+    void startSchedulesASingleTickerThatStopCancels() {
+        MenuKit.INSTANCE.start(this.plugin);
+
+        verify(this.scheduler).runTaskTimer(eq(this.plugin), any(Runnable.class), eq(1L), eq(1L));
+
+        MenuKit.INSTANCE.stop();
+
+        verify(this.ticker).cancel();
+    }
+
     @Test
     void startExposesTheMenuManager() {
         MenuKit.INSTANCE.start(this.plugin);
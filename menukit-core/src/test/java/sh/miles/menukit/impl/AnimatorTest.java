@@ -0,0 +1,111 @@
+package sh.miles.menukit.impl;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import sh.miles.menukit.slot.Animation;
+import sh.miles.menukit.slot.MenuSlot;
+import sh.miles.menukit.slot.MenuSlotImpl;
+import sh.miles.menukit.util.PagedInventory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link Animator}, focused on which slots each tick advances.
+ *
+ * <p>The manager is mocked around a real animator and render queue, so that an advanced slot shows up as a queued
+ * render.
+ */
+class AnimatorTest {
+
+    private MockedStatic<Bukkit> bukkitStatics;
+    private MockedStatic<SlotMenuManager> managerStatics;
+    private MockedStatic<ItemStack> itemStackStatics;
+    private Animator animator;
+    private RenderQueue queue;
+    private Animation animation;
+
+    @BeforeEach
+    void setUp() {
+        this.bukkitStatics = mockStatic(Bukkit.class);
+        this.bukkitStatics.when(Bukkit::isPrimaryThread).thenReturn(true);
+        this.animator = new Animator();
+        this.queue = new RenderQueue();
+        final SlotMenuManager manager = mock(SlotMenuManager.class);
+        when(manager.getAnimator()).thenReturn(this.animator);
+        when(manager.getRenderQueue()).thenReturn(this.queue);
+        this.managerStatics = mockStatic(SlotMenuManager.class);
+        this.managerStatics.when(SlotMenuManager::isInitialized).thenReturn(true);
+        this.managerStatics.when(SlotMenuManager::menuManager).thenReturn(manager);
+
+        final ItemStack empty = stack();
+        this.itemStackStatics = mockStatic(ItemStack.class);
+        this.itemStackStatics.when(ItemStack::empty).thenReturn(empty);
+        this.animation = Animation.of(1, stack(), stack());
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.bukkitStatics.close();
+        this.managerStatics.close();
+        this.itemStackStatics.close();
+    }
+
+    private ItemStack stack() {
+        final ItemStack stack = mock(ItemStack.class);
+        when(stack.clone()).thenReturn(stack);
+        return stack;
+    }
+
+    private PagedInventory viewed() {
+        final Inventory inventory = mock(Inventory.class);
+        when(inventory.getSize()).thenReturn(9);
+        when(inventory.getViewers()).thenReturn(List.of(mock(HumanEntity.class)));
+        return new PagedInventory(inventory, 1);
+    }
+
+    @Test
+    void aRelocatedSlotIsAnimatedUnderItsNewInventory() {
+        final PagedInventory source = viewed();
+        final PagedInventory target = viewed();
+        final MenuSlot slot = MenuSlot.builder().inventory(source).page(0).index(0).animation(this.animation).build();
+        slot.relocate(target, 0, 4);
+
+        this.animator.tick(1);
+
+        assertEquals(2, this.queue.size(), "both the slot and its copy must advance");
+    }
+
+    @Test
+    void anUnregisteredSlotStopsAdvancing() {
+        final PagedInventory inventory = viewed();
+        final MenuSlot slot = MenuSlot.builder().inventory(inventory).page(0).index(0).animation(this.animation).build();
+        slot.relocate(inventory, 0, 1);
+
+        ((MenuSlotImpl) slot).unregister();
+        this.animator.tick(1);
+
+        assertEquals(1, this.queue.size(), "only the copy must advance");
+    }
+
+    @Test
+    void inventoriesNobodyIsViewingAreSkipped() {
+        final Inventory inventory = mock(Inventory.class);
+        when(inventory.getSize()).thenReturn(9);
+        MenuSlot.builder().inventory(new PagedInventory(inventory, 1)).page(0).index(0).animation(this.animation).build();
+
+        this.animator.tick(1);
+
+        assertEquals(0, this.queue.size());
+    }
+}
@@ -0,0 +1,216 @@
+package sh.miles.menukit.impl;
+
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import sh.miles.menukit.menu.SlotMenu;
+
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link OpenScheduler}, focused on how many opens a tick lets through and in what order.
+ */
+class OpenSchedulerTest {
+
+    private OpenScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        this.scheduler = new OpenScheduler(Logger.getLogger(OpenSchedulerTest.class.getName()));
+        this.scheduler.setBudget(1, Long.MAX_VALUE);
+    }
+
+    private static Player player() {
+        final Player player = mock(Player.class);
+        final UUID uuid = UUID.randomUUID();
+        when(player.getUniqueId()).thenReturn(uuid);
+        when(player.isOnline()).thenReturn(true);
+        return player;
+    }
+
+    private static SlotMenu<?> menu(final Player player) {
+        final SlotMenu<?> menu = mock(SlotMenu.class);
+        when(menu.getViewer()).thenReturn(player);
+        return menu;
+    }
+
+    @Test
+    void setBudgetRejectsBudgetsThatAreNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> this.scheduler.setBudget(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> this.scheduler.setBudget(1, 0));
+    }
+
+    @Test
+    void opensWithinTheBudgetHappenRightAway() {
+        this.scheduler.setBudget(2, Long.MAX_VALUE);
+        final SlotMenu<?> first = menu(player());
+        final SlotMenu<?> second = menu(player());
+        final SlotMenu<?> third = menu(player());
+
+        assertTrue(this.scheduler.schedule(first, 0));
+        assertTrue(this.scheduler.schedule(second, 0));
+        assertFalse(this.scheduler.schedule(third, 0));
+
+        verify(first).open();
+        verify(second).open();
+        verify(third, never()).open();
+        assertEquals(1, this.scheduler.size());
+    }
+
+    @Test
+    void waitingOpensAreSpreadOverTheFollowingTicksInOrder() {
+        this.scheduler.schedule(menu(player()), 0);
+        final SlotMenu<?> first = menu(player());
+        final SlotMenu<?> second = menu(player());
+        this.scheduler.schedule(first, 0);
+        this.scheduler.schedule(second, 0);
+
+        this.scheduler.tick();
+        verify(first).open();
+        verify(second, never()).open();
+
+        this.scheduler.tick();
+        verify(second).open();
+        assertEquals(0, this.scheduler.size());
+    }
+
+    @Test
+    void anOpenThatThrowsDoesNotHoldBackTheOpensAfterIt() {
+        this.scheduler.setBudget(2, Long.MAX_VALUE);
+        this.scheduler.schedule(menu(player()), 0);
+        this.scheduler.schedule(menu(player()), 0);
+        final SlotMenu<?> failing = menu(player());
+        final SlotMenu<?> after = menu(player());
+        doThrow(new IllegalStateException("failing open")).when(failing).open();
+        this.scheduler.schedule(failing, 0);
+        this.scheduler.schedule(after, 0);
+
+        this.scheduler.tick();
+
+        verify(after).open();
+        assertEquals(0, this.scheduler.size());
+    }
+
+    @Test
+    void priorityOrderLetsHigherPrioritiesThroughFirst() {
+        this.scheduler.schedule(menu(player()), 0);
+        final SlotMenu<?> low = menu(player());
+        final SlotMenu<?> high = menu(player());
+        this.scheduler.schedule(low, 0);
+        this.scheduler.schedule(high, 5);
+
+        this.scheduler.setOrder(OpenScheduler.Order.PRIORITY);
+        this.scheduler.tick();
+        this.scheduler.tick();
+
+        final InOrder order = inOrder(high, low);
+        order.verify(high).open();
+        order.verify(low).open();
+    }
+
+    @Test
+    void aNewRequestReplacesThePlayersWaitingOne() {
+        this.scheduler.schedule(menu(player()), 0);
+        final Player player = player();
+        final SlotMenu<?> replaced = menu(player);
+        final SlotMenu<?> replacement = menu(player);
+        this.scheduler.schedule(replaced, 0);
+        this.scheduler.schedule(replacement, 0);
+
+        assertEquals(1, this.scheduler.size());
+        this.scheduler.tick();
+        this.scheduler.tick();
+
+        verify(replaced, never()).open();
+        verify(replacement).open();
+    }
+
+    @Test
+    void aWaitingOpenForAMenuThatIsAlreadyOpenIsSkipped() {
+        this.scheduler.schedule(menu(player()), 0);
+        final SlotMenu<?> alreadyOpen = menu(player());
+        final SlotMenu<?> next = menu(player());
+        this.scheduler.schedule(alreadyOpen, 0);
+        this.scheduler.schedule(next, 0);
+        when(alreadyOpen.isOpen()).thenReturn(true);
+
+        this.scheduler.tick();
+
+        verify(alreadyOpen, never()).open();
+        verify(next).open();
+    }
+
+    @Test
+    void requestingAMenuThatIsAlreadyOpenSpendsNoBudget() {
+        final SlotMenu<?> open = menu(player());
+        when(open.isOpen()).thenReturn(true);
+
+        assertTrue(this.scheduler.schedule(open, 0));
+        assertTrue(this.scheduler.schedule(menu(player()), 0));
+
+        verify(open, never()).open();
+    }
+
+    @Test
+    void cancelledAndOfflineOpensAreDropped() {
+        this.scheduler.schedule(menu(player()), 0);
+        final Player offline = player();
+        final SlotMenu<?> cancelled = menu(player());
+        final SlotMenu<?> left = menu(offline);
+        this.scheduler.schedule(cancelled, 0);
+        this.scheduler.schedule(left, 0);
+        when(offline.isOnline()).thenReturn(false);
+
+        assertTrue(this.scheduler.cancel(cancelled.getViewer().getUniqueId()));
+        this.scheduler.tick();
+
+        verify(cancelled, never()).open();
+        verify(left, never()).open();
+        assertEquals(0, this.scheduler.size());
+    }
+
+    @Test
+    void cancelledOpensDoNotHoldBackOpensThatFitTheBudget() {
+        this.scheduler.schedule(menu(player()), 0);
+        final SlotMenu<?> cancelled = menu(player());
+        this.scheduler.schedule(cancelled, 0);
+        this.scheduler.cancel(cancelled.getViewer().getUniqueId());
+        this.scheduler.setBudget(2, Long.MAX_VALUE);
+
+        final SlotMenu<?> next = menu(player());
+        assertTrue(this.scheduler.schedule(next, 0));
+
+        verify(next).open();
+        verify(cancelled, never()).open();
+    }
+
+    @Test
+    void reorderingDropsCancelledOpens() {
+        this.scheduler.schedule(menu(player()), 0);
+        final SlotMenu<?> cancelled = menu(player());
+        final SlotMenu<?> waiting = menu(player());
+        this.scheduler.schedule(cancelled, 5);
+        this.scheduler.schedule(waiting, 0);
+        this.scheduler.cancel(cancelled.getViewer().getUniqueId());
+
+        this.scheduler.setOrder(OpenScheduler.Order.PRIORITY);
+        this.scheduler.tick();
+
+        verify(cancelled, never()).open();
+        verify(waiting).open();
+        assertFalse(this.scheduler.isPending(waiting.getViewer().getUniqueId()));
+    }
+}
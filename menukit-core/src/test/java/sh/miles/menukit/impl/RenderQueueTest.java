@@ -0,0 +1,143 @@
+package sh.miles.menukit.impl;
+
+import org.bukkit.Bukkit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import sh.miles.menukit.slot.MenuSlot;
+import sh.miles.menukit.util.PagedInventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link RenderQueue}, focused on the per flush budget and what gets rendered first within it.
+ */
+class RenderQueueTest {
+
+    private MockedStatic<Bukkit> bukkitStatics;
+    private RenderQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        this.bukkitStatics = mockStatic(Bukkit.class);
+        this.bukkitStatics.when(Bukkit::isPrimaryThread).thenReturn(true);
+        this.queue = new RenderQueue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.bukkitStatics.close();
+    }
+
+    private static MenuSlot filed(final PagedInventory inventory, final int index) {
+        final MenuSlot slot = mock(MenuSlot.class);
+        when(slot.getSlot()).thenReturn(index);
+        when(inventory.getSlot(0, index)).thenReturn(slot);
+        return slot;
+    }
+
+    @Test
+    void setBudgetRejectsABudgetThatIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> this.queue.setBudget(0));
+    }
+
+    @Test
+    void flushRendersEveryQueuedSlotOnce() {
+        final PagedInventory inventory = mock(PagedInventory.class);
+        final MenuSlot slot = filed(inventory, 0);
+        this.queue.enqueue(inventory, slot);
+        this.queue.enqueue(inventory, slot);
+
+        this.queue.flush();
+
+        verify(inventory).update(slot);
+        assertEquals(0, this.queue.size());
+    }
+
+    @Test
+    void slotsLeftOverOnceTheBudgetRunsOutCarryToTheNextFlush() {
+        this.queue.setBudget(1);
+        final PagedInventory inventory = mock(PagedInventory.class);
+        final MenuSlot first = filed(inventory, 0);
+        final MenuSlot second = filed(inventory, 1);
+        this.queue.enqueue(inventory, first);
+        this.queue.enqueue(inventory, second);
+
+        this.queue.flush();
+        verify(inventory).update(first);
+        verify(inventory, never()).update(second);
+        assertEquals(1, this.queue.size());
+
+        this.queue.flush();
+        verify(inventory).update(second);
+        assertEquals(0, this.queue.size());
+    }
+
+    @Test
+    void recentlyClickedInventoriesAreRenderedFirst() {
+        this.queue.setBudget(1);
+        final PagedInventory idle = mock(PagedInventory.class);
+        final PagedInventory clicked = mock(PagedInventory.class);
+        final MenuSlot idleSlot = filed(idle, 0);
+        final MenuSlot clickedSlot = filed(clicked, 0);
+        this.queue.enqueue(idle, idleSlot);
+        this.queue.enqueue(clicked, clickedSlot);
+        this.queue.touch(clicked);
+
+        this.queue.flush();
+
+        verify(clicked).update(clickedSlot);
+        verify(idle, never()).update(idleSlot);
+    }
+
+    @Test
+    void slotsNoLongerFiledOrOfReleasedInventoriesAreDropped() {
+        final PagedInventory inventory = mock(PagedInventory.class);
+        final MenuSlot replaced = mock(MenuSlot.class);
+        filed(inventory, 0);
+        final PagedInventory released = mock(PagedInventory.class);
+        when(released.isReleased()).thenReturn(true);
+        final MenuSlot orphan = filed(released, 0);
+        this.queue.enqueue(inventory, replaced);
+        this.queue.enqueue(released, orphan);
+
+        this.queue.flush();
+
+        verify(inventory, never()).update(replaced);
+        verify(released, never()).update(orphan);
+        assertEquals(0, this.queue.size());
+    }
+
+    @Test
+    void slotsRemovedSinceHaveTheirPositionWrittenEmpty() {
+        final PagedInventory inventory = mock(PagedInventory.class);
+        final MenuSlot removed = mock(MenuSlot.class);
+        when(removed.getSlot()).thenReturn(3);
+        when(inventory.getSlot(0, 3)).thenReturn(MenuSlot.DUMMY);
+        this.queue.enqueue(inventory, removed);
+
+        this.queue.flush();
+
+        verify(inventory).removeItem(0, 3);
+        verify(inventory, never()).update(removed);
+    }
+
+    @Test
+    void usingTheQueueOffTheServerThreadFails() {
+        final PagedInventory inventory = mock(PagedInventory.class);
+        final MenuSlot slot = filed(inventory, 0);
+        this.bukkitStatics.when(Bukkit::isPrimaryThread).thenReturn(false);
+
+        assertThrows(IllegalStateException.class, () -> this.queue.enqueue(inventory, slot));
+        assertThrows(IllegalStateException.class, () -> this.queue.touch(inventory));
+        assertThrows(IllegalStateException.class, () -> this.queue.flush());
+        assertEquals(0, this.queue.size());
+    }
+}
@@ -0,0 +1,185 @@
+package sh.miles.menukit.menu;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import sh.miles.menukit.impl.SlotMenuManager;
+import sh.miles.menukit.util.PagedArrayPool;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link MenuCache}, focused on which menus are reused and when they are dropped.
+ */
+class MenuCacheTest {
+
+    private static final SlotMenuFactory.MenuInitializable<InventoryView> NOTHING = (view, inventory) -> {
+    };
+
+    private MockedStatic<SlotMenuManager> managerStatics;
+    private SlotMenuManager manager;
+    private MockedStatic<ItemStack> itemStackStatics;
+    private SlotMenuFactory<InventoryView> factory;
+
+    @BeforeEach
+    void setUp() {
+        this.manager = mock(SlotMenuManager.class);
+        this.managerStatics = mockStatic(SlotMenuManager.class);
+        this.managerStatics.when(SlotMenuManager::menuManager).thenReturn(this.manager);
+        this.itemStackStatics = mockStatic(ItemStack.class);
+        this.itemStackStatics.when(ItemStack::empty).thenReturn(mock(ItemStack.class));
+
+        this.factory = new SlotMenuFactory<>(MenuCacheTest::view, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.managerStatics.close();
+        this.itemStackStatics.close();
+    }
+
+    private static InventoryView view(final Player player) {
+        final Inventory inventory = mock(Inventory.class);
+        when(inventory.getSize()).thenReturn(9);
+        final InventoryView view = mock(InventoryView.class);
+        when(view.getTopInventory()).thenReturn(inventory);
+        when(view.getPlayer()).thenReturn(player);
+        return view;
+    }
+
+    private static Player player() {
+        final Player player = mock(Player.class);
+        final UUID uuid = UUID.randomUUID();
+        when(player.getUniqueId()).thenReturn(uuid);
+        return player;
+    }
+
+    /**
+     * Opens and closes a menu, returning once the clock has moved past the moment it closed, so that a zero time to live
+     * has run out.
+     *
+     * @param menu the menu
+     */
+    private static void openAndClose(final SlotMenu<?> menu) {
+        menu.open();
+        menu.handleClose(mock(InventoryCloseEvent.class));
+        final long closed = System.nanoTime();
+        while (System.nanoTime() == closed) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Test
+    void aMenuCreatedWithAnotherInitializableIsBuiltAgain() {
+        final MenuCache cache = new MenuCache(Duration.ofMinutes(1), 4);
+        this.factory.setReopenCache(cache);
+        final Player player = player();
+        final SlotMenu<InventoryView> menu = this.factory.create(player, NOTHING);
+        openAndClose(menu);
+
+        final SlotMenu<InventoryView> other = this.factory.create(player, (view, inventory) -> {
+        });
+
+        assertNotSame(menu, other);
+        assertEquals(1, cache.size(), "the menu built from the other initializable replaces the stale one");
+        assertNotSame(menu, this.factory.create(player, NOTHING));
+    }
+
+    @Test
+    void aClosedMenuIsReusedForTheSamePlayerOnly() {
+        this.factory.setReopenCache(new MenuCache(Duration.ofMinutes(1), 4));
+        final Player player = player();
+        final SlotMenu<InventoryView> menu = this.factory.create(player, NOTHING);
+        openAndClose(menu);
+
+        assertSame(menu, this.factory.create(player, NOTHING));
+        assertNotSame(menu, this.factory.create(player(), NOTHING));
+    }
+
+    @Test
+    void aMenuClosedForLongerThanTheTimeToLiveIsNotReused() {
+        this.factory.setReopenCache(new MenuCache(Duration.ZERO, 4));
+        final Player player = player();
+        final SlotMenu<InventoryView> menu = this.factory.create(player, NOTHING);
+        openAndClose(menu);
+
+        assertNotSame(menu, this.factory.create(player, NOTHING));
+    }
+
+    @Test
+    void expiredMenusArePurgedOnGet() {
+        final MenuCache cache = new MenuCache(Duration.ZERO, 4);
+        this.factory.setReopenCache(cache);
+        openAndClose(this.factory.create(player(), NOTHING));
+        openAndClose(this.factory.create(player(), NOTHING));
+
+        assertNull(cache.get(player(), this.factory));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void theLeastRecentlyUsedMenuIsEvictedFirst() {
+        this.factory.setReopenCache(new MenuCache(Duration.ofMinutes(1), 2));
+        final Player first = player();
+        final Player second = player();
+        final SlotMenu<InventoryView> firstMenu = this.factory.create(first, NOTHING);
+        final SlotMenu<InventoryView> secondMenu = this.factory.create(second, NOTHING);
+
+        this.factory.create(first, NOTHING);
+        this.factory.create(player(), NOTHING);
+
+        assertSame(firstMenu, this.factory.create(first, NOTHING));
+        assertNotSame(secondMenu, this.factory.create(second, NOTHING));
+    }
+
+    @Test
+    void anEvictedMenuHandsItsArraysBackToThePool() {
+        final PagedArrayPool pool = new PagedArrayPool(4);
+        this.managerStatics.when(SlotMenuManager::isInitialized).thenReturn(true);
+        when(this.manager.getArrayPool()).thenReturn(pool);
+        this.factory.setReopenCache(new MenuCache(Duration.ofMinutes(1), 1));
+        final SlotMenu<InventoryView> evicted = this.factory.create(player(), NOTHING);
+        openAndClose(evicted);
+        assertFalse(evicted.getInventory().isReleased(), "a cached menu must keep its arrays");
+
+        this.factory.create(player(), NOTHING);
+
+        assertTrue(evicted.getInventory().isReleased());
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    void invalidateEverywhereDropsThePlayerFromEveryCache() {
+        final MenuCache cache = new MenuCache(Duration.ofMinutes(1), 4);
+        final MenuCache other = new MenuCache(Duration.ofMinutes(1), 4);
+        final SlotMenuFactory<InventoryView> otherFactory = new SlotMenuFactory<>(MenuCacheTest::view, 1);
+        this.factory.setReopenCache(cache);
+        otherFactory.setReopenCache(other);
+        final Player player = player();
+        this.factory.create(player, NOTHING);
+        otherFactory.create(player, NOTHING);
+        this.factory.create(player(), NOTHING);
+
+        MenuCache.invalidateEverywhere(player.getUniqueId());
+
+        assertEquals(1, cache.size());
+        assertEquals(0, other.size());
+    }
+}
@@ -0,0 +1,135 @@
+package sh.miles.menukit.menu;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link MenuHistory}, focused on the depth and slot bounds and on which menus they drop.
+ */
+class MenuHistoryTest {
+
+    private static final int SIZE = 9;
+
+    private Player first;
+    private Player second;
+
+    @BeforeEach
+    void setUp() {
+        this.first = player();
+        this.second = player();
+    }
+
+    private static Player player() {
+        final Player player = mock(Player.class);
+        final UUID uuid = UUID.randomUUID();
+        when(player.getUniqueId()).thenReturn(uuid);
+        return player;
+    }
+
+    /**
+     * Creates a menu of a single page, which weighs {@value SIZE} slots.
+     *
+     * @param player the viewer
+     * @return the menu
+     */
+    private static SlotMenu<InventoryView> menu(final Player player) {
+        final Inventory inventory = mock(Inventory.class);
+        when(inventory.getSize()).thenReturn(SIZE);
+        final InventoryView view = mock(InventoryView.class);
+        when(view.getTopInventory()).thenReturn(inventory);
+        return new SlotMenu<>(player, viewer -> view, 1) {
+            @Override
+            protected void reload(final InventoryView view) {
+            }
+        };
+    }
+
+    @Test
+    void constructorRejectsLimitsThatAreNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new MenuHistory(0, SIZE));
+        assertThrows(IllegalArgumentException.class, () -> new MenuHistory(1, 0));
+    }
+
+    @Test
+    void popReturnsMenusMostRecentFirstAndLeavesThemSuspended() {
+        final MenuHistory history = new MenuHistory(4, SIZE * 4);
+        final SlotMenu<?> bottom = menu(this.first);
+        final SlotMenu<?> top = menu(this.first);
+        history.push(bottom);
+        history.push(top);
+
+        assertSame(top, history.pop(this.first.getUniqueId()));
+        assertTrue(top.suspended);
+        assertSame(bottom, history.pop(this.first.getUniqueId()));
+        assertNull(history.pop(this.first.getUniqueId()));
+        assertEquals(0, history.getHeldSlots());
+    }
+
+    @Test
+    void pushingPastTheDepthDropsTheOldestMenu() {
+        final MenuHistory history = new MenuHistory(2, SIZE * 4);
+        final SlotMenu<?> oldest = menu(this.first);
+        history.push(oldest);
+        history.push(menu(this.first));
+        history.push(menu(this.first));
+
+        assertEquals(2, history.depth(this.first.getUniqueId()));
+        assertFalse(oldest.suspended);
+        assertEquals(SIZE * 2, history.getHeldSlots());
+    }
+
+    @Test
+    void pushingPastTheSlotBoundDropsFromThePlayerWhoNavigatedLeastRecently() {
+        final MenuHistory history = new MenuHistory(4, SIZE * 2);
+        final SlotMenu<?> stale = menu(this.first);
+        history.push(stale);
+        history.push(menu(this.second));
+        history.push(menu(this.second));
+
+        assertEquals(0, history.depth(this.first.getUniqueId()));
+        assertEquals(2, history.depth(this.second.getUniqueId()));
+        assertFalse(stale.suspended);
+    }
+
+    @Test
+    void clearingAPlayerOnlyDropsTheirHistory() {
+        final MenuHistory history = new MenuHistory(4, SIZE * 4);
+        final SlotMenu<?> dropped = menu(this.first);
+        history.push(dropped);
+        history.push(menu(this.second));
+
+        history.clear(this.first.getUniqueId());
+
+        assertFalse(dropped.suspended);
+        assertEquals(0, history.depth(this.first.getUniqueId()));
+        assertEquals(1, history.depth(this.second.getUniqueId()));
+        assertEquals(SIZE, history.getHeldSlots());
+    }
+
+    @Test
+    void loweringTheLimitsTrimsRightAway() {
+        final MenuHistory history = new MenuHistory(4, SIZE * 4);
+        history.push(menu(this.first));
+        history.push(menu(this.first));
+        history.push(menu(this.first));
+
+        history.setLimits(1, SIZE * 4);
+
+        assertEquals(1, history.depth(this.first.getUniqueId()));
+        assertEquals(SIZE, history.getHeldSlots());
+    }
+}
@@ -0,0 +1,203 @@
+package sh.miles.menukit.menu;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import sh.miles.menukit.impl.OpenScheduler;
+import sh.miles.menukit.impl.SlotMenuManager;
+import sh.miles.menukit.slot.MenuSlot;
+import sh.miles.menukit.state.InvalidationIndex;
+import sh.miles.menukit.state.MenuValue;
+import sh.miles.menukit.util.PagedInventory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link SlotMenuFactory}, focused on opening one menu for many players.
+ */
+class SlotMenuFactoryTest {
+
+    private static final int SIZE = 9;
+
+    private MockedStatic<SlotMenuManager> managerStatics;
+    private MockedStatic<ItemStack> itemStackStatics;
+    private OpenScheduler scheduler;
+    private ItemStack content;
+    private SlotMenuFactory<InventoryView> factory;
+
+    @BeforeEach
+    void setUp() {
+        this.scheduler = mock(OpenScheduler.class);
+        final SlotMenuManager manager = mock(SlotMenuManager.class);
+        when(manager.getOpenScheduler()).thenReturn(this.scheduler);
+        this.managerStatics = mockStatic(SlotMenuManager.class);
+        this.managerStatics.when(SlotMenuManager::menuManager).thenReturn(manager);
+
+        this.itemStackStatics = mockStatic(ItemStack.class);
+        this.itemStackStatics.when(ItemStack::empty).thenReturn(mock(ItemStack.class));
+        this.content = mock(ItemStack.class);
+        when(this.content.clone()).thenReturn(this.content);
+
+        this.factory = new SlotMenuFactory<>(SlotMenuFactoryTest::view, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.managerStatics.close();
+        this.itemStackStatics.close();
+        InvalidationIndex.INSTANCE.clear();
+    }
+
+    private static InventoryView view(final Player player) {
+        final Inventory inventory = mock(Inventory.class);
+        when(inventory.getSize()).thenReturn(SIZE);
+        final InventoryView view = mock(InventoryView.class);
+        when(view.getTopInventory()).thenReturn(inventory);
+        when(view.getPlayer()).thenReturn(player);
+        return view;
+    }
+
+    private static Player player() {
+        final Player player = mock(Player.class);
+        final UUID uuid = UUID.randomUUID();
+        when(player.getUniqueId()).thenReturn(uuid);
+        return player;
+    }
+
+    @Test
+    void openAllBuildsTheContentOnceAndSchedulesEveryOpen() {
+        final int[] inits = {0};
+        final List<SlotMenu<InventoryView>> menus = this.factory.openAll(List.of(player(), player(), player()), (inventory) -> {
+            inits[0]++;
+            MenuSlot.builder().inventory(inventory).page(0).index(4).content(this.content).build();
+        });
+
+        assertEquals(3, menus.size());
+        for (final SlotMenu<InventoryView> menu : menus) {
+            verify(this.scheduler).schedule(menu, 0);
+            menu.reload(menu.bukkitView);
+            assertSame(this.content, menu.getInventory().getSlot(0, 4).getContent());
+            verify(menu.bukkitView.getTopInventory()).setItem(4, this.content);
+        }
+        assertEquals(1, inits[0], "the shared content must only be built once");
+    }
+
+    @Test
+    void openAllReusesOnlyCachedMenusOpenedWithTheSameContent() {
+        this.factory.setReopenCache(new MenuCache(Duration.ofMinutes(1), 4));
+        final Player player = player();
+        final Consumer<PagedInventory> content = (inventory) -> MenuSlot.builder().inventory(inventory).page(0).index(0).content(this.content).build();
+        final SlotMenu<InventoryView> cached = this.factory.create(player, (view, inventory) -> {
+        });
+
+        final SlotMenu<InventoryView> opened = this.factory.openAll(List.of(player), content).get(0);
+
+        assertNotSame(cached, opened, "a menu built from another initializer must not be reused");
+        assertSame(opened, this.factory.openAll(List.of(player), content).get(0));
+    }
+
+    @Test
+    void openAllRejectsNullPlayers() {
+        final List<Player> players = new ArrayList<>();
+        players.add(null);
+
+        assertThrows(IllegalArgumentException.class, () -> this.factory.openAll(players, (inventory) -> {
+        }));
+    }
+
+    @Test
+    void aTemplateStampsTheSameSlotsAsBuildingThemDirectly() {
+        final Consumer<PagedInventory> border = (inventory) -> {
+            for (int index = 0; index < SIZE; index += 2) {
+                MenuSlot.builder().inventory(inventory).page(0).index(index).content(this.content).build();
+            }
+        };
+        this.factory.setTemplate(border);
+        final SlotMenu<InventoryView> stamped = this.factory.create(player(), (view, inventory) -> {
+        });
+        stamped.reload(stamped.bukkitView);
+        final SlotMenu<InventoryView> direct = new SlotMenuFactory<>(SlotMenuFactoryTest::view, 1).create(player(), (view, inventory) -> border.accept(inventory));
+        direct.reload(direct.bukkitView);
+
+        for (int index = 0; index < SIZE; index++) {
+            final MenuSlot expected = direct.getInventory().getSlot(0, index);
+            final MenuSlot actual = stamped.getInventory().getSlot(0, index);
+            if (expected == MenuSlot.DUMMY) {
+                assertSame(MenuSlot.DUMMY, actual, "slot " + index + " must stay empty");
+                continue;
+            }
+
+            assertEquals(expected.getPage(), actual.getPage());
+            assertEquals(expected.getSlot(), actual.getSlot());
+            assertSame(expected.getContent(), actual.getContent());
+            verify(stamped.bukkitView.getTopInventory()).setItem(index, this.content);
+        }
+    }
+
+    @Test
+    void aBoundTemplateSlotRepaintsInEveryStampedMenu() {
+        final MenuValue<Integer> value = MenuValue.of(0);
+        this.factory.setTemplate((inventory) -> MenuSlot.builder().inventory(inventory).page(0).index(0).bind(value).lazyContent(() -> this.content).build());
+        final SlotMenu<InventoryView> menu = this.factory.create(player(), (view, inventory) -> {
+        });
+        menu.reload(menu.bukkitView);
+        clearInvocations(menu.bukkitView.getTopInventory());
+
+        value.set(1);
+
+        verify(menu.bukkitView.getTopInventory()).setItem(0, this.content);
+    }
+
+    @Test
+    void aTemplateCallbackActsOnTheMenuItWasClickedInRatherThanTheTemplate() {
+        final List<PagedInventory> initialized = new ArrayList<>();
+        this.factory.setTemplate((inventory) -> {
+            initialized.add(inventory);
+            MenuSlot.builder().inventory(inventory).page(0).index(0).click((callback) -> {
+                MenuSlot.builder().inventory(callback.getInventory()).page(0).index(1).content(this.content).build();
+            }).build();
+        });
+        final SlotMenu<InventoryView> menu = this.factory.create(player(), (view, inventory) -> {
+        });
+        menu.reload(menu.bukkitView);
+
+        menu.getInventory().getSlot(0, 0).click(new MenuEventCallback<>(mock(InventoryClickEvent.class), menu));
+
+        assertNotSame(menu.getInventory(), initialized.get(0), "the template initializer must only ever see a detached inventory");
+        assertSame(this.content, menu.getInventory().getSlot(0, 1).getContent());
+        assertSame(MenuSlot.DUMMY, initialized.get(0).getSlot(0, 1));
+    }
+
+    @Test
+    void reloadingUnregistersTheCopiesOfThePreviousStamp() {
+        this.factory.setTemplate((inventory) -> MenuSlot.builder().inventory(inventory).page(0).index(0).keys("border").content(this.content).build());
+        final SlotMenu<InventoryView> menu = this.factory.create(player(), (view, inventory) -> {
+        });
+
+        menu.reload(menu.bukkitView);
+        menu.reload(menu.bukkitView);
+        menu.reload(menu.bukkitView);
+
+        assertEquals(2, InvalidationIndex.INSTANCE.count("border"), "only the template's own slot and the latest copy may stay filed");
+    }
+}
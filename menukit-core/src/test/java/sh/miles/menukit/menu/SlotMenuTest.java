@@ -1,5 +1,7 @@
 package sh.miles.menukit.menu;
 
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextColor;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
@@ -13,6 +15,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 import sh.miles.menukit.impl.SlotMenuManager;
 import sh.miles.menukit.slot.MenuSlot;
+import sh.miles.menukit.util.PagedArrayPool;
 
 import java.util.Set;
 import java.util.UUID;
@@ -20,11 +23,18 @@ import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -38,6 +48,7 @@ class SlotMenuTest {
     private static final int PAGES = 2;
 
     private MockedStatic<SlotMenuManager> managerStatics;
+    private MockedStatic<ItemStack> itemStackStatics;
     private SlotMenuManager manager;
     private Player player;
     private UUID playerId;
@@ -51,6 +62,11 @@ class SlotMenuTest {
         this.managerStatics = mockStatic(SlotMenuManager.class);
         this.managerStatics.when(SlotMenuManager::menuManager).thenReturn(this.manager);
 
+        final ItemStack empty = mock(ItemStack.class);
+        when(empty.isEmpty()).thenReturn(true);
+        this.itemStackStatics = mockStatic(ItemStack.class);
+        this.itemStackStatics.when(ItemStack::empty).thenReturn(empty);
+
         this.playerId = UUID.randomUUID();
         this.player = mock(Player.class);
         when(this.player.getUniqueId()).thenReturn(this.playerId);
@@ -61,6 +77,7 @@ class SlotMenuTest {
         this.view = mock(InventoryView.class);
         when(this.view.getTopInventory()).thenReturn(this.topInventory);
         when(this.view.getPlayer()).thenReturn(this.player);
+        when(this.view.title()).thenReturn(Component.text("source"));
 
         this.menu = new TestMenu(this.player, viewer -> this.view, PAGES);
     }
@@ -68,6 +85,7 @@ class SlotMenuTest {
     @AfterEach
     void tearDown() {
         this.managerStatics.close();
+        this.itemStackStatics.close();
     }
 
     /**
@@ -77,14 +95,42 @@ class SlotMenuTest {
      * @return the mocked slot
      */
     private MenuSlot registerSlot(final int index) {
+        return registerSlot(this.menu, index, mock(ItemStack.class));
+    }
+
+    private MenuSlot registerSlot(final SlotMenu<?> menu, final int index, final ItemStack content) {
         final MenuSlot slot = mock(MenuSlot.class);
         when(slot.getPage()).thenReturn(0);
         when(slot.getSlot()).thenReturn(index);
-        when(slot.getContent()).thenReturn(mock(ItemStack.class));
-        this.menu.getInventory().setItem(slot);
+        when(slot.getContent()).thenReturn(content);
+        menu.getInventory().setItem(slot);
         return slot;
     }
 
+    /**
+     * Creates a second menu for the same player, over a view of its own with the same title as the menu under test.
+     *
+     * @return the menu
+     */
+    private TestMenu otherMenu() {
+        return otherMenu(Component.text("source"));
+    }
+
+    private TestMenu otherMenu(final Component title) {
+        final Inventory inventory = mock(Inventory.class);
+        when(inventory.getSize()).thenReturn(TOP_SIZE);
+        final InventoryView view = mock(InventoryView.class);
+        when(view.getTopInventory()).thenReturn(inventory);
+        when(view.getPlayer()).thenReturn(this.player);
+        when(view.title()).thenReturn(title);
+        return new TestMenu(this.player, viewer -> view, PAGES);
+    }
+
+    private void openMenu() {
+        when(this.player.getOpenInventory()).thenReturn(mock(InventoryView.class));
+        this.menu.open();
+    }
+
     private InventoryClickEvent clickOn(final Inventory clicked, final int slot) {
         final InventoryClickEvent event = mock(InventoryClickEvent.class);
         when(event.getClickedInventory()).thenReturn(clicked);
@@ -197,6 +243,121 @@ class SlotMenuTest {
         verify(this.manager, never()).register(any(), any());
     }
 
+    @Test
+    void transitionLoadsTheTargetIntoTheOpenViewWithoutReopening() {
+        openMenu();
+        final TestMenu target = otherMenu();
+        final InventoryView targetView = target.getBukkitView();
+
+        this.menu.transition(target);
+
+        assertEquals(1, target.reloads);
+        assertSame(this.view, target.getBukkitView(), "the target must take over the open view");
+        assertSame(targetView, this.menu.getBukkitView(), "the source must be handed the target's unused view");
+        assertTrue(target.isOpen());
+        assertFalse(this.menu.isOpen());
+        verify(this.manager).register(this.player, target);
+        verify(this.player, times(1)).openInventory(any(InventoryView.class));
+        verify(this.view, never()).setTitle(anyString());
+    }
+
+    @Test
+    void transitionOnlyWritesTheSlotsThatDiffer() {
+        openMenu();
+        final ItemStack shared = mock(ItemStack.class);
+        final ItemStack changed = mock(ItemStack.class);
+        registerSlot(this.menu, 0, shared);
+        when(this.topInventory.getItem(0)).thenReturn(shared);
+        final TestMenu target = otherMenu();
+        registerSlot(target, 0, shared);
+        registerSlot(target, 1, changed);
+        clearInvocations(this.topInventory);
+
+        this.menu.transition(target);
+
+        verify(this.topInventory).setItem(1, changed);
+        verify(this.topInventory, times(1)).setItem(anyInt(), any());
+    }
+
+    @Test
+    void transitionRejectsMenusWithAnotherTitle() {
+        openMenu();
+
+        assertThrows(IllegalArgumentException.class, () -> this.menu.transition(otherMenu(Component.text("target"))));
+        assertThrows(IllegalArgumentException.class, () -> this.menu.transition(otherMenu(Component.text("source", TextColor.color(0x12AB34)))));
+        assertTrue(this.menu.isOpen());
+    }
+
+    @Test
+    void openChildOpensAChildWithAnotherTitleInAWindowOfItsOwn() {
+        when(this.manager.getHistory()).thenReturn(new MenuHistory(4, TOP_SIZE * PAGES * 4));
+        openMenu();
+        final TestMenu child = otherMenu(Component.text("child"));
+
+        this.menu.openChild(child);
+
+        assertTrue(child.isOpen());
+        assertSame(this.view, this.menu.getBukkitView(), "the parent must keep its own view");
+        verify(this.player).openInventory(child.getBukkitView());
+        verify(this.view, never()).setTitle(anyString());
+    }
+
+    @Test
+    void transitionRejectsMenusThatAreNotOpenOrDoNotMatch() {
+        final TestMenu target = otherMenu();
+        assertThrows(IllegalStateException.class, () -> this.menu.transition(target));
+
+        openMenu();
+        when(target.getBukkitView().getTopInventory().getSize()).thenReturn(TOP_SIZE * 2);
+        assertThrows(IllegalArgumentException.class, () -> this.menu.transition(target));
+        assertThrows(IllegalArgumentException.class, () -> this.menu.transition(this.menu));
+        assertEquals(0, target.reloads);
+    }
+
+    @Test
+    void openChildSuspendsTheParentAndBackResumesItWithoutReloading() {
+        final MenuHistory history = new MenuHistory(4, TOP_SIZE * PAGES * 4);
+        when(this.manager.getHistory()).thenReturn(history);
+        openMenu();
+        final TestMenu child = otherMenu();
+
+        this.menu.openChild(child);
+
+        assertTrue(child.isOpen());
+        assertEquals(1, history.depth(this.playerId));
+
+        assertTrue(child.back());
+
+        assertTrue(this.menu.isOpen());
+        assertFalse(this.menu.suspended);
+        assertEquals(1, this.menu.reloads, "going back must resume the parent rather than reload it");
+        assertEquals(0, history.depth(this.playerId));
+        assertFalse(this.menu.back());
+    }
+
+    @Test
+    void menusLeftThroughTransitionOrBackHandTheirArraysBackToThePool() {
+        final PagedArrayPool pool = new PagedArrayPool(4);
+        this.managerStatics.when(SlotMenuManager::isInitialized).thenReturn(true);
+        when(this.manager.getArrayPool()).thenReturn(pool);
+        when(this.manager.getHistory()).thenReturn(new MenuHistory(4, TOP_SIZE * PAGES * 4));
+        this.menu = new TestMenu(this.player, viewer -> this.view, PAGES);
+        openMenu();
+        final TestMenu child = otherMenu();
+        final TestMenu sibling = otherMenu();
+
+        this.menu.openChild(child);
+        assertFalse(this.menu.getInventory().isReleased(), "a suspended menu must keep its arrays");
+
+        child.transition(sibling);
+        assertTrue(child.getInventory().isReleased());
+
+        assertTrue(sibling.back());
+        assertTrue(sibling.getInventory().isReleased());
+        assertFalse(this.menu.getInventory().isReleased());
+        assertEquals(2, pool.size());
+    }
+
     /**
      * Minimal concrete menu that records how often it was reloaded.
      */
@@ -0,0 +1,69 @@
+package sh.miles.menukit.slot;
+
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link Animation}.
+ */
+class AnimationTest {
+
+    private ItemStack stack() {
+        final ItemStack stack = mock(ItemStack.class);
+        when(stack.clone()).thenReturn(stack);
+        return stack;
+    }
+
+    @Test
+    void ofRejectsBadArguments() {
+        assertThrows(IllegalArgumentException.class, () -> Animation.of(0, stack()));
+        assertThrows(IllegalArgumentException.class, () -> Animation.of(1));
+    }
+
+    @Test
+    void framesAdvanceOncePerPeriodAndWrapAround() {
+        final ItemStack first = stack();
+        final ItemStack second = stack();
+        final Animation animation = Animation.of(5, first, second);
+
+        assertSame(first, animation.frameAt(0));
+        assertSame(first, animation.frameAt(4));
+        assertSame(second, animation.frameAt(5));
+        assertSame(first, animation.frameAt(10));
+    }
+
+    @Test
+    void advancesOnlyOnPeriodBoundaries() {
+        final Animation animation = Animation.of(5, stack(), stack());
+
+        assertTrue(animation.advancesAt(10));
+        assertFalse(animation.advancesAt(11));
+    }
+
+    @Test
+    void aSingleFrameNeverAdvances() {
+        assertFalse(Animation.of(1, stack()).advancesAt(1));
+    }
+
+    @Test
+    void generateBuildsEveryFrameUpFront() {
+        final int[] calls = {0};
+
+        final Animation animation = Animation.generate(4, 2, (frame) -> {
+            calls[0]++;
+            return stack();
+        });
+        animation.frameAt(100);
+
+        assertEquals(4, calls[0]);
+        assertEquals(4, animation.getFrameCount());
+    }
+}
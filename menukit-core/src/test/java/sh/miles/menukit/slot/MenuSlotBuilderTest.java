@@ -13,12 +13,16 @@ import org.mockito.MockedStatic;
 import sh.miles.menukit.menu.MenuEventCallback;
 import sh.miles.menukit.util.PagedInventory;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -79,6 +83,7 @@ class MenuSlotBuilderTest {
 
         assertThrows(IllegalArgumentException.class, () -> builder.inventory(null));
         assertThrows(IllegalArgumentException.class, () -> builder.content(null));
+        assertThrows(IllegalArgumentException.class, () -> builder.sharedContent(null));
         assertThrows(IllegalArgumentException.class, () -> builder.click(null));
         assertThrows(IllegalArgumentException.class, () -> builder.drag(null));
     }
@@ -119,6 +124,29 @@ class MenuSlotBuilderTest {
         assertTrue(slot.hasContent());
     }
 
+    @Test
+    void contentIsCopiedIntoTheSlot() {
+        final ItemStack item = mock(ItemStack.class);
+        when(item.clone()).thenReturn(this.content);
+
+        final MenuSlot slot = MenuSlot.builder().inventory(this.paged).index(4).page(1).content(item).build();
+
+        assertSame(this.content, slot.getContent());
+        verify(item).clone();
+    }
+
+    @Test
+    void sharedContentIsStoredWithoutACopy() {
+        final ItemStack shared = mock(ItemStack.class);
+        when(shared.clone()).thenReturn(this.content);
+
+        final MenuSlot first = MenuSlot.builder().inventory(this.paged).index(4).page(1).sharedContent(shared).build();
+        MenuSlot.builder().inventory(this.paged).index(5).page(1).sharedContent(shared).build();
+
+        verify(shared, never()).clone();
+        assertSame(this.content, first.getContent(), "reads still hand out a copy of the shared item");
+    }
+
     @Test
     void contentDefaultsToAnEmptyStack() {
         final MenuSlot slot = MenuSlot.builder().inventory(this.paged).index(0).page(0).build();
@@ -214,4 +242,67 @@ class MenuSlotBuilderTest {
 
         verify(click).cancel();
     }
+
+    @Test
+    void lazyContentIsNotRenderedForAHiddenPage() {
+        final AtomicInteger renders = new AtomicInteger();
+
+        MenuSlot.builder().inventory(this.paged).index(4).page(1).lazyContent(() -> {
+            renders.incrementAndGet();
+            return this.content;
+        }).build();
+
+        assertEquals(0, renders.get(), "a slot on a page nobody is looking at must not be rendered");
+    }
+
+    @Test
+    void lazyContentIsRenderedOnceItsPageIsShownAndThenCached() {
+        final AtomicInteger renders = new AtomicInteger();
+        final MenuSlot slot = MenuSlot.builder().inventory(this.paged).index(4).page(1).lazyContent(() -> {
+            renders.incrementAndGet();
+            return this.content;
+        }).build();
+
+        this.paged.setCurrentPage(1);
+        slot.getContent();
+
+        assertEquals(1, renders.get());
+        verify(this.inventory).setItem(4, this.content);
+    }
+
+    @Test
+    void invalidateRendersAShowingSlotAgain() {
+        final AtomicInteger renders = new AtomicInteger();
+        final MenuSlot slot = MenuSlot.builder().inventory(this.paged).index(4).page(0).lazyContent(() -> {
+            renders.incrementAndGet();
+            return this.content;
+        }).build();
+
+        slot.invalidate();
+
+        assertEquals(2, renders.get());
+        verify(this.inventory, times(2)).setItem(4, this.content);
+    }
+
+    @Test
+    void setContentReplacesTheContentSupplier() {
+        final MenuSlot slot = MenuSlot.builder().inventory(this.paged).index(4).page(1).lazyContent(() -> {
+            throw new AssertionError("the replaced supplier must not run");
+        }).build();
+
+        slot.setContent(this.content);
+        slot.invalidate();
+
+        assertSame(this.content, slot.getContent());
+    }
+
+    @Test
+    void builtSlotsRelocateButOtherSlotsDoNotByDefault() {
+        final MenuSlot slot = MenuSlot.builder().inventory(this.paged).index(0).page(0).content(this.content).build();
+
+        final MenuSlot copy = slot.relocate(this.paged, 1, 2);
+
+        assertSame(copy, this.paged.getSlot(1, 2));
+        assertThrows(UnsupportedOperationException.class, () -> MenuSlot.DUMMY.relocate(this.paged, 0, 0));
+    }
 }
@@ -0,0 +1,91 @@
+package sh.miles.menukit.state;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import sh.miles.menukit.slot.MenuSlot;
+
+import java.lang.ref.WeakReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link InvalidationIndex}.
+ *
+ * <p>The index is process wide, so it is scrubbed after every test.
+ */
+class InvalidationIndexTest {
+
+    @AfterEach
+    void tearDown() {
+        InvalidationIndex.INSTANCE.clear();
+    }
+
+    @Test
+    void invalidateOnlyReachesSlotsFiledUnderThatKey() {
+        final MenuSlot diamond = mock(MenuSlot.class);
+        final MenuSlot emerald = mock(MenuSlot.class);
+        InvalidationIndex.INSTANCE.register("price:diamond", diamond);
+        InvalidationIndex.INSTANCE.register("price:emerald", emerald);
+
+        InvalidationIndex.INSTANCE.invalidate("price:diamond");
+
+        verify(diamond).invalidate();
+        verify(emerald, never()).invalidate();
+    }
+
+    @Test
+    void aSlotCanBeFiledUnderSeveralKeys() {
+        final MenuSlot slot = mock(MenuSlot.class);
+        InvalidationIndex.INSTANCE.register("price:diamond", slot);
+        InvalidationIndex.INSTANCE.register("stock:diamond", slot);
+
+        InvalidationIndex.INSTANCE.invalidate("stock:diamond");
+
+        verify(slot).invalidate();
+        assertEquals(1, InvalidationIndex.INSTANCE.count("price:diamond"));
+    }
+
+    @Test
+    void invalidatingAnUnknownKeyDoesNothing() {
+        InvalidationIndex.INSTANCE.invalidate("price:nothing");
+
+        assertEquals(0, InvalidationIndex.INSTANCE.count("price:nothing"));
+    }
+
+    @Test
+    void keysWhoseSlotsWereCollectedAreSweptWhileRegistering() {
+        final WeakReference<MenuSlot> collected = registerUnreachable("price:gone");
+        for (int attempt = 0; attempt < 20 && collected.get() != null; attempt++) {
+            System.gc();
+        }
+        assumeTrue(collected.get() == null, "the slot was not garbage collected");
+
+        final MenuSlot kept = mock(MenuSlot.class);
+        for (int index = 0; index < 64; index++) {
+            InvalidationIndex.INSTANCE.register("price:" + index, kept);
+        }
+
+        assertEquals(64, InvalidationIndex.INSTANCE.size(), "the emptied key must have been swept");
+    }
+
+    @Test
+    void sweepingKeepsKeysWithLiveSlots() {
+        final MenuSlot slot = mock(MenuSlot.class);
+        InvalidationIndex.INSTANCE.register("price:diamond", slot);
+
+        InvalidationIndex.INSTANCE.sweep();
+
+        assertEquals(1, InvalidationIndex.INSTANCE.size());
+        assertEquals(1, InvalidationIndex.INSTANCE.count("price:diamond"));
+    }
+
+    private static WeakReference<MenuSlot> registerUnreachable(final String key) {
+        final MenuSlot slot = mock(MenuSlot.class);
+        InvalidationIndex.INSTANCE.register(key, slot);
+        return new WeakReference<>(slot);
+    }
+}
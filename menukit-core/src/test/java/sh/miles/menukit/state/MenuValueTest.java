@@ -0,0 +1,114 @@
+package sh.miles.menukit.state;
+
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import sh.miles.menukit.slot.MenuSlot;
+import sh.miles.menukit.util.PagedInventory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link MenuValue} and the slots bound to it.
+ *
+ * <p>MenuKit is never started here, so a showing slot is repainted as soon as it is invalidated rather than on the next
+ * tick.
+ */
+class MenuValueTest {
+
+    private MockedStatic<ItemStack> itemStackStatics;
+    private PagedInventory paged;
+    private List<Integer> renders;
+
+    @BeforeEach
+    void setUp() {
+        final ItemStack empty = stack();
+        this.itemStackStatics = mockStatic(ItemStack.class);
+        this.itemStackStatics.when(ItemStack::empty).thenReturn(empty);
+
+        final Inventory inventory = mock(Inventory.class);
+        when(inventory.getSize()).thenReturn(9);
+        this.paged = new PagedInventory(inventory, 2);
+        this.renders = new ArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.itemStackStatics.close();
+    }
+
+    private ItemStack stack() {
+        final ItemStack stack = mock(ItemStack.class);
+        when(stack.clone()).thenReturn(stack);
+        return stack;
+    }
+
+    private MenuSlot boundSlot(final int page, final MenuValue<Integer> value) {
+        final ItemStack content = stack();
+        return MenuSlot.builder().inventory(this.paged).page(page).index(0).bind(value).lazyContent(() -> {
+            this.renders.add(value.get());
+            return content;
+        }).build();
+    }
+
+    @Test
+    void ofRejectsNull() {
+        assertThrows(IllegalArgumentException.class, () -> MenuValue.of(null));
+    }
+
+    @Test
+    void changingTheValueRendersAShowingSlotAgain() {
+        final MenuValue<Integer> balance = MenuValue.of(10);
+        boundSlot(0, balance);
+
+        balance.set(25);
+
+        assertEquals(List.of(10, 25), this.renders);
+    }
+
+    @Test
+    void settingAnEqualValueDoesNothing() {
+        final MenuValue<Integer> balance = MenuValue.of(10);
+        boundSlot(0, balance);
+
+        balance.set(10);
+
+        assertEquals(List.of(10), this.renders);
+    }
+
+    @Test
+    void hiddenSlotsAreNotRenderedUntilShown() {
+        final MenuValue<Integer> balance = MenuValue.of(10);
+        boundSlot(1, balance);
+
+        balance.update(value -> value + 1);
+        balance.update(value -> value + 1);
+
+        assertEquals(List.of(), this.renders, "a slot on a hidden page must cost nothing when its value changes");
+
+        this.paged.setCurrentPage(1);
+
+        assertEquals(List.of(12), this.renders);
+    }
+
+    @Test
+    void unboundSlotsAreLeftAlone() {
+        final MenuValue<Integer> balance = MenuValue.of(10);
+        final MenuSlot slot = boundSlot(0, balance);
+
+        balance.unbind(slot);
+        balance.set(11);
+
+        assertEquals(List.of(10), this.renders);
+    }
+}
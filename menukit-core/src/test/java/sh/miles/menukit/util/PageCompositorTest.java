@@ -0,0 +1,230 @@
+package sh.miles.menukit.util;
+
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import sh.miles.menukit.slot.MenuSlot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link PageCompositor}, focused on only ever repainting the slots whose winning layer changed.
+ */
+class PageCompositorTest {
+
+    private static final int SIZE = 3;
+    private static final int BACKGROUND = 0;
+    private static final int CONTENT = 1;
+    private static final int OVERLAY = 2;
+
+    private MockedStatic<ItemStack> itemStackStatics;
+    private ItemStack empty;
+    private Inventory inventory;
+    private PagedInventory paged;
+
+    @BeforeEach
+    void setUp() {
+        this.empty = mock(ItemStack.class);
+        this.itemStackStatics = mockStatic(ItemStack.class);
+        this.itemStackStatics.when(ItemStack::empty).thenReturn(this.empty);
+
+        this.inventory = mock(Inventory.class);
+        when(this.inventory.getSize()).thenReturn(SIZE);
+        this.paged = new PagedInventory(this.inventory, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.itemStackStatics.close();
+    }
+
+    private MenuSlot slot(final int page, final int index) {
+        final MenuSlot slot = mock(MenuSlot.class);
+        when(slot.getPage()).thenReturn(page);
+        when(slot.getSlot()).thenReturn(index);
+        when(slot.getContent()).thenReturn(mock(ItemStack.class));
+        this.paged.setItem(slot);
+        return slot;
+    }
+
+    private PageCompositor compositor() {
+        final PageCompositor compositor = new PageCompositor(this.paged, BACKGROUND, CONTENT, OVERLAY);
+        compositor.composite();
+        clearInvocations(this.inventory);
+        return compositor;
+    }
+
+    @Test
+    void constructorRejectsLayersOutsideTheInventory() {
+        assertThrows(IllegalArgumentException.class, () -> new PageCompositor(this.paged, 0, 3));
+        assertThrows(IllegalArgumentException.class, () -> new PageCompositor(this.paged, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new PageCompositor(this.paged));
+    }
+
+    @Test
+    void theTopmostLayerHoldingASlotWins() {
+        slot(BACKGROUND, 0);
+        slot(CONTENT, 0);
+        slot(OVERLAY, 0);
+        slot(BACKGROUND, 1);
+        slot(CONTENT, 1);
+        slot(BACKGROUND, 2);
+
+        compositor();
+
+        assertEquals(OVERLAY, this.paged.getCurrentPage(0));
+        assertEquals(CONTENT, this.paged.getCurrentPage(1));
+        assertEquals(BACKGROUND, this.paged.getCurrentPage(2));
+    }
+
+    @Test
+    void hidingALayerOnlyRepaintsTheSlotsItWasWinning() {
+        slot(BACKGROUND, 0);
+        slot(BACKGROUND, 1);
+        final MenuSlot beneath = slot(CONTENT, 1);
+        slot(OVERLAY, 1);
+        final PageCompositor compositor = compositor();
+
+        compositor.hide(OVERLAY);
+
+        assertFalse(compositor.isShown(OVERLAY));
+        assertEquals(CONTENT, this.paged.getCurrentPage(1));
+        verify(this.inventory).setItem(1, beneath.getContent());
+        verify(this.inventory, never()).setItem(eq(0), any());
+        verify(this.inventory, never()).setItem(eq(2), any());
+    }
+
+    @Test
+    void showingALayerAgainRestoresItsSlots() {
+        slot(BACKGROUND, 1);
+        final MenuSlot overlay = slot(OVERLAY, 1);
+        final PageCompositor compositor = compositor();
+        compositor.hide(OVERLAY);
+        clearInvocations(this.inventory);
+
+        compositor.show(OVERLAY);
+
+        assertTrue(compositor.isShown(OVERLAY));
+        assertEquals(OVERLAY, this.paged.getCurrentPage(1));
+        verify(this.inventory).setItem(1, overlay.getContent());
+    }
+
+    @Test
+    void showingAShownLayerDoesNothing() {
+        slot(OVERLAY, 1);
+        final PageCompositor compositor = compositor();
+
+        compositor.show(OVERLAY);
+
+        verify(this.inventory, never()).setItem(anyInt(), any());
+    }
+
+    @Test
+    void aSlotNoShownLayerClaimsIsShownEmpty() {
+        slot(OVERLAY, 2);
+        final PageCompositor compositor = compositor();
+
+        compositor.hide(OVERLAY);
+
+        assertEquals(BACKGROUND, this.paged.getCurrentPage(2));
+        verify(this.inventory).setItem(2, this.empty);
+    }
+
+    @Test
+    void hidingTheBottomLayerEmptiesTheSlotsOnlyItClaims() {
+        slot(BACKGROUND, 0);
+        slot(BACKGROUND, 1);
+        slot(CONTENT, 1);
+        final PageCompositor compositor = compositor();
+
+        compositor.hide(BACKGROUND);
+
+        assertSame(MenuSlot.DUMMY, this.paged.getSlot(0), "a hidden bottom layer must not keep showing its slots");
+        verify(this.inventory).setItem(0, this.empty);
+        assertEquals(CONTENT, this.paged.getCurrentPage(1));
+        verify(this.inventory, never()).setItem(eq(1), any());
+    }
+
+    @Test
+    void aSlotEveryPageHoldsCanNotBeShownEmpty() {
+        slot(BACKGROUND, 0);
+        slot(CONTENT, 0);
+        slot(OVERLAY, 0);
+        final PageCompositor compositor = compositor();
+        compositor.hide(OVERLAY);
+        compositor.hide(CONTENT);
+
+        assertThrows(IllegalStateException.class, () -> compositor.hide(BACKGROUND));
+    }
+
+    @Test
+    void removingTheWinningSlotUncoversTheLayerBeneath() {
+        final MenuSlot beneath = slot(BACKGROUND, 0);
+        slot(CONTENT, 0);
+        final PageCompositor compositor = compositor();
+
+        compositor.removeItem(CONTENT, 0);
+
+        assertEquals(BACKGROUND, this.paged.getCurrentPage(0));
+        verify(this.inventory).setItem(0, beneath.getContent());
+    }
+
+    @Test
+    void removingTheWinningSlotWritesOnce() {
+        slot(BACKGROUND, 0);
+        slot(CONTENT, 0);
+        final PageCompositor compositor = compositor();
+
+        compositor.removeItem(CONTENT, 0);
+
+        verify(this.inventory, times(1)).setItem(eq(0), any());
+    }
+
+    @Test
+    void removingTheOnlySlotWritesTheEmptySlotOnce() {
+        slot(BACKGROUND, 0);
+        final PageCompositor compositor = compositor();
+
+        compositor.removeItem(BACKGROUND, 0);
+
+        verify(this.inventory, times(1)).setItem(0, this.empty);
+    }
+
+    @Test
+    void compositeOnlyResolvesMarkedSlots() {
+        final PageCompositor compositor = compositor();
+        slot(CONTENT, 0);
+        slot(CONTENT, 1);
+
+        compositor.markDirty(0);
+        compositor.composite();
+
+        assertEquals(CONTENT, this.paged.getCurrentPage(0));
+        assertEquals(BACKGROUND, this.paged.getCurrentPage(1), "slot 1 was never marked, so it must not be resolved");
+    }
+
+    @Test
+    void layerOperationsRejectPagesThatAreNotLayers() {
+        final PageCompositor compositor = new PageCompositor(this.paged, BACKGROUND, OVERLAY);
+
+        assertThrows(IllegalArgumentException.class, () -> compositor.hide(CONTENT));
+        assertThrows(IllegalArgumentException.class, () -> compositor.removeItem(CONTENT, 0));
+    }
+}
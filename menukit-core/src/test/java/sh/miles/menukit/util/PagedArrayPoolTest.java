@@ -0,0 +1,77 @@
+package sh.miles.menukit.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link PagedArrayPool}, focused on recycled arrays coming back clean and released arrays staying dead.
+ */
+class PagedArrayPoolTest {
+
+    @Test
+    void constructorRejectsALimitThatIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new PagedArrayPool(0));
+    }
+
+    @Test
+    void releasedArraysAreHandedOutAgainCleared() {
+        final PagedArrayPool pool = new PagedArrayPool(4);
+        final PagedArray<String> first = pool.acquire(9, 2);
+        first.set(1, 3, "value");
+        first.setCurrentPageFor(1, 3);
+
+        pool.release(first);
+        assertEquals(1, pool.size());
+        final PagedArray<String> second = pool.acquire(9, 2);
+
+        assertEquals(0, pool.size());
+        assertNull(second.get(1, 3));
+        assertEquals(0, second.getCurrentPage(3));
+        assertEquals(9, second.getPageSize());
+        assertEquals(2, second.getPages());
+    }
+
+    @Test
+    void onlyArraysOfTheSameShapeAreReused() {
+        final PagedArrayPool pool = new PagedArrayPool(4);
+        pool.release(pool.acquire(9, 2));
+
+        pool.acquire(9, 3);
+        pool.acquire(18, 2);
+
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    void usingAnArrayAfterReleasingItFails() {
+        final PagedArrayPool pool = new PagedArrayPool(4);
+        final PagedArray<String> array = pool.acquire(9, 1);
+
+        pool.release(array);
+
+        assertTrue(array.isReleased());
+        assertThrows(IllegalStateException.class, () -> array.get(0));
+        assertThrows(IllegalStateException.class, () -> array.set(0, 0, "late"));
+        assertThrows(IllegalStateException.class, () -> array.setCurrentPage(0));
+        assertThrows(IllegalStateException.class, () -> pool.release(array));
+    }
+
+    @Test
+    void releasesPastTheLimitAreDropped() {
+        final PagedArrayPool pool = new PagedArrayPool(1);
+        final PagedArray<String> first = pool.acquire(9, 1);
+        final PagedArray<String> second = pool.acquire(9, 1);
+
+        pool.release(first);
+        pool.release(second);
+
+        assertEquals(1, pool.size());
+        assertTrue(second.isReleased());
+        assertFalse(pool.acquire(9, 1).isReleased());
+    }
+}
@@ -8,9 +8,14 @@ import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 import sh.miles.menukit.slot.MenuSlot;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
@@ -18,6 +23,7 @@ import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -255,4 +261,156 @@ class PagedInventoryTest {
         assertEquals(1, this.paged.getCurrentPage(0));
         assertEquals(0, this.paged.getCurrentPage(2), "slot 2 was not listed, so it must not move");
     }
+
+    @Test
+    void setPageLoaderLoadsTheShowingPageRightAway() {
+        final List<Integer> loaded = new ArrayList<>();
+
+        this.paged.setPageLoader(loaded::add);
+
+        assertEquals(List.of(0), loaded);
+        assertTrue(this.paged.isPageLoaded(0));
+        assertFalse(this.paged.isPageLoaded(1));
+    }
+
+    @Test
+    void setCurrentPageLoadsAPageOnceBeforeWritingIt() {
+        final MenuSlot item = slot(1, 0, true);
+        final List<Integer> loaded = new ArrayList<>();
+        this.paged.setPageLoader((page) -> {
+            loaded.add(page);
+            if (page == 1) {
+                this.paged.setItem(item);
+            }
+        });
+
+        this.paged.setCurrentPage(1);
+        this.paged.setCurrentPage(0);
+        this.paged.setCurrentPage(1);
+
+        assertEquals(List.of(0, 1), loaded);
+        assertSame(item, this.paged.getSlot(1, 0));
+        verify(this.inventory, times(2)).setItem(0, item.getContent());
+    }
+
+    @Test
+    void setPageWithFallbackLoadsThePageBeforeCheckingIt() {
+        this.paged.setPageLoader((page) -> {
+            if (page == 1) {
+                this.paged.setItem(slot(1, 0, true));
+            }
+        });
+
+        this.paged.setPageWithFallback(1, 0);
+
+        assertEquals(1, this.paged.getCurrentPage(0), "the slot only exists once page 1 is loaded");
+        assertEquals(0, this.paged.getCurrentPage(1));
+    }
+
+    @Test
+    void thePageLoaderIsDroppedOnceEveryPageIsLoaded() {
+        final List<Integer> loaded = new ArrayList<>();
+        this.paged.setPageLoader(loaded::add);
+
+        this.paged.setCurrentPage(1);
+        this.paged.setCurrentPage(2);
+        this.paged.setCurrentPage(1);
+
+        assertEquals(List.of(0, 1, 2), loaded);
+        assertTrue(this.paged.isPageLoaded(2));
+    }
+
+    @Test
+    void aPageWhoseLoaderThrowsIsLoadedAgainTheNextTimeItIsShown() {
+        final List<Integer> loaded = new ArrayList<>();
+        final boolean[] fail = {true};
+        this.paged.setPageLoader((page) -> {
+            loaded.add(page);
+            if (page == 1 && fail[0]) {
+                throw new IllegalStateException("the page could not be loaded");
+            }
+        });
+
+        assertThrows(IllegalStateException.class, () -> this.paged.setCurrentPage(1));
+        assertFalse(this.paged.isPageLoaded(1));
+
+        fail[0] = false;
+        this.paged.setCurrentPage(1);
+
+        assertEquals(List.of(0, 1, 1), loaded);
+        assertTrue(this.paged.isPageLoaded(1));
+    }
+
+    @Test
+    void theLastPageFailingToLoadKeepsThePageLoader() {
+        final List<Integer> loaded = new ArrayList<>();
+        this.paged.setPageLoader((page) -> {
+            loaded.add(page);
+            if (page == 2 && loaded.size() == 3) {
+                throw new IllegalStateException("the page could not be loaded");
+            }
+        });
+        this.paged.setCurrentPage(1);
+
+        assertThrows(IllegalStateException.class, () -> this.paged.setCurrentPage(2));
+        this.paged.setCurrentPage(2);
+
+        assertEquals(List.of(0, 1, 2, 2), loaded);
+        assertTrue(this.paged.isPageLoaded(2));
+    }
+
+    @Test
+    void setItemsFilesEveryItemAndWritesOnlyTheShowingOnes() {
+        final MenuSlot showing = slot(0, 0, true);
+        final MenuSlot hidden = slot(1, 1, true);
+
+        this.paged.setItems(List.of(showing, hidden));
+
+        assertSame(showing, this.paged.getSlot(0, 0));
+        assertSame(hidden, this.paged.getSlot(1, 1));
+        verify(this.inventory).setItem(0, showing.getContent());
+        verify(this.inventory, never()).setItem(eq(1), any());
+    }
+
+    @Test
+    void setItemsRemovesTheGivenSlotsAndEmptiesOnlyThePositionsLeftEmpty() {
+        final MenuSlot removed = slot(0, 0, true);
+        final MenuSlot replaced = slot(0, 1, true);
+        final MenuSlot replacement = slot(0, 1, true);
+        this.paged.setItem(removed);
+        this.paged.setItem(replaced);
+        clearInvocations(this.inventory);
+
+        this.paged.setItems(List.of(replacement), List.of(removed, replaced));
+
+        assertSame(MenuSlot.DUMMY, this.paged.getSlot(0, 0));
+        assertSame(replacement, this.paged.getSlot(0, 1));
+        verify(this.inventory).setItem(0, this.empty);
+        verify(this.inventory, never()).setItem(1, this.empty);
+        verify(this.inventory).setItem(1, replacement.getContent());
+    }
+
+    @Test
+    void setItemsWritesOnlyTheLastItemForTheSameSlot() {
+        final MenuSlot first = slot(0, 0, true);
+        final MenuSlot second = slot(0, 0, true);
+
+        this.paged.setItems(List.of(first, second));
+
+        verify(this.inventory, never()).setItem(0, first.getContent());
+        verify(this.inventory).setItem(0, second.getContent());
+    }
+
+    @Test
+    void replacePageLoaderKeepsTheLoadedPages() {
+        final List<Integer> loaded = new ArrayList<>();
+        this.paged.setPageLoader((page) -> {
+        });
+
+        this.paged.replacePageLoader(loaded::add);
+        this.paged.setCurrentPage(0);
+        this.paged.setCurrentPage(1);
+
+        assertEquals(List.of(1), loaded, "page 0 was already loaded by the replaced loader");
+    }
 }
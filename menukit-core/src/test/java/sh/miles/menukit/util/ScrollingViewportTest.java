@@ -0,0 +1,220 @@
+package sh.miles.menukit.util;
+
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import sh.miles.menukit.slot.MenuSlot;
+import sh.miles.menukit.state.InvalidationIndex;
+import sh.miles.menukit.state.MenuValue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link ScrollingViewport}, focused on only rendering the cells that scroll into view.
+ */
+class ScrollingViewportTest {
+
+    private static final int SIZE = 9;
+    private static final int COLUMNS = 3;
+    private static final int CELLS = 12;
+
+    private MockedStatic<ItemStack> itemStackStatics;
+    private ItemStack[] stacks;
+    private List<Integer> rendered;
+    private Inventory inventory;
+    private PagedInventory paged;
+
+    @BeforeEach
+    void setUp() {
+        final ItemStack empty = stack();
+        this.itemStackStatics = mockStatic(ItemStack.class);
+        this.itemStackStatics.when(ItemStack::empty).thenReturn(empty);
+
+        this.stacks = new ItemStack[CELLS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            this.stacks[cell] = stack();
+        }
+        this.rendered = new ArrayList<>();
+
+        this.inventory = mock(Inventory.class);
+        when(this.inventory.getSize()).thenReturn(SIZE);
+        this.paged = new PagedInventory(this.inventory, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.itemStackStatics.close();
+        InvalidationIndex.INSTANCE.clear();
+    }
+
+    /**
+     * Builds an item stack mock that clones to itself, so that the defensive copying inside menu slots stays invisible
+     * to identity assertions.
+     *
+     * @return the mocked stack
+     */
+    private ItemStack stack() {
+        final ItemStack stack = mock(ItemStack.class);
+        when(stack.clone()).thenReturn(stack);
+        return stack;
+    }
+
+    private ScrollingViewport viewport(final int cells) {
+        final ScrollingViewport viewport = new ScrollingViewport(this.paged, 0, COLUMNS, cells, (cell, builder) -> {
+            this.rendered.add(cell);
+            builder.content(this.stacks[cell]);
+        });
+        viewport.render();
+        return viewport;
+    }
+
+    @Test
+    void constructorRejectsAColumnCountThatDoesNotDivideThePage() {
+        assertThrows(IllegalArgumentException.class, () -> new ScrollingViewport(this.paged, 0, 4, CELLS, (cell, builder) -> {
+        }));
+    }
+
+    @Test
+    void renderMaterializesEveryCellInView() {
+        viewport(CELLS);
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8), this.rendered);
+    }
+
+    @Test
+    void scrollingDownOnlyRendersTheExposedRow() {
+        final ScrollingViewport viewport = viewport(CELLS);
+        this.rendered.clear();
+
+        assertTrue(viewport.scroll(1));
+
+        assertEquals(List.of(9, 10, 11), this.rendered);
+        assertSame(this.stacks[3], this.paged.getSlot(0, 0).getContent(), "the second row must have shifted to the top");
+        assertSame(this.stacks[11], this.paged.getSlot(0, 8).getContent());
+    }
+
+    @Test
+    void scrollingUpOnlyRendersTheExposedRow() {
+        final ScrollingViewport viewport = viewport(CELLS);
+        viewport.scrollTo(1);
+        this.rendered.clear();
+
+        assertTrue(viewport.scroll(-1));
+
+        assertEquals(List.of(0, 1, 2), this.rendered);
+        assertSame(this.stacks[8], this.paged.getSlot(0, 8).getContent(), "the middle row must have shifted to the bottom");
+    }
+
+    @Test
+    void scrollingShiftsTheShownItemsAndOnlyWritesTheExposedRow() {
+        final ScrollingViewport viewport = viewport(CELLS);
+        final ItemStack shown = stack();
+        when(this.inventory.getItem(3)).thenReturn(shown);
+        clearInvocations(this.inventory);
+        clearInvocations((Object[]) this.stacks);
+
+        viewport.scroll(1);
+
+        verify(this.inventory).setItem(0, shown);
+        for (int cell = 3; cell < 9; cell++) {
+            verify(this.stacks[cell], never()).clone();
+        }
+        verify(this.inventory).setItem(6, this.stacks[9]);
+        verify(this.inventory).setItem(7, this.stacks[10]);
+        verify(this.inventory).setItem(8, this.stacks[11]);
+    }
+
+    @Test
+    void aSlotThatCanNotBeRelocatedIsRenderedAgainWhereItScrollsTo() {
+        final ScrollingViewport viewport = viewport(CELLS);
+        final MenuSlot fixed = mock(MenuSlot.class);
+        when(fixed.getPage()).thenReturn(0);
+        when(fixed.getSlot()).thenReturn(3);
+        when(fixed.relocate(any(), anyInt(), anyInt())).thenThrow(new UnsupportedOperationException());
+        this.paged.setItem(fixed);
+        this.rendered.clear();
+
+        viewport.scroll(1);
+
+        assertEquals(List.of(3, 9, 10, 11), this.rendered);
+        assertSame(this.stacks[3], this.paged.getSlot(0, 0).getContent());
+    }
+
+    @Test
+    void scrollingIsClampedToTheGrid() {
+        final ScrollingViewport viewport = viewport(CELLS);
+
+        viewport.scroll(5);
+
+        assertEquals(1, viewport.getOffset());
+        assertFalse(viewport.scroll(1));
+        assertTrue(viewport.scrollTo(-3));
+        assertEquals(0, viewport.getOffset());
+    }
+
+    @Test
+    void cellsPastTheEndOfTheGridAreLeftEmpty() {
+        final ScrollingViewport viewport = viewport(CELLS - 2);
+
+        viewport.scroll(1);
+
+        assertSame(this.stacks[9], this.paged.getSlot(0, 6).getContent());
+        assertSame(MenuSlot.DUMMY, this.paged.getSlot(0, 7));
+        assertSame(MenuSlot.DUMMY, this.paged.getSlot(0, 8));
+    }
+
+    @Test
+    void refreshRendersOnlyACellInView() {
+        final ScrollingViewport viewport = viewport(CELLS);
+        this.rendered.clear();
+
+        viewport.refresh(11);
+        viewport.refresh(4);
+
+        assertEquals(List.of(4), this.rendered);
+    }
+
+    @Test
+    void aBoundCellKeepsRepaintingAfterScrolling() {
+        final MenuValue<Integer> price = MenuValue.of(1);
+        final ScrollingViewport viewport = new ScrollingViewport(this.paged, 0, COLUMNS, CELLS, (cell, builder) -> builder.bind(price).lazyContent(() -> {
+            this.rendered.add(cell);
+            return this.stacks[cell];
+        }));
+        viewport.render();
+        viewport.scroll(1);
+        this.rendered.clear();
+
+        price.set(2);
+
+        assertEquals(List.of(3, 4, 5, 6, 7, 8, 9, 10, 11), this.rendered.stream().sorted().toList(), "every cell on screen must repaint, and only those");
+    }
+
+    @Test
+    void keyedCellsThatScrollOutOfViewLeaveTheIndex() {
+        final ScrollingViewport viewport = new ScrollingViewport(this.paged, 0, COLUMNS, CELLS, (cell, builder) -> builder.keys("cell").content(this.stacks[cell]));
+        viewport.render();
+
+        viewport.scroll(1);
+
+        assertEquals(SIZE, InvalidationIndex.INSTANCE.count("cell"));
+    }
+}
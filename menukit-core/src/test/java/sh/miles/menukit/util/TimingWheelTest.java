@@ -0,0 +1,131 @@
+package sh.miles.menukit.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link TimingWheel}.
+ */
+class TimingWheelTest {
+
+    private static final int WHEEL_SIZE = 8;
+
+    private void advance(final TimingWheel wheel, final int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            wheel.tick();
+        }
+    }
+
+    @Test
+    void constructorRejectsSizesThatAreNotPowersOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel(0));
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel(6));
+    }
+
+    @Test
+    void aTimerRunsOnExactlyTheTickItIsDue() {
+        final TimingWheel wheel = new TimingWheel(WHEEL_SIZE);
+        final List<Long> ran = new ArrayList<>();
+        wheel.schedule(3, () -> ran.add(wheel.getCurrentTick()));
+
+        advance(wheel, 10);
+
+        assertEquals(List.of(3L), ran);
+    }
+
+    @Test
+    void timersDueBeyondOneRevolutionWaitOutTheExtraRounds() {
+        final TimingWheel wheel = new TimingWheel(WHEEL_SIZE);
+        final List<Long> ran = new ArrayList<>();
+        wheel.schedule(WHEEL_SIZE * 2 + 1, () -> ran.add(wheel.getCurrentTick()));
+        wheel.schedule(WHEEL_SIZE, () -> ran.add(wheel.getCurrentTick()));
+
+        advance(wheel, WHEEL_SIZE * 3);
+
+        assertEquals(List.of((long) WHEEL_SIZE, WHEEL_SIZE * 2L + 1), ran);
+    }
+
+    @Test
+    void aTaskThatThrowsDoesNotStopTheRestOfItsBucket() {
+        final TimingWheel wheel = new TimingWheel(WHEEL_SIZE);
+        final List<String> ran = new ArrayList<>();
+        wheel.schedule(2, () -> ran.add("first"));
+        wheel.schedule(2, () -> {
+            throw new IllegalStateException("failing task");
+        });
+        wheel.schedule(2, () -> ran.add("last"));
+
+        advance(wheel, 2);
+
+        assertEquals(List.of("last", "first"), ran);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void aCancelledTimerNeverRuns() {
+        final TimingWheel wheel = new TimingWheel(WHEEL_SIZE);
+        final TimingWheel.Timer timer = wheel.schedule(2, () -> {
+            throw new AssertionError("a cancelled timer must not run");
+        });
+
+        assertTrue(timer.cancel());
+        advance(wheel, 4);
+
+        assertFalse(timer.isPending());
+        assertFalse(timer.cancel(), "cancelling twice must report nothing was cancelled");
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void aTaskMayCancelATimerDueOnTheSameTick() {
+        final TimingWheel wheel = new TimingWheel(WHEEL_SIZE);
+        final List<String> ran = new ArrayList<>();
+        final TimingWheel.Timer[] victim = new TimingWheel.Timer[1];
+        victim[0] = wheel.schedule(1, () -> ran.add("victim"));
+        wheel.schedule(1, () -> {
+            ran.add("canceller");
+            victim[0].cancel();
+        });
+
+        wheel.tick();
+
+        assertEquals(List.of("canceller"), ran);
+    }
+
+    @Test
+    void cancellingAGroupCancelsOnlyItsOwnTimers() {
+        final TimingWheel wheel = new TimingWheel(WHEEL_SIZE);
+        final TimingWheel.Group group = new TimingWheel.Group();
+        final List<String> ran = new ArrayList<>();
+        wheel.schedule(1, () -> ran.add("grouped"), group);
+        wheel.schedule(20, () -> ran.add("grouped later"), group);
+        wheel.schedule(1, () -> ran.add("free"));
+
+        assertEquals(2, group.size());
+        group.cancelAll();
+        advance(wheel, 30);
+
+        assertEquals(List.of("free"), ran);
+        assertEquals(0, group.size());
+    }
+
+    @Test
+    void ranTimersLeaveTheirGroup() {
+        final TimingWheel wheel = new TimingWheel(WHEEL_SIZE);
+        final TimingWheel.Group group = new TimingWheel.Group();
+        wheel.schedule(1, () -> {
+        }, group);
+
+        wheel.tick();
+
+        assertEquals(0, group.size());
+        assertEquals(0, wheel.size());
+    }
+}
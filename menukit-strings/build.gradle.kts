@@ -10,6 +10,21 @@ repositories {
     mavenCentral()
 }
 
+/*
+ * Mockito has to be attached as a java agent at test JVM startup, see menukit-core.
+ */
+val mockitoAgent: Configuration by configurations.creating {
+    isCanBeConsumed = false
+    isCanBeResolved = true
+}
+
+/*
+ * The tests mock the Bukkit API, which main only depends on at compile time, see menukit-core.
+ */
+configurations.testImplementation {
+    extendsFrom(configurations.compileOnly.get())
+}
+
 dependencies {
     compileOnly(libs.papermc)
 
@@ -17,7 +32,10 @@ dependencies {
 
     testImplementation(platform(libs.junit.bom))
     testImplementation(libs.junit.jupiter)
+    testImplementation(libs.mockito.core)
     testRuntimeOnly(libs.junit.platform.launcher)
+
+    mockitoAgent(libs.mockito.core) { isTransitive = false }
 }
 
 java {
@@ -28,6 +46,7 @@ java {
 
 tasks.test {
     useJUnitPlatform()
+    jvmArgs("-javaagent:${mockitoAgent.asPath}", "-Xshare:off")
 }
 
 publishing {
@@ -0,0 +1,116 @@
+package sh.miles.menukit.strings;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.chars.Char2ObjectMap;
+import it.unimi.dsi.fastutil.chars.Char2ObjectOpenHashMap;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+/**
+ * The compiled form of a recipe file, its flattened pattern and the names its keys map to, before those names are
+ * resolved to {@link MenuStack}s.
+ * <p>
+ * This is the form {@link RecipeCache} stores, since menu stacks hold callbacks and can not be written to disk.
+ *
+ * @param pageSize the number of slots of each page
+ * @param pages    the number of pages
+ * @param pattern  the keys of every page, one page after another
+ * @param keys     the menu stack name each key maps to
+ */
+record CompiledRecipe(int pageSize, int pages, char[] pattern, Char2ObjectMap<String> keys) {
+
+    /**
+     * Resolves the names of this recipe's keys to menu stacks.
+     *
+     * @param stacks resolves the menu stack names, returning null for unknown names
+     * @return the recipe
+     * @throws IllegalArgumentException thrown if a name does not resolve to a menu stack
+     */
+    MenuRecipe resolve(final Function<String, @Nullable MenuStack> stacks) throws IllegalArgumentException {
+        final Char2ObjectMap<@Nullable MenuStack> mapping = new Char2ObjectOpenHashMap<>(this.keys.size());
+        for (final Char2ObjectMap.Entry<String> entry : this.keys.char2ObjectEntrySet()) {
+            final MenuStack stack = stacks.apply(entry.getValue());
+            Preconditions.checkArgument(stack != null, "Key '%s': no menu stack is named '%s'", entry.getCharKey(), entry.getValue());
+            mapping.put(entry.getCharKey(), stack);
+        }
+        return new MenuRecipe(mapping, this.pattern, this.pageSize, this.pages);
+    }
+
+    /**
+     * Checks that every key this recipe's pattern uses is mapped, which {@link MenuRecipe#apply(sh.miles.menukit.util.PagedInventory)} would
+     * otherwise only find once it reaches the slot.
+     *
+     * @throws IllegalArgumentException thrown listing every key that is used but not mapped
+     */
+    void checkMapped() throws IllegalArgumentException {
+        final StringBuilder missing = new StringBuilder();
+        for (final char key : this.pattern) {
+            if (key != MenuRecipe.NO_KEY && !this.keys.containsKey(key) && missing.indexOf(String.valueOf(key)) == -1) {
+                missing.append(key);
+            }
+        }
+        Preconditions.checkArgument(missing.isEmpty(), "The keys '%s' are used by the layout but not mapped", missing);
+    }
+
+    /**
+     * Gets the number of bytes {@link #write(ByteBuffer)} writes.
+     *
+     * @return the size in bytes
+     */
+    int size() {
+        int size = Integer.BYTES * 3 + Character.BYTES * this.pattern.length;
+        for (final String name : this.keys.values()) {
+            size += Character.BYTES + Integer.BYTES + name.getBytes(StandardCharsets.UTF_8).length;
+        }
+        return size;
+    }
+
+    /**
+     * Writes this recipe to a buffer.
+     *
+     * @param buffer the buffer, with at least {@link #size()} bytes remaining
+     */
+    void write(final ByteBuffer buffer) {
+        buffer.putInt(this.pageSize).putInt(this.pages).putInt(this.keys.size());
+        for (final Char2ObjectMap.Entry<String> entry : this.keys.char2ObjectEntrySet()) {
+            final byte[] name = entry.getValue().getBytes(StandardCharsets.UTF_8);
+            buffer.putChar(entry.getCharKey()).putInt(name.length).put(name);
+        }
+        buffer.asCharBuffer().put(this.pattern);
+        buffer.position(buffer.position() + Character.BYTES * this.pattern.length);
+    }
+
+    /**
+     * Reads a recipe written by {@link #write(ByteBuffer)}.
+     *
+     * @param buffer the buffer
+     * @return the recipe
+     * @throws IllegalArgumentException thrown if the buffer does not hold a valid recipe
+     */
+    static CompiledRecipe read(final ByteBuffer buffer) throws IllegalArgumentException {
+        try {
+            final int pageSize = buffer.getInt();
+            final int pages = buffer.getInt();
+            final int keyCount = buffer.getInt();
+            Preconditions.checkArgument(pageSize >= 0 && pages > 0 && keyCount >= 0, "Malformed recipe header");
+            final Char2ObjectMap<String> keys = new Char2ObjectOpenHashMap<>(keyCount);
+            for (int i = 0; i < keyCount; i++) {
+                final char key = buffer.getChar();
+                final byte[] name = new byte[buffer.getInt()];
+                buffer.get(name);
+                keys.put(key, new String(name, StandardCharsets.UTF_8));
+            }
+
+            final char[] pattern = new char[Math.multiplyExact(pageSize, pages)];
+            buffer.asCharBuffer().get(pattern);
+            buffer.position(buffer.position() + Character.BYTES * pattern.length);
+            return new CompiledRecipe(pageSize, pages, pattern, keys);
+        } catch (BufferUnderflowException | NegativeArraySizeException | ArithmeticException exception) {
+            throw new IllegalArgumentException("Truncated or malformed recipe", exception);
+        }
+    }
+}
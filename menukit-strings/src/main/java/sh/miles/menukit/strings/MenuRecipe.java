@@ -1,14 +1,21 @@
 package sh.miles.menukit.strings;
 
 import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.chars.Char2IntMap;
+import it.unimi.dsi.fastutil.chars.Char2IntOpenHashMap;
 import it.unimi.dsi.fastutil.chars.Char2ObjectMap;
 import it.unimi.dsi.fastutil.chars.Char2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import org.jspecify.annotations.Nullable;
-import sh.miles.menukit.util.PagedArray;
+import sh.miles.menukit.slot.MenuSlot;
 import sh.miles.menukit.util.PagedInventory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
 /**
  * Represents a "recipe'. The idea of a recipe is a string to {@link MenuStack} representation of a menu. Each recipe
  * uses characters to map between items and MenuStack.
@@ -16,12 +23,29 @@ import sh.miles.menukit.util.PagedInventory;
  * @since 1.0.0-SNAPSHOT
  */
 public final class MenuRecipe {
+
+    /**
+     * The key of slots no layout covers, such as those of a page skipped between two laid out pages.
+     */
+    static final char NO_KEY = '\0';
+
     private final Char2ObjectMap<@Nullable MenuStack> mapping;
-    private final PagedArray<Character> pattern;
+    /*
+     * the keys of every page, one page after another
+     */
+    private final char[] pattern;
+    private final int pageSize;
+    private final int pages;
+    /*
+     * every position of every key in the pattern, built the first time it is needed
+     */
+    private volatile @Nullable Char2ObjectMap<int[]> positions;
 
-    private MenuRecipe(final Char2ObjectMap<@Nullable MenuStack> mapping, final PagedArray<Character> pattern) {
+    MenuRecipe(final Char2ObjectMap<@Nullable MenuStack> mapping, final char[] pattern, final int pageSize, final int pages) {
         this.mapping = mapping;
         this.pattern = pattern;
+        this.pageSize = pageSize;
+        this.pages = pages;
     }
 
     /**
@@ -32,18 +56,175 @@ public final class MenuRecipe {
      */
     public void apply(PagedInventory inventory) {
         Preconditions.checkArgument(inventory != null, "The provided inventory must not be null");
-        Preconditions.checkArgument(this.pattern.getPageSize() <= inventory.getPageSize() && this.pattern.getPages() <= inventory.getPages(), "The pattern can not be applied to this inventory because the pattern is too large");
-
-        for (int page = 0; page < this.pattern.getPages(); page++) {
-            for (int index = 0; index < this.pattern.getPageSize(); index++) {
-                final var key = this.pattern.get(page, index);
-                if (key == null) continue;
-                final MenuStack stack = this.mapping.get((char) key);
-                if (stack == null) {
-                    throw new IllegalStateException("No found mapping for key " + key);
+        Preconditions.checkArgument(this.pageSize <= inventory.getPageSize() && this.pages <= inventory.getPages(), "The pattern can not be applied to this inventory because the pattern is too large");
+
+        for (int page = 0; page < this.pages; page++) {
+            applyPage(inventory, page);
+        }
+    }
+
+    /**
+     * Applies this MenuRecipe to a PagedInventory one page at a time, each page the first time it is shown rather than
+     * all of them up front. The pages showing right now are applied right away, and the inventory holds on to this
+     * recipe until every page was shown.
+     * <p>
+     * This replaces any {@link PagedInventory#setPageLoader(java.util.function.IntConsumer) page loader} the inventory
+     * had, so only one recipe at a time can be applied lazily to an inventory.
+     *
+     * @param inventory the inventory the recipe is being applied to
+     * @since 2.0.1-SNAPSHOT
+     */
+    public void applyLazily(PagedInventory inventory) {
+        Preconditions.checkArgument(inventory != null, "The provided inventory must not be null");
+        Preconditions.checkArgument(this.pageSize <= inventory.getPageSize() && this.pages <= inventory.getPages(), "The pattern can not be applied to this inventory because the pattern is too large");
+        inventory.setPageLoader((page) -> {
+            if (page < this.pages) {
+                applyPage(inventory, page);
+            }
+        });
+    }
+
+    /**
+     * Rebuilds only the slots of the given key, for when the menu stack it maps to changed, for example because this
+     * recipe replaced one the inventory was built from that differed in that mapping alone. The slots are found through
+     * an index of where each key is used, and the showing ones are written together through
+     * {@link PagedInventory#setItems(java.util.Collection)}.
+     * <p>
+     * Pages not yet loaded by {@link #applyLazily(PagedInventory)} are skipped and left to this recipe to load once
+     * shown.
+     *
+     * @param inventory the inventory this recipe, or one of the same shape, was applied to
+     * @param key       the key whose slots to rebuild
+     * @throws IllegalStateException thrown if the key is used by the pattern but not mapped
+     * @since 2.0.1-SNAPSHOT
+     */
+    public void reapply(PagedInventory inventory, char key) throws IllegalStateException {
+        Preconditions.checkArgument(inventory != null, "The provided inventory must not be null");
+        Preconditions.checkArgument(this.pageSize <= inventory.getPageSize() && this.pages <= inventory.getPages(), "The pattern can not be applied to this inventory because the pattern is too large");
+        final int[] used = positions().get(key);
+        if (used == null) {
+            return;
+        }
+
+        final MenuStack stack = this.mapping.get(key);
+        if (stack == null) {
+            throw new IllegalStateException("No found mapping for key " + key);
+        }
+        final List<MenuSlot> rebuilt = new ArrayList<>(used.length);
+        for (final int position : used) {
+            final int page = position / this.pageSize;
+            if (inventory.isPageLoaded(page)) {
+                rebuilt.add(stack.transfer().page(page).index(position % this.pageSize).inventory(inventory).build());
+            }
+        }
+        inventory.setItems(rebuilt);
+        handOver(inventory);
+    }
+
+    /**
+     * Brings an inventory the previous recipe was applied to up to date with this recipe, rebuilding only the slots
+     * whose key or menu stack differs between the two and removing those this recipe no longer covers. The showing
+     * slots, rebuilt and removed alike, are written together through
+     * {@link PagedInventory#setItems(java.util.Collection, java.util.Collection)}.
+     * <p>
+     * Pages not yet loaded by {@link #applyLazily(PagedInventory)} are skipped and left to this recipe to load once
+     * shown.
+     *
+     * @param inventory the inventory the previous recipe was applied to
+     * @param previous  the recipe the inventory was built from
+     * @throws IllegalArgumentException thrown if the two recipes have different page sizes
+     * @throws IllegalStateException    thrown if a key this recipe uses is not mapped
+     * @since 2.0.1-SNAPSHOT
+     */
+    public void reapply(PagedInventory inventory, MenuRecipe previous) throws IllegalArgumentException, IllegalStateException {
+        Preconditions.checkArgument(inventory != null, "The provided inventory must not be null");
+        Preconditions.checkArgument(previous != null, "The provided previous recipe must not be null");
+        Preconditions.checkArgument(previous.pageSize == this.pageSize, "The previous recipe must have the same page size");
+        Preconditions.checkArgument(this.pageSize <= inventory.getPageSize() && this.pages <= inventory.getPages(), "The pattern can not be applied to this inventory because the pattern is too large");
+
+        final List<MenuSlot> rebuilt = new ArrayList<>();
+        final List<MenuSlot> removed = new ArrayList<>();
+        final int end = Math.max(this.pattern.length, previous.pattern.length);
+        for (int position = 0; position < end; position++) {
+            final int page = position / this.pageSize;
+            if (!inventory.isPageLoaded(page)) {
+                continue;
+            }
+
+            final char key = position < this.pattern.length ? this.pattern[position] : NO_KEY;
+            final char old = position < previous.pattern.length ? previous.pattern[position] : NO_KEY;
+            final MenuStack stack = key == NO_KEY ? null : this.mapping.get(key);
+            if (key == old && Objects.equals(stack, previous.mapping.get(old))) {
+                continue;
+            }
+
+            final int index = position % this.pageSize;
+            if (key == NO_KEY) {
+                final MenuSlot slot = inventory.getSlot(page, index);
+                if (slot != MenuSlot.DUMMY) {
+                    removed.add(slot);
                 }
-                inventory.setItem(stack.transfer().page(page).index(index).inventory(inventory).build());
+            } else if (stack == null) {
+                throw new IllegalStateException("No found mapping for key " + key);
+            } else {
+                rebuilt.add(stack.transfer().page(page).index(index).inventory(inventory).build());
+            }
+        }
+        inventory.setItems(rebuilt, removed);
+        handOver(inventory);
+    }
+
+    /**
+     * Hands the pages an inventory has not loaded yet over to this recipe, so that a page loader left by an older
+     * recipe does not fill them with outdated slots.
+     *
+     * @param inventory the inventory
+     */
+    private void handOver(final PagedInventory inventory) {
+        inventory.replacePageLoader((page) -> {
+            if (page < this.pages) {
+                applyPage(inventory, page);
+            }
+        });
+    }
+
+    private Char2ObjectMap<int[]> positions() {
+        Char2ObjectMap<int[]> positions = this.positions;
+        if (positions != null) {
+            return positions;
+        }
+
+        final Char2IntMap counts = new Char2IntOpenHashMap();
+        for (final char key : this.pattern) {
+            if (key != NO_KEY) {
+                counts.mergeInt(key, 1, Integer::sum);
+            }
+        }
+        positions = new Char2ObjectOpenHashMap<>(counts.size());
+        for (final Char2IntMap.Entry entry : counts.char2IntEntrySet()) {
+            positions.put(entry.getCharKey(), new int[entry.getIntValue()]);
+        }
+        final Char2IntMap filled = new Char2IntOpenHashMap(counts.size());
+        for (int position = 0; position < this.pattern.length; position++) {
+            final char key = this.pattern[position];
+            if (key != NO_KEY) {
+                positions.get(key)[filled.mergeInt(key, 1, Integer::sum) - 1] = position;
+            }
+        }
+        this.positions = positions;
+        return positions;
+    }
+
+    private void applyPage(final PagedInventory inventory, final int page) {
+        final int offset = page * this.pageSize;
+        for (int index = 0; index < this.pageSize; index++) {
+            final char key = this.pattern[offset + index];
+            if (key == NO_KEY) continue;
+            final MenuStack stack = this.mapping.get(key);
+            if (stack == null) {
+                throw new IllegalStateException("No found mapping for key " + key);
             }
+            inventory.setItem(stack.transfer().page(page).index(index).inventory(inventory).build());
         }
     }
 
@@ -67,12 +248,29 @@ public final class MenuRecipe {
      * @since 1.0.0-SNAPSHOT
      */
     public char[] getPagePattern(int page) {
-        char[] singlePage = new char[this.pattern.getPageSize()];
-        for (int i = 0; i < this.pattern.getPageSize(); i++) {
-            singlePage[i] = this.pattern.get(page, i);
-        }
+        Preconditions.checkElementIndex(page, this.pages, "page");
+        final int from = page * this.pageSize;
+        return Arrays.copyOfRange(this.pattern, from, from + this.pageSize);
+    }
+
+    /**
+     * Gets the number of slots of each page of this recipe.
+     *
+     * @return the page size
+     * @since 2.0.1-SNAPSHOT
+     */
+    public int getPageSize() {
+        return this.pageSize;
+    }
 
-        return singlePage;
+    /**
+     * Gets the number of pages of this recipe.
+     *
+     * @return the page count
+     * @since 2.0.1-SNAPSHOT
+     */
+    public int getPages() {
+        return this.pages;
     }
 
     /**
@@ -85,6 +283,22 @@ public final class MenuRecipe {
         return new Builder();
     }
 
+    /**
+     * Creates a new builder for a recipe derived from this one. The derived recipe starts out as a copy of this recipe
+     * that {@link Builder#page(int, String) pages}, {@link Builder#mask(int, String, char) masks},
+     * {@link Builder#slot(int, int, char) slots} and {@link Builder#map(char, MenuStack) mappings} are laid over.
+     * <p>
+     * The hierarchy is flattened once the derived recipe is built, so applying it costs the same as applying a recipe
+     * written out in full. The pattern and mapping of this recipe are shared with the derived recipe wherever it does
+     * not override them.
+     *
+     * @return the newly created builder
+     * @since 2.0.1-SNAPSHOT
+     */
+    public Builder derive() {
+        return new Builder(this);
+    }
+
     /**
      * A Builder class used to easily create new {@link MenuRecipe}'s.
      *
@@ -94,9 +308,16 @@ public final class MenuRecipe {
 
         private final Char2ObjectMap<MenuStack> mapping = new Char2ObjectOpenHashMap<>();
         private final Int2ObjectMap<String> pages = new Int2ObjectOpenHashMap<>();
+        private final List<Overlay> overlays = new ArrayList<>();
+        private final @Nullable MenuRecipe parent;
         private int pageSize = -999;
 
         private Builder() {
+            this.parent = null;
+        }
+
+        private Builder(final MenuRecipe parent) {
+            this.parent = parent;
         }
 
         /**
@@ -109,7 +330,43 @@ public final class MenuRecipe {
          */
         public Builder page(int page, String layout) {
             this.pages.put(page, layout);
-            this.pageSize = layout.replaceAll("\n", "").length();
+            this.pageSize = pageSizeOf(layout);
+            return this;
+        }
+
+        /**
+         * Lays a mask over a page. The mask is written like a {@link #page(int, String) page layout}, but every
+         * occurrence of the transparent character keeps whatever key the page had underneath, so only the slots that
+         * differ need to be spelled out. Masks are laid over pages in the order they are added, after every page
+         * layout.
+         *
+         * @param page        the page to lay the mask over
+         * @param mask        the mask, exactly one page in size
+         * @param transparent the character that keeps the key underneath
+         * @return this builder
+         * @since 2.0.1-SNAPSHOT
+         */
+        public Builder mask(int page, String mask, char transparent) {
+            Preconditions.checkArgument(page >= 0, "The page must not be negative");
+            Preconditions.checkArgument(mask != null, "The provided mask must not be null");
+            this.overlays.add(new Overlay(page, 0, flatten(mask), transparent, true));
+            return this;
+        }
+
+        /**
+         * Sets the key of a single slot. Slots are set in the order they are added alongside
+         * {@link #mask(int, String, char) masks}, after every page layout.
+         *
+         * @param page  the page of the slot
+         * @param index the index of the slot within its page
+         * @param key   the key
+         * @return this builder
+         * @since 2.0.1-SNAPSHOT
+         */
+        public Builder slot(int page, int index, char key) {
+            Preconditions.checkArgument(page >= 0, "The page must not be negative");
+            Preconditions.checkArgument(index >= 0, "The index must not be negative");
+            this.overlays.add(new Overlay(page, index, String.valueOf(key), NO_KEY, false));
             return this;
         }
 
@@ -129,38 +386,169 @@ public final class MenuRecipe {
          * Builds the {@link MenuRecipe} from the given information above.
          *
          * @return a valid {@link MenuRecipe} if the build was a success
-         * @throws IllegalStateException thrown if no pages were created
+         * @throws IllegalStateException thrown if no pages were created, if pages are of a different size than the
+         *                               parent recipe's or if a mask or slot does not fit a page
          */
         public MenuRecipe build() throws IllegalStateException {
-            final int maxPage = pages.keySet().intStream().max().orElse(-999);
-            Preconditions.checkState(maxPage != -999, "Can not make MenuRecipe with 0 provided pages");
-            final PagedArray<Character> pattern = new PagedArray<>(this.pageSize, maxPage + 1);
-            this.pages.forEach((page, layout) -> {
-                parseLayout(page, layout, pattern);
-            });
+            if (this.parent == null && this.overlays.isEmpty()) {
+                final int pages = pageCountOf(this.pages);
+                return new MenuRecipe(this.mapping, compile(this.pages, this.pageSize, pages), this.pageSize, pages);
+            }
 
-            return new MenuRecipe(this.mapping, pattern);
+            final MenuRecipe parent = this.parent;
+            if (parent != null && !this.pages.isEmpty()) {
+                Preconditions.checkState(this.pageSize == parent.pageSize, "Page size is not consistent with the parent recipe");
+            }
+            final int pageSize = parent == null ? this.pageSize : parent.pageSize;
+            int pages = parent == null ? pageCountOf(this.pages) : Math.max(parent.pages, this.pages.isEmpty() ? 0 : pageCountOf(this.pages));
+            for (final Overlay overlay : this.overlays) {
+                pages = Math.max(pages, overlay.page() + 1);
+            }
+
+            final char[] pattern;
+            if (parent != null && this.pages.isEmpty() && this.overlays.isEmpty() && pages == parent.pages) {
+                pattern = parent.pattern;
+            } else {
+                pattern = new char[pageSize * pages];
+                if (parent != null) {
+                    System.arraycopy(parent.pattern, 0, pattern, 0, parent.pattern.length);
+                }
+                layout(this.pages, pageSize, pattern);
+                for (final Overlay overlay : this.overlays) {
+                    overlay.layOver(pattern, pageSize);
+                }
+            }
+
+            final Char2ObjectMap<@Nullable MenuStack> mapping;
+            if (parent == null) {
+                mapping = this.mapping;
+            } else if (this.mapping.isEmpty()) {
+                mapping = parent.mapping;
+            } else {
+                mapping = new Char2ObjectOpenHashMap<>(parent.mapping);
+                mapping.putAll(this.mapping);
+            }
+            return new MenuRecipe(mapping, pattern, pageSize, pages);
         }
+    }
 
-        /**
-         * Flattens a page layout string into the given page of the pattern array.
-         *
-         * <p>The layout is trimmed and stripped of newlines before anything else, so a page may be written as a multi
-         * line text block shaped like the menu it describes rather than as one long string. Each character left after
-         * that maps to a single slot, in order, and is resolved against the key mapping later by
-         * {@link MenuRecipe#apply(PagedInventory)}.
-         *
-         * @param page    the page to write the layout into
-         * @param layout  the layout string
-         * @param pattern the pattern array to write into
-         * @throws IllegalStateException thrown if the flattened layout is not exactly the page size established by the
-         *                               first call to {@link #page(int, String)}
-         */
-        private void parseLayout(int page, String layout, PagedArray<Character> pattern) {
-            layout = layout.trim().replaceAll("\n", "");
-            Preconditions.checkState(layout.length() == this.pageSize, "Page size is not consistent with layout string");
+    /**
+     * A mask or single slot laid over the pattern of a page.
+     *
+     * @param page        the page
+     * @param index       the index within the page to start at
+     * @param keys        the keys to lay over the page
+     * @param transparent the key that keeps the key underneath, if any
+     * @param mask        true if the keys have to cover the whole page
+     */
+    private record Overlay(int page, int index, String keys, char transparent, boolean mask) {
+
+        private void layOver(final char[] pattern, final int pageSize) {
+            if (this.mask) {
+                Preconditions.checkState(this.keys.length() == pageSize, "Mask size is not consistent with the page size");
+            } else {
+                Preconditions.checkState(this.index < pageSize, "Slot %s is outside of the page size %s", this.index, pageSize);
+            }
+
+            final int offset = this.page * pageSize + this.index;
+            for (int i = 0; i < this.keys.length(); i++) {
+                final char key = this.keys.charAt(i);
+                if (key != this.transparent) {
+                    pattern[offset + i] = key;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the page size a layout establishes, the number of keys it holds once {@link #flatten(String) flattened}.
+     *
+     * @param layout the layout string
+     * @return the page size
+     */
+    static int pageSizeOf(final String layout) {
+        int lineBreaks = 0;
+        for (int i = 0; i < layout.length(); i++) {
+            if (isLineBreak(layout.charAt(i))) {
+                lineBreaks++;
+            }
+        }
+        return layout.length() - lineBreaks;
+    }
+
+    /**
+     * Flattens a layout or mask into its keys, one per slot, by stripping its line breaks. Nothing else is stripped, as
+     * a space is a key like any other, so a page whose first or last row is all spaces keeps those rows.
+     *
+     * @param layout the layout string
+     * @return the keys of the layout
+     */
+    static String flatten(final String layout) {
+        final StringBuilder keys = new StringBuilder(layout.length());
+        for (int i = 0; i < layout.length(); i++) {
+            final char key = layout.charAt(i);
+            if (!isLineBreak(key)) {
+                keys.append(key);
+            }
+        }
+        return keys.toString();
+    }
+
+    private static boolean isLineBreak(final char character) {
+        return character == '\n' || character == '\r';
+    }
+
+    /**
+     * Gets the number of pages the given layouts span, up to and including the highest page number.
+     *
+     * @param pages the layouts by page number
+     * @return the page count
+     * @throws IllegalStateException thrown if there are no layouts
+     */
+    static int pageCountOf(final Int2ObjectMap<String> pages) throws IllegalStateException {
+        Preconditions.checkState(!pages.isEmpty(), "Can not make MenuRecipe with 0 provided pages");
+        return pages.keySet().intStream().max().getAsInt() + 1;
+    }
+
+    /**
+     * Flattens page layout strings into a single pattern array, one page after another.
+     *
+     * <p>Each layout is {@link #flatten(String) stripped of line breaks} before anything else, so a page may be written
+     * as a multi line text block shaped like the menu it describes rather than as one long string. Each character left
+     * after that, spaces included, maps to a single slot, in order, and is resolved against the key mapping later by
+     * {@link MenuRecipe#apply(PagedInventory)}. Slots of pages without a layout are left as {@link #NO_KEY}.
+     *
+     * @param pages    the layouts by page number
+     * @param pageSize the page size every layout must have
+     * @param count    the number of pages
+     * @return the pattern array
+     * @throws IllegalStateException thrown if a flattened layout is not exactly the page size
+     */
+    static char[] compile(final Int2ObjectMap<String> pages, final int pageSize, final int count) throws IllegalStateException {
+        final char[] pattern = new char[pageSize * count];
+        layout(pages, pageSize, pattern);
+        return pattern;
+    }
+
+    /**
+     * Flattens page layout strings into an existing pattern array, replacing the pages they cover.
+     *
+     * @param pages    the layouts by page number
+     * @param pageSize the page size every layout must have
+     * @param pattern  the pattern array
+     * @throws IllegalStateException thrown if a flattened layout is not exactly the page size
+     * @see #compile(Int2ObjectMap, int, int)
+     */
+    private static void layout(final Int2ObjectMap<String> pages, final int pageSize, final char[] pattern) throws IllegalStateException {
+        for (final Int2ObjectMap.Entry<String> entry : pages.int2ObjectEntrySet()) {
+            final String layout = entry.getValue();
+            Preconditions.checkState(pageSizeOf(layout) == pageSize, "Page size is not consistent with layout string");
+            int slot = entry.getIntKey() * pageSize;
             for (int i = 0; i < layout.length(); i++) {
-                pattern.set(page, i, layout.charAt(i));
+                final char key = layout.charAt(i);
+                if (!isLineBreak(key)) {
+                    pattern[slot++] = key;
+                }
             }
         }
     }
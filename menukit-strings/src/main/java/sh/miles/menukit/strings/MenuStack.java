@@ -49,12 +49,15 @@ public record MenuStack(ItemStack item, Consumer<MenuEventCallback<InventoryClic
 
     /**
      * Creates a MenuSlot.Builder from this MenuStack.
+     * <p>
+     * The builder is given this stack's own item as {@link MenuSlot.Builder#sharedContent(ItemStack) shared content},
+     * so every slot built from this stack, for example every slot a recipe maps to it, holds the same instance.
      *
      * @return a newly created MenuSlot Builder
      * @since 1.0.0-SNAPSHOT
      */
     public MenuSlot.Builder transfer() {
-        return MenuSlot.builder().content(this.item.clone()).drag(this.drag).click(this.click);
+        return MenuSlot.builder().sharedContent(this.item).drag(this.drag).click(this.click);
     }
 
     /**
@@ -0,0 +1,213 @@
+package sh.miles.menukit.strings;
+
+import com.google.common.base.Preconditions;
+import io.papermc.paper.datacomponent.DataComponentTypes;
+import io.papermc.paper.datacomponent.item.ItemLore;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.Tag;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import org.bukkit.inventory.ItemStack;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * A {@link MenuStack} whose display name and lore hold placeholders, to be filled in per player by a
+ * {@link TemplateRenderer}.
+ * <p>
+ * The name and lore are written in MiniMessage, with placeholders written as {@code {key}} wherever text may go. They
+ * are parsed once, when the template is created, into component trees that mark where each placeholder goes, so
+ * rendering merely copies those trees with the values filled in. A placeholder takes on the style around it.
+ * <pre>{@code
+ * final MenuStackTemplate balance = MenuStackTemplate.of(MenuStack.of(ItemType.GOLD_INGOT, true, false),
+ *         "<gold>{player}'s balance", List.of("<gray>You have <yellow>{balance}</yellow> coins"));
+ * }</pre>
+ *
+ * @since 2.0.1-SNAPSHOT
+ */
+public final class MenuStackTemplate {
+
+    private static final String TAG = "menukit_placeholder";
+    /*
+     * starts the content of the text components standing in for placeholders, followed by the placeholder's index
+     */
+    private static final char MARKER = '\u0000';
+    /*
+     * without the default compacting post processor, which could merge a placeholder into the text next to it
+     */
+    private static final MiniMessage MINI_MESSAGE = MiniMessage.builder().postProcessor(UnaryOperator.identity()).build();
+
+    private final MenuStack base;
+    private final @Nullable Component name;
+    private final List<Component> lore;
+    private final List<String> keys;
+
+    private MenuStackTemplate(final MenuStack base, final @Nullable Component name, final List<Component> lore, final List<String> keys) {
+        this.base = base;
+        this.name = name;
+        this.lore = lore;
+        this.keys = keys;
+    }
+
+    /**
+     * Creates a new template.
+     *
+     * @param base the menu stack providing the item and callbacks
+     * @param name the display name, or null to keep the item's name
+     * @param lore the lore lines, empty to keep the item's lore
+     * @return the template
+     * @since 2.0.1-SNAPSHOT
+     */
+    public static MenuStackTemplate of(MenuStack base, @Nullable String name, List<String> lore) {
+        Preconditions.checkArgument(base != null, "The provided base must not be null");
+        Preconditions.checkArgument(lore != null, "The provided lore must not be null");
+        final List<String> keys = new ArrayList<>();
+        final TagResolver placeholders = TagResolver.resolver(TAG, (arguments, context) -> Tag.inserting(Component.text(MARKER + arguments.pop().value())));
+
+        final Component parsedName = name == null ? null : MINI_MESSAGE.deserialize(mark(name, keys), placeholders);
+        final List<Component> parsedLore = new ArrayList<>(lore.size());
+        for (final String line : lore) {
+            Preconditions.checkArgument(line != null, "The provided lore must not contain null lines");
+            parsedLore.add(MINI_MESSAGE.deserialize(mark(line, keys), placeholders));
+        }
+        return new MenuStackTemplate(base, parsedName, List.copyOf(parsedLore), List.copyOf(keys));
+    }
+
+    /**
+     * Gets the keys of every placeholder this template uses, in the order they first appear.
+     *
+     * @return the placeholder keys
+     * @since 2.0.1-SNAPSHOT
+     */
+    public List<String> getKeys() {
+        return this.keys;
+    }
+
+    /**
+     * Gets the menu stack this template renders from.
+     *
+     * @return the base menu stack
+     * @since 2.0.1-SNAPSHOT
+     */
+    public MenuStack getBase() {
+        return this.base;
+    }
+
+    /**
+     * Renders the item of this template with the given values filled in.
+     *
+     * @param values the value of every placeholder, in the order of {@link #getKeys()}
+     * @return the rendered item, owned by the caller
+     */
+    @SuppressWarnings("UnstableApiUsage")
+    ItemStack render(final List<String> values) {
+        final ItemStack item = this.base.item();
+        final Component name = renderName(values);
+        if (name != null) {
+            item.setData(DataComponentTypes.CUSTOM_NAME, name);
+        }
+        if (!this.lore.isEmpty()) {
+            item.setData(DataComponentTypes.LORE, ItemLore.lore(renderLore(values)));
+        }
+        return item;
+    }
+
+    /**
+     * Fills in the display name of this template.
+     *
+     * @param values the value of every placeholder, in the order of {@link #getKeys()}
+     * @return the filled in display name, or null if this template keeps the item's name
+     */
+    @Nullable
+    Component renderName(final List<String> values) {
+        return this.name == null ? null : fill(this.name, values);
+    }
+
+    /**
+     * Fills in the lore lines of this template.
+     *
+     * @param values the value of every placeholder, in the order of {@link #getKeys()}
+     * @return the filled in lore lines, empty if this template keeps the item's lore
+     */
+    List<Component> renderLore(final List<String> values) {
+        final List<Component> lines = new ArrayList<>(this.lore.size());
+        for (final Component line : this.lore) {
+            lines.add(fill(line, values));
+        }
+        return lines;
+    }
+
+    /**
+     * Replaces the placeholders of a raw line with tags standing in for them, recording any key not seen before.
+     *
+     * @param line the raw line
+     * @param keys the keys seen so far
+     * @return the line with every placeholder as a tag holding the placeholder's index
+     */
+    private static String mark(final String line, final List<String> keys) {
+        final StringBuilder marked = new StringBuilder(line.length());
+        int from = 0;
+        for (int open = line.indexOf('{'); open != -1; open = line.indexOf('{', open + 1)) {
+            final int close = line.indexOf('}', open + 1);
+            if (close == -1) {
+                break;
+            }
+
+            final String key = line.substring(open + 1, close);
+            if (!isKey(key)) {
+                continue;
+            }
+            int index = keys.indexOf(key);
+            if (index == -1) {
+                index = keys.size();
+                keys.add(key);
+            }
+            marked.append(line, from, open).append('<').append(TAG).append(':').append(index).append('>');
+            from = close + 1;
+            open = close;
+        }
+        return marked.append(line, from, line.length()).toString();
+    }
+
+    private static boolean isKey(final String key) {
+        if (key.isEmpty()) {
+            return false;
+        }
+
+        for (int i = 0; i < key.length(); i++) {
+            final char c = key.charAt(i);
+            if (!(Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies a parsed component tree with every placeholder filled in.
+     *
+     * @param component the parsed component
+     * @param values    the placeholder values
+     * @return the filled in component
+     */
+    private static Component fill(final Component component, final List<String> values) {
+        Component filled = component;
+        if (component instanceof TextComponent text && !text.content().isEmpty() && text.content().charAt(0) == MARKER) {
+            filled = text.content(values.get(Integer.parseInt(text.content(), 1, text.content().length(), 10)));
+        }
+
+        final List<Component> children = component.children();
+        if (!children.isEmpty()) {
+            final List<Component> filledChildren = new ArrayList<>(children.size());
+            for (final Component child : children) {
+                filledChildren.add(fill(child, values));
+            }
+            filled = filled.children(filledChildren);
+        }
+        return filled;
+    }
+}
@@ -0,0 +1,125 @@
+package sh.miles.menukit.strings;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stores the {@link CompiledRecipe compiled form} of recipe files on disk, so that unchanged recipes are loaded without
+ * being parsed again.
+ * <p>
+ * Each entry is a small binary file holding the digest of the recipe source it was compiled from, followed by the
+ * compiled recipe. An entry is only used while that digest matches the source, any other entry is treated as missing
+ * and replaced once the source is parsed again. The cache is best effort, an entry that can not be read or written
+ * merely costs a parse, though failed writes are logged as they keep every later start parsing too.
+ * <p>
+ * Entries are a few hundred bytes, so they are read and written whole with plain file operations.
+ */
+final class RecipeCache {
+
+    /**
+     * The extension of cache entries.
+     */
+    static final String EXTENSION = ".recipe.bin";
+
+    private static final int MAGIC = 0x4D4B5243; // MKRC
+    private static final short VERSION = 1;
+    private static final Logger LOGGER = Logger.getLogger(RecipeCache.class.getName());
+
+    private final Path directory;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param directory the directory entries are stored in, created once the first entry is written
+     */
+    RecipeCache(final Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Reads the entry of a recipe.
+     *
+     * @param name   the name of the recipe
+     * @param digest the digest of the recipe's current source
+     * @return the compiled recipe, or null if there is no valid entry for that source
+     */
+    @Nullable
+    CompiledRecipe read(final String name, final byte[] digest) {
+        final ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(this.directory.resolve(name + EXTENSION)));
+        } catch (IOException exception) {
+            // most likely there is no entry yet
+            return null;
+        }
+
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+                return null;
+            }
+            final byte[] stored = new byte[buffer.get() & 0xFF];
+            buffer.get(stored);
+            if (!Arrays.equals(stored, digest)) {
+                return null;
+            }
+            return CompiledRecipe.read(buffer);
+        } catch (RuntimeException exception) {
+            // a truncated or corrupted entry is as good as none
+            return null;
+        }
+    }
+
+    /**
+     * Writes the entry of a recipe, replacing any previous entry atomically where the file system allows it.
+     *
+     * @param name     the name of the recipe
+     * @param digest   the digest of the source the recipe was compiled from
+     * @param compiled the compiled recipe
+     */
+    void write(final String name, final byte[] digest, final CompiledRecipe compiled) {
+        final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + Short.BYTES + Byte.BYTES + digest.length + compiled.size());
+        buffer.putInt(MAGIC).putShort(VERSION).put((byte) digest.length).put(digest);
+        compiled.write(buffer);
+
+        try {
+            Files.createDirectories(this.directory);
+            final Path temporary = Files.createTempFile(this.directory, name, ".tmp");
+            try {
+                Files.write(temporary, buffer.array());
+                final Path entry = this.directory.resolve(name + EXTENSION);
+                try {
+                    Files.move(temporary, entry, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException exception) {
+                    Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException exception) {
+            // the recipe is simply parsed again next time
+            LOGGER.log(Level.WARNING, "Failed to write the cache entry of recipe " + name, exception);
+        }
+    }
+
+    /**
+     * Deletes the entry of a recipe, if any.
+     *
+     * @param name the name of the recipe
+     */
+    void delete(final String name) {
+        try {
+            Files.deleteIfExists(this.directory.resolve(name + EXTENSION));
+        } catch (IOException ignored) {
+            // a stale entry never matches a new source anyway
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package sh.miles.menukit.strings;
+
+import com.google.common.base.Preconditions;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+/**
+ * An immutable set of named {@link MenuRecipe}s, compiled together in bulk.
+ * <p>
+ * Compiling happens in two phases. The recipe sources are first read, parsed and validated in parallel on a
+ * {@link ForkJoinPool}, which involves nothing but strings. The menu stack names of every recipe that compiled are then
+ * resolved on the calling thread, as menu stacks hold item stacks that belong to the server thread. Every problem found
+ * in either phase, from malformed layouts and inconsistent page sizes to keys the layout uses but never maps and names
+ * that resolve to no menu stack, is reported together once both phases ran, rather than one recipe at a time.
+ * <pre>{@code
+ * final RecipeLibrary library = RecipeLibrary.compile(plugin.getDataFolder().toPath().resolve("recipes"), stacks::get, ForkJoinPool.commonPool());
+ * final MenuRecipe shop = library.get("shop");
+ * }</pre>
+ *
+ * @since 2.0.1-SNAPSHOT
+ */
+public final class RecipeLibrary {
+
+    private final Map<String, MenuRecipe> recipes;
+
+    private RecipeLibrary(final Map<String, MenuRecipe> recipes) {
+        this.recipes = Map.copyOf(recipes);
+    }
+
+    /**
+     * Compiles every {@link RecipeLoader#EXTENSION .recipe} file of a directory, each named after its file.
+     *
+     * @param directory the directory holding the recipe files
+     * @param stacks    resolves the menu stack names used by recipes, returning null for unknown names
+     * @param pool      the pool to read and parse the files on
+     * @return the library
+     * @throws IOException           thrown if the directory can not be listed
+     * @throws IllegalStateException thrown if any recipe failed to compile, with each failure attached as a suppressed
+     *                               exception
+     * @since 2.0.1-SNAPSHOT
+     */
+    public static RecipeLibrary compile(Path directory, Function<String, @Nullable MenuStack> stacks, ForkJoinPool pool) throws IOException, IllegalStateException {
+        Preconditions.checkArgument(directory != null, "The provided directory must not be null");
+        final Map<String, Callable<CompiledRecipe>> tasks = new LinkedHashMap<>();
+        try (final DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + RecipeLoader.EXTENSION)) {
+            for (final Path file : files) {
+                final String fileName = file.getFileName().toString();
+                tasks.put(fileName.substring(0, fileName.length() - RecipeLoader.EXTENSION.length()), () -> {
+                    try {
+                        return RecipeParser.compile(Files.readString(file, StandardCharsets.UTF_8));
+                    } catch (IOException exception) {
+                        throw new UncheckedIOException(exception);
+                    }
+                });
+            }
+        }
+        return compile(tasks, stacks, pool);
+    }
+
+    /**
+     * Compiles recipes from their sources, in the format read by {@link RecipeParser}.
+     *
+     * @param sources the source of every recipe by name
+     * @param stacks  resolves the menu stack names used by recipes, returning null for unknown names
+     * @param pool    the pool to parse the sources on
+     * @return the library
+     * @throws IllegalStateException thrown if any recipe failed to compile, with each failure attached as a suppressed
+     *                               exception
+     * @since 2.0.1-SNAPSHOT
+     */
+    public static RecipeLibrary compile(Map<String, String> sources, Function<String, @Nullable MenuStack> stacks, ForkJoinPool pool) throws IllegalStateException {
+        Preconditions.checkArgument(sources != null, "The provided sources must not be null");
+        final Map<String, Callable<CompiledRecipe>> tasks = new LinkedHashMap<>();
+        sources.forEach((name, source) -> tasks.put(name, () -> RecipeParser.compile(source)));
+        return compile(tasks, stacks, pool);
+    }
+
+    private static RecipeLibrary compile(final Map<String, Callable<CompiledRecipe>> tasks, final Function<String, @Nullable MenuStack> stacks, final ForkJoinPool pool) {
+        Preconditions.checkArgument(stacks != null, "The provided stack resolver must not be null");
+        Preconditions.checkArgument(pool != null, "The provided pool must not be null");
+        final List<RuntimeException> failures = new ArrayList<>();
+
+        // phase one, strings only, on the pool
+        final Map<String, ForkJoinTask<CompiledRecipe>> submitted = new LinkedHashMap<>();
+        tasks.forEach((name, task) -> submitted.put(name, pool.submit(task)));
+        final Map<String, CompiledRecipe> compiled = new LinkedHashMap<>();
+        submitted.forEach((name, task) -> {
+            try {
+                compiled.put(name, task.join());
+            } catch (RuntimeException exception) {
+                failures.add(new IllegalStateException("Failed to compile recipe " + name, exception));
+            }
+        });
+
+        // phase two, menu stacks, on the calling thread, for every recipe that made it through phase one
+        final Map<String, MenuRecipe> recipes = new HashMap<>();
+        compiled.forEach((name, recipe) -> {
+            try {
+                recipes.put(name, recipe.resolve(stacks));
+            } catch (IllegalArgumentException exception) {
+                failures.add(new IllegalStateException("Failed to resolve recipe " + name, exception));
+            }
+        });
+        throwIfFailed(failures, tasks.size());
+        return new RecipeLibrary(recipes);
+    }
+
+    private static void throwIfFailed(final List<RuntimeException> failures, final int total) {
+        if (failures.isEmpty()) {
+            return;
+        }
+
+        final IllegalStateException exception = new IllegalStateException("%d of %d recipe(s) failed to compile".formatted(failures.size(), total));
+        failures.forEach(exception::addSuppressed);
+        throw exception;
+    }
+
+    /**
+     * Gets a recipe of this library.
+     *
+     * @param name the name of the recipe
+     * @return the recipe, or null if this library has no recipe of that name
+     * @since 2.0.1-SNAPSHOT
+     */
+    @Nullable
+    public MenuRecipe get(String name) {
+        return this.recipes.get(name);
+    }
+
+    /**
+     * Gets the names of every recipe of this library.
+     *
+     * @return the recipe names
+     * @since 2.0.1-SNAPSHOT
+     */
+    public Set<String> getNames() {
+        return this.recipes.keySet();
+    }
+
+    /**
+     * Gets the number of recipes of this library.
+     *
+     * @return the recipe count
+     * @since 2.0.1-SNAPSHOT
+     */
+    public int size() {
+        return this.recipes.size();
+    }
+}
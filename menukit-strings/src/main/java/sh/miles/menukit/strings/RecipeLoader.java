@@ -0,0 +1,387 @@
+package sh.miles.menukit.strings;
+
+import com.google.common.base.Preconditions;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Loads {@link MenuRecipe}s from the {@code .recipe} files of a directory, in the format read by {@link RecipeParser},
+ * and optionally reloads them as the files change.
+ * <p>
+ * Each recipe is named after its file, without the extension. Once {@link #watch() watching}, every call to
+ * {@link #poll()} picks up the files changed since the last call and parses only those. A file whose content did not
+ * actually change keeps its compiled recipe, and a file that fails to be read or parsed keeps the recipe it had before.
+ * Listeners {@link #addListener(String, Consumer) registered} for a recipe are told when it is replaced, so that only
+ * the menus built from that recipe need refreshing. A recipe whose file is deleted is removed, and the listeners
+ * {@link #addRemovalListener(String, Runnable) registered} for its removal are told, so that nothing keeps building
+ * menus from a recipe that no longer exists.
+ * <p>
+ * With a {@link #setCacheDirectory(Path) cache directory} the compiled form of every recipe is also kept on disk, keyed
+ * by the digest of its source, so that a later start loads unchanged recipes without parsing them at all.
+ * <p>
+ * Loaders are not thread safe. Polling is meant to happen from a repeating task on the server thread, as it never
+ * blocks.
+ *
+ * @since 2.0.1-SNAPSHOT
+ */
+public final class RecipeLoader implements AutoCloseable {
+
+    /**
+     * The extension of recipe files.
+     *
+     * @since 2.0.1-SNAPSHOT
+     */
+    public static final String EXTENSION = ".recipe";
+
+    private final Path directory;
+    private final Function<String, @Nullable MenuStack> stacks;
+    private final Map<String, Loaded> recipes = new HashMap<>();
+    private final Map<String, List<Consumer<MenuRecipe>>> listeners = new HashMap<>();
+    private final Map<String, List<Runnable>> removalListeners = new HashMap<>();
+    private @Nullable WatchService watcher;
+    private @Nullable RecipeCache cache;
+
+    /**
+     * Creates a new loader. Nothing is loaded until {@link #loadAll()} is called.
+     *
+     * @param directory the directory holding the recipe files
+     * @param stacks    resolves the menu stack names used by recipes, returning null for unknown names
+     * @since 2.0.1-SNAPSHOT
+     */
+    public RecipeLoader(Path directory, Function<String, @Nullable MenuStack> stacks) {
+        Preconditions.checkArgument(directory != null, "The provided directory must not be null");
+        Preconditions.checkArgument(stacks != null, "The provided stack resolver must not be null");
+        this.directory = directory;
+        this.stacks = stacks;
+    }
+
+    /**
+     * Sets the directory the compiled form of recipes is cached in, or null to not cache them. Recipes whose cache entry
+     * matches their source are loaded from it instead of being parsed, and every recipe that is parsed has its entry
+     * written. Entries that can not be read or written are ignored, costing a parse at worst.
+     *
+     * @param cacheDirectory the cache directory, created as needed, or null
+     * @since 2.0.1-SNAPSHOT
+     */
+    public void setCacheDirectory(@Nullable Path cacheDirectory) {
+        this.cache = cacheDirectory == null ? null : new RecipeCache(cacheDirectory);
+    }
+
+    /**
+     * Loads every recipe file in the directory, keeping the compiled form of any recipe whose file is unchanged since it
+     * was last loaded and removing any recipe whose file is gone.
+     *
+     * @return the names of the recipes that were parsed
+     * @throws IOException           thrown if the directory can not be read
+     * @throws IllegalStateException thrown once every file was attempted if any of them failed to be read or to load,
+     *                               with each failure attached as a suppressed exception
+     * @since 2.0.1-SNAPSHOT
+     */
+    public Set<String> loadAll() throws IOException, IllegalStateException {
+        // recipes loaded before are checked too, so that those whose file is gone are removed
+        final Set<String> names = new LinkedHashSet<>(this.recipes.keySet());
+        try (final DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "*" + EXTENSION)) {
+            for (final Path file : files) {
+                names.add(nameOf(file));
+            }
+        }
+        return reload(names);
+    }
+
+    /**
+     * Starts watching the directory for changes, to be picked up by {@link #poll()}.
+     *
+     * @throws IOException thrown if the directory can not be watched
+     * @since 2.0.1-SNAPSHOT
+     */
+    public void watch() throws IOException {
+        Preconditions.checkState(this.watcher == null, "This loader is already watching its directory");
+        this.watcher = this.directory.getFileSystem().newWatchService();
+        this.directory.register(this.watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    /**
+     * Reloads the recipes whose files changed since the last poll, without blocking.
+     *
+     * @return the names of the recipes that were parsed again or removed
+     * @throws IOException           thrown if events were lost and the directory can not be read to make up for them
+     * @throws IllegalStateException thrown if this loader is not watching, or once every changed file was attempted if
+     *                               any of them failed to be read or to load, with each failure attached as a
+     *                               suppressed exception
+     * @since 2.0.1-SNAPSHOT
+     */
+    public Set<String> poll() throws IOException, IllegalStateException {
+        Preconditions.checkState(this.watcher != null, "This loader is not watching its directory");
+        final Set<String> changed = new LinkedHashSet<>();
+        final Set<String> deleted = new LinkedHashSet<>();
+        WatchKey key;
+        try {
+            while ((key = this.watcher.poll()) != null) {
+                for (final WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // events were lost, every file has to be checked, though unchanged ones still are not parsed
+                        key.reset();
+                        return loadAll();
+                    }
+
+                    final Path file = (Path) event.context();
+                    if (!file.toString().endsWith(EXTENSION)) {
+                        continue;
+                    }
+
+                    // only the last event of a file counts, a file deleted and written again is a change
+                    final String name = nameOf(file);
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                        changed.remove(name);
+                        deleted.add(name);
+                    } else {
+                        deleted.remove(name);
+                        changed.add(name);
+                    }
+                }
+                key.reset();
+            }
+        } catch (ClosedWatchServiceException exception) {
+            throw new IllegalStateException("This loader was closed", exception);
+        }
+
+        final Set<String> removed = new LinkedHashSet<>();
+        for (final String name : deleted) {
+            // written again since, with the event for that still to come
+            if (Files.isRegularFile(this.directory.resolve(name + EXTENSION))) {
+                changed.add(name);
+            } else if (remove(name)) {
+                removed.add(name);
+            }
+        }
+        final Set<String> reloaded = reload(changed);
+        reloaded.addAll(removed);
+        return reloaded;
+    }
+
+    /**
+     * Gets a loaded recipe.
+     *
+     * @param name the name of the recipe
+     * @return the recipe, or null if no recipe of that name is loaded
+     * @since 2.0.1-SNAPSHOT
+     */
+    @Nullable
+    public MenuRecipe get(String name) {
+        final Loaded loaded = this.recipes.get(name);
+        return loaded == null ? null : loaded.recipe();
+    }
+
+    /**
+     * Gets the names of every loaded recipe.
+     *
+     * @return the recipe names
+     * @since 2.0.1-SNAPSHOT
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(this.recipes.keySet());
+    }
+
+    /**
+     * Registers a listener told whenever the given recipe is replaced by a newly parsed version.
+     *
+     * @param name     the name of the recipe
+     * @param listener the listener
+     * @since 2.0.1-SNAPSHOT
+     */
+    public void addListener(String name, Consumer<MenuRecipe> listener) {
+        Preconditions.checkArgument(name != null, "The provided name must not be null");
+        Preconditions.checkArgument(listener != null, "The provided listener must not be null");
+        this.listeners.computeIfAbsent(name, (key) -> new ArrayList<>()).add(listener);
+    }
+
+    /**
+     * Removes a listener registered with {@link #addListener(String, Consumer)}.
+     *
+     * @param name     the name of the recipe
+     * @param listener the listener
+     * @since 2.0.1-SNAPSHOT
+     */
+    public void removeListener(String name, Consumer<MenuRecipe> listener) {
+        final List<Consumer<MenuRecipe>> registered = this.listeners.get(name);
+        if (registered != null && registered.remove(listener) && registered.isEmpty()) {
+            this.listeners.remove(name);
+        }
+    }
+
+    /**
+     * Registers a listener told when the given recipe is removed because its file was deleted.
+     *
+     * @param name     the name of the recipe
+     * @param listener the listener
+     * @since 2.0.1-SNAPSHOT
+     */
+    public void addRemovalListener(String name, Runnable listener) {
+        Preconditions.checkArgument(name != null, "The provided name must not be null");
+        Preconditions.checkArgument(listener != null, "The provided listener must not be null");
+        this.removalListeners.computeIfAbsent(name, (key) -> new ArrayList<>()).add(listener);
+    }
+
+    /**
+     * Removes a listener registered with {@link #addRemovalListener(String, Runnable)}.
+     *
+     * @param name     the name of the recipe
+     * @param listener the listener
+     * @since 2.0.1-SNAPSHOT
+     */
+    public void removeRemovalListener(String name, Runnable listener) {
+        final List<Runnable> registered = this.removalListeners.get(name);
+        if (registered != null && registered.remove(listener) && registered.isEmpty()) {
+            this.removalListeners.remove(name);
+        }
+    }
+
+    /**
+     * Stops watching the directory. Loaded recipes stay available.
+     *
+     * @throws IOException thrown if the watch service fails to close
+     * @since 2.0.1-SNAPSHOT
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.watcher != null) {
+            this.watcher.close();
+            this.watcher = null;
+        }
+    }
+
+    /**
+     * Loads the given recipes again, parsing only those whose file content changed. A file that can not be read is
+     * collected as a failure like one that fails to parse, so that the other files are still loaded.
+     *
+     * @param names the recipes to load
+     * @return the names of the recipes that were parsed or removed
+     */
+    private Set<String> reload(final Set<String> names) {
+        final Set<String> reloaded = new LinkedHashSet<>();
+        final List<RuntimeException> failures = new ArrayList<>();
+        for (final String name : names) {
+            final Path file = this.directory.resolve(name + EXTENSION);
+            if (!Files.isRegularFile(file)) {
+                if (remove(name)) {
+                    reloaded.add(name);
+                }
+                continue;
+            }
+
+            final byte[] content;
+            try {
+                content = Files.readAllBytes(file);
+            } catch (IOException exception) {
+                failures.add(new IllegalStateException("Failed to read recipe " + file, exception));
+                continue;
+            }
+            final byte[] digest = digest(content);
+            final Loaded previous = this.recipes.get(name);
+            if (previous != null && Arrays.equals(previous.digest(), digest)) {
+                continue;
+            }
+
+            final MenuRecipe recipe;
+            try {
+                recipe = compile(name, content, digest).resolve(this.stacks);
+            } catch (IllegalArgumentException | IllegalStateException exception) {
+                failures.add(new IllegalStateException("Failed to load recipe " + file, exception));
+                continue;
+            }
+
+            this.recipes.put(name, new Loaded(digest, recipe));
+            reloaded.add(name);
+            for (final Consumer<MenuRecipe> listener : List.copyOf(this.listeners.getOrDefault(name, List.of()))) {
+                listener.accept(recipe);
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            final IllegalStateException exception = new IllegalStateException("%d recipe(s) failed to load, the previous version of each was kept".formatted(failures.size()));
+            failures.forEach(exception::addSuppressed);
+            throw exception;
+        }
+        return reloaded;
+    }
+
+    /**
+     * Removes a recipe whose file is gone, along with its cache entry, and tells its removal listeners.
+     *
+     * @param name the name of the recipe
+     * @return true if the recipe was loaded
+     */
+    private boolean remove(final String name) {
+        if (this.cache != null) {
+            this.cache.delete(name);
+        }
+        if (this.recipes.remove(name) == null) {
+            return false;
+        }
+
+        for (final Runnable listener : List.copyOf(this.removalListeners.getOrDefault(name, List.of()))) {
+            listener.run();
+        }
+        return true;
+    }
+
+    /**
+     * Compiles a recipe, from its cache entry if it matches the source and by parsing the source otherwise.
+     *
+     * @param name    the name of the recipe
+     * @param content the source of the recipe
+     * @param digest  the digest of the source
+     * @return the compiled recipe
+     */
+    private CompiledRecipe compile(final String name, final byte[] content, final byte[] digest) {
+        if (this.cache == null) {
+            return RecipeParser.compile(new String(content, StandardCharsets.UTF_8));
+        }
+
+        final CompiledRecipe cached = this.cache.read(name, digest);
+        if (cached != null) {
+            return cached;
+        }
+        final CompiledRecipe compiled = RecipeParser.compile(new String(content, StandardCharsets.UTF_8));
+        this.cache.write(name, digest, compiled);
+        return compiled;
+    }
+
+    private static String nameOf(final Path file) {
+        final String fileName = file.getFileName().toString();
+        return fileName.substring(0, fileName.length() - EXTENSION.length());
+    }
+
+    private static byte[] digest(final byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available", exception);
+        }
+    }
+
+    private record Loaded(byte[] digest, MenuRecipe recipe) {
+    }
+}
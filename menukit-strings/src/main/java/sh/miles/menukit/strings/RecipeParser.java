@@ -0,0 +1,155 @@
+package sh.miles.menukit.strings;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.chars.Char2ObjectMap;
+import it.unimi.dsi.fastutil.chars.Char2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import org.jspecify.annotations.Nullable;
+
+import java.util.function.Function;
+
+/**
+ * Parses the plain text form of a {@link MenuRecipe}.
+ * <p>
+ * A recipe file is made of sections, each opened by a header on a line of its own. A {@code [page n]} section holds the
+ * layout of page n, written exactly as it would be given to {@link MenuRecipe.Builder#page(int, String)}, and a
+ * {@code [keys]} section maps each key character to the name of a {@link MenuStack}, one {@code key = name} pair per
+ * line. Empty lines and lines starting with {@code //} are ignored everywhere, so a layout line may not start with
+ * {@code //} itself.
+ * <pre>{@code
+ * [page 0]
+ * #########
+ * #   b   #
+ * #########
+ *
+ * [keys]
+ * # = border
+ *   = air
+ * b = buy-button
+ * }</pre>
+ *
+ * @since 2.0.1-SNAPSHOT
+ */
+public final class RecipeParser {
+
+    private static final String KEYS_HEADER = "[keys]";
+    private static final String PAGE_HEADER = "[page ";
+
+    private RecipeParser() {
+    }
+
+    /**
+     * Parses and builds a recipe.
+     *
+     * @param source the text of the recipe
+     * @param stacks resolves the names in the keys section to menu stacks, returning null for unknown names
+     * @return the recipe
+     * @throws IllegalArgumentException thrown if the source is malformed, uses keys it does not map or refers to an
+     *                                  unknown menu stack
+     * @throws IllegalStateException    thrown if the recipe has no pages or pages of different sizes
+     * @since 2.0.1-SNAPSHOT
+     */
+    public static MenuRecipe parse(String source, Function<String, @Nullable MenuStack> stacks) throws IllegalArgumentException, IllegalStateException {
+        Preconditions.checkArgument(source != null, "The provided source must not be null");
+        Preconditions.checkArgument(stacks != null, "The provided stack resolver must not be null");
+        return compile(source).resolve(stacks);
+    }
+
+    /**
+     * Parses a recipe without resolving its menu stacks.
+     *
+     * @param source the text of the recipe
+     * @return the compiled recipe
+     * @throws IllegalArgumentException thrown if the source is malformed or its pattern uses keys it does not map
+     * @throws IllegalStateException    thrown if the recipe has no pages or pages of different sizes
+     */
+    static CompiledRecipe compile(final String source) throws IllegalArgumentException, IllegalStateException {
+        final Int2ObjectMap<String> pages = new Int2ObjectOpenHashMap<>();
+        final Char2ObjectMap<String> keyNames = new Char2ObjectOpenHashMap<>();
+        int pageSize = 0;
+        final StringBuilder layout = new StringBuilder();
+        int page = -1;
+        boolean keys = false;
+
+        final String[] lines = source.split("\r?\n", -1);
+        for (int number = 1; number <= lines.length; number++) {
+            final String line = lines[number - 1];
+            final String trimmed = line.trim();
+            // a page row of nothing but spaces is a row of space keys, so only truly empty lines are skipped inside pages
+            if (trimmed.startsWith("//") || (page == -1 ? trimmed.isEmpty() : line.isEmpty())) {
+                continue;
+            }
+
+            if (isHeader(trimmed)) {
+                if (page != -1) {
+                    pageSize = addPage(pages, page, layout);
+                }
+                keys = trimmed.equals(KEYS_HEADER);
+                page = keys ? -1 : parsePageHeader(trimmed, number);
+                continue;
+            }
+
+            if (page != -1) {
+                if (!layout.isEmpty()) {
+                    layout.append('\n');
+                }
+                layout.append(line);
+            } else if (keys) {
+                final int separator = line.indexOf('=', 1);
+                Preconditions.checkArgument(separator != -1, "Line %s: expected a key mapping of the form 'key = name'", number);
+                final String name = line.substring(separator + 1).trim();
+                Preconditions.checkArgument(!name.isEmpty(), "Line %s: expected a menu stack name after '='", number);
+                keyNames.put(line.charAt(0), name);
+            } else {
+                throw new IllegalArgumentException("Line %d: content outside of any section".formatted(number));
+            }
+        }
+
+        if (page != -1) {
+            pageSize = addPage(pages, page, layout);
+        }
+        final int count = MenuRecipe.pageCountOf(pages);
+        final CompiledRecipe compiled = new CompiledRecipe(pageSize, count, MenuRecipe.compile(pages, pageSize, count), keyNames);
+        compiled.checkMapped();
+        return compiled;
+    }
+
+    /**
+     * Files a finished page layout the way {@link MenuRecipe.Builder#page(int, String)} does, the last page added
+     * establishing the page size.
+     *
+     * @param pages  the layouts by page number
+     * @param page   the page number
+     * @param layout the layout, cleared afterward
+     * @return the page size the layout establishes
+     */
+    private static int addPage(final Int2ObjectMap<String> pages, final int page, final StringBuilder layout) {
+        final String finished = layout.toString();
+        layout.setLength(0);
+        pages.put(page, finished);
+        return MenuRecipe.pageSizeOf(finished);
+    }
+
+    /**
+     * Gets whether a trimmed line opens a section. Only the known headers count, so that a layout row that happens to
+     * be wrapped in brackets is still read as a layout row.
+     *
+     * @param line the trimmed line
+     * @return true if the line is a section header
+     */
+    private static boolean isHeader(String line) {
+        return line.equals(KEYS_HEADER) || (line.startsWith(PAGE_HEADER) && line.endsWith("]"));
+    }
+
+    private static int parsePageHeader(String header, int number) {
+        final String value = header.substring(PAGE_HEADER.length(), header.length() - 1).trim();
+        try {
+            final int page = Integer.parseInt(value);
+            Preconditions.checkArgument(page >= 0, "Line %s: page numbers must not be negative", number);
+            return page;
+        } catch (NumberFormatException exception) {
+            throw new IllegalArgumentException("Line %d: '%s' is not a page number".formatted(number, value), exception);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package sh.miles.menukit.strings;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Renders {@link MenuStackTemplate}s per player, through registered placeholder resolvers.
+ * <p>
+ * Rendered menu stacks are cached by template and resolved values, least recently used first out once the cache is
+ * full, and handed out as they are to every render of the same values. As placeholders like ranks or server wide
+ * figures tend to resolve the same for many players, most renders of a busy template are a cache hit that costs no more
+ * than resolving its placeholders.
+ * <p>
+ * Renderers are not thread safe and are meant to be used from the server thread.
+ *
+ * @since 2.0.1-SNAPSHOT
+ */
+public final class TemplateRenderer {
+
+    /**
+     * The default number of rendered menu stacks the cache holds.
+     *
+     * @since 2.0.1-SNAPSHOT
+     */
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private final Map<String, Function<Player, String>> resolvers = new HashMap<>();
+    private final Map<RenderKey, MenuStack> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<RenderKey, MenuStack> eldest) {
+            return size() > TemplateRenderer.this.cacheSize;
+        }
+    };
+    private int cacheSize = DEFAULT_CACHE_SIZE;
+
+    /**
+     * Registers the resolver of a placeholder, replacing any previous one.
+     *
+     * @param key      the key of the placeholder
+     * @param resolver resolves the value of the placeholder for a player
+     * @since 2.0.1-SNAPSHOT
+     */
+    public void register(String key, Function<Player, String> resolver) {
+        Preconditions.checkArgument(key != null, "The provided key must not be null");
+        Preconditions.checkArgument(resolver != null, "The provided resolver must not be null");
+        this.resolvers.put(key, resolver);
+    }
+
+    /**
+     * Removes the resolver of a placeholder.
+     *
+     * @param key the key of the placeholder
+     * @since 2.0.1-SNAPSHOT
+     */
+    public void unregister(String key) {
+        this.resolvers.remove(key);
+    }
+
+    /**
+     * Renders a template for a player.
+     *
+     * @param template the template
+     * @param player   the player to resolve the placeholders for
+     * @return a menu stack holding the rendered item and the callbacks of the template's base, the same one for every
+     * render of the same values while it is cached
+     * @throws IllegalStateException thrown if a placeholder of the template has no resolver
+     * @since 2.0.1-SNAPSHOT
+     */
+    public MenuStack render(MenuStackTemplate template, Player player) throws IllegalStateException {
+        Preconditions.checkArgument(template != null, "The provided template must not be null");
+        Preconditions.checkArgument(player != null, "The provided player must not be null");
+        final List<String> keys = template.getKeys();
+        final List<String> values = new ArrayList<>(keys.size());
+        for (final String key : keys) {
+            final Function<Player, String> resolver = this.resolvers.get(key);
+            Preconditions.checkState(resolver != null, "No resolver is registered for placeholder {%s}", key);
+            values.add(String.valueOf(resolver.apply(player)));
+        }
+
+        final RenderKey renderKey = new RenderKey(template, values);
+        MenuStack stack = this.cache.get(renderKey);
+        if (stack == null) {
+            final MenuStack base = template.getBase();
+            stack = new MenuStack(template.render(values), base.click(), base.drag());
+            this.cache.put(renderKey, stack);
+        }
+        return stack;
+    }
+
+    /**
+     * Sets the number of rendered menu stacks the cache holds, dropping the least recently used ones right away if it holds
+     * more.
+     *
+     * @param cacheSize the cache size, 0 to not cache at all
+     * @throws IllegalArgumentException thrown if the size is negative
+     * @since 2.0.1-SNAPSHOT
+     */
+    public void setCacheSize(int cacheSize) throws IllegalArgumentException {
+        Preconditions.checkArgument(cacheSize >= 0, "The cache size must not be negative");
+        this.cacheSize = cacheSize;
+        final var iterator = this.cache.entrySet().iterator();
+        while (this.cache.size() > cacheSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Drops every cached menu stack, for example once a template's base changed looks.
+     *
+     * @since 2.0.1-SNAPSHOT
+     */
+    public void clearCache() {
+        this.cache.clear();
+    }
+
+    /**
+     * Gets the number of rendered menu stacks currently cached.
+     *
+     * @return the cached menu stack count
+     * @since 2.0.1-SNAPSHOT
+     */
+    public int getCachedCount() {
+        return this.cache.size();
+    }
+
+    /**
+     * The identity of a rendered menu stack, its template and the values it was rendered with.
+     *
+     * @param template the template, compared by identity
+     * @param values   the resolved placeholder values
+     */
+    private record RenderKey(MenuStackTemplate template, List<String> values) {
+    }
+}
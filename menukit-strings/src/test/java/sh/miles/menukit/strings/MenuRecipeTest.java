@@ -0,0 +1,340 @@
+package sh.miles.menukit.strings;
+
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import sh.miles.menukit.slot.MenuSlot;
+import sh.miles.menukit.util.PagedInventory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static sh.miles.menukit.menu.MenuEventCallback.CLICK_NOTHING;
+import static sh.miles.menukit.menu.MenuEventCallback.DRAG_NOTHING;
+
+/**
+ * Tests for {@link MenuRecipe}, focused on how layouts, and recipes derived from one another, are flattened into a
+ * pattern and how that pattern is applied, and
+ * reapplied, to an inventory.
+ *
+ * <p>Recipes are applied to {@link PagedInventory#detached(int, int) detached} inventories, and every mocked item
+ * clones to itself, so the content of a slot tells which menu stack it was built from. {@link ItemStack#empty()} reaches
+ * through to the server internals, so its statics are mocked for the duration of every test.
+ */
+class MenuRecipeTest {
+
+    private final MenuStack border = stack();
+    private final MenuStack button = stack();
+    private MockedStatic<ItemStack> itemStackStatics;
+
+    @BeforeEach
+    void setUp() {
+        final ItemStack empty = mock(ItemStack.class);
+        this.itemStackStatics = mockStatic(ItemStack.class);
+        this.itemStackStatics.when(ItemStack::empty).thenReturn(empty);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.itemStackStatics.close();
+    }
+
+    private static MenuStack stack() {
+        final ItemStack item = mock(ItemStack.class);
+        when(item.clone()).thenReturn(item);
+        return new MenuStack(item, CLICK_NOTHING, DRAG_NOTHING);
+    }
+
+    @Test
+    void layoutsMayBeWrittenAsTextBlocks() {
+        final MenuRecipe recipe = MenuRecipe.builder()
+                .page(0, """
+                        ###
+                        #b#
+                        """)
+                .map('#', stack())
+                .map('b', stack())
+                .build();
+
+        assertEquals(6, recipe.getPageSize());
+        assertArrayEquals("####b#".toCharArray(), recipe.getPagePattern(0));
+    }
+
+    @Test
+    void firstAndLastRowsOfSpacesAreKeptAsSlots() {
+        final MenuRecipe recipe = MenuRecipe.builder()
+                .page(0, "   \n###\n   ")
+                .page(1, "###\n###\n###")
+                .map(' ', stack())
+                .map('#', stack())
+                .build();
+
+        assertEquals(9, recipe.getPageSize());
+        assertArrayEquals("   ###   ".toCharArray(), recipe.getPagePattern(0));
+    }
+
+    @Test
+    void layoutsOfDifferentSizesAreRejected() {
+        final MenuRecipe.Builder builder = MenuRecipe.builder().page(0, "###").page(1, "##");
+
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    private MenuRecipe parent() {
+        return MenuRecipe.builder().page(0, "###\n# #\n###").map('#', this.border).map(' ', stack()).build();
+    }
+
+    @Test
+    void aDerivedRecipeLaysItsPagesAndMappingsOverItsParent() {
+        final MenuStack replaced = stack();
+
+        final MenuRecipe derived = parent().derive().page(1, "bbbbbbbbb").map('b', this.button).map(' ', replaced).build();
+
+        assertEquals(2, derived.getPages());
+        assertArrayEquals("#### ####".toCharArray(), derived.getPagePattern(0));
+        assertArrayEquals("bbbbbbbbb".toCharArray(), derived.getPagePattern(1));
+        assertSame(this.border, derived.getMenuStack('#'));
+        assertSame(replaced, derived.getMenuStack(' '));
+    }
+
+    @Test
+    void masksKeepTheKeysUnderTheirTransparentCharacter() {
+        final MenuRecipe derived = parent().derive().mask(0, """
+                ..b
+                .b.
+                ...
+                """, '.').map('b', this.button).build();
+
+        assertArrayEquals("##b#b####".toCharArray(), derived.getPagePattern(0));
+    }
+
+    @Test
+    void masksAndSlotsAreLaidOverInTheOrderTheyWereAdded() {
+        final MenuRecipe derived = parent().derive()
+                .slot(0, 1, 'c')
+                .mask(0, "bbb......", '.')
+                .slot(0, 2, 'c')
+                .map('b', this.button)
+                .map('c', stack())
+                .build();
+
+        assertArrayEquals("bbc# ####".toCharArray(), derived.getPagePattern(0));
+    }
+
+    @Test
+    void overlaysPastTheLastPageAddPagesWithoutKeys() {
+        final MenuRecipe derived = parent().derive().slot(2, 4, 'b').map('b', this.button).build();
+
+        assertEquals(3, derived.getPages());
+        assertArrayEquals(new char[9], derived.getPagePattern(1));
+        assertEquals('b', derived.getPagePattern(2)[4]);
+    }
+
+    @Test
+    void derivingWithoutOverridesKeepsTheParentsPattern() {
+        final MenuRecipe parent = parent();
+
+        final MenuRecipe derived = parent.derive().build();
+
+        assertEquals(parent.getPages(), derived.getPages());
+        assertArrayEquals(parent.getPagePattern(0), derived.getPagePattern(0));
+        assertSame(parent.getMenuStack(' '), derived.getMenuStack(' '));
+    }
+
+    @Test
+    void overridesThatDoNotFitTheParentsPagesAreRejected() {
+        assertThrows(IllegalStateException.class, () -> parent().derive().page(1, "bbbb").build());
+        assertThrows(IllegalStateException.class, () -> parent().derive().mask(0, "bb..", '.').build());
+        assertThrows(IllegalStateException.class, () -> parent().derive().slot(0, 9, 'b').build());
+    }
+
+    private MenuRecipe paged() {
+        return MenuRecipe.builder()
+                .page(0, "#b#")
+                .page(1, "bbb")
+                .page(2, "###")
+                .map('#', this.border)
+                .map('b', this.button)
+                .build();
+    }
+
+    @Test
+    void applyingLazilyFillsOnlyTheShowingPage() {
+        final PagedInventory inventory = PagedInventory.detached(3, 3);
+
+        paged().applyLazily(inventory);
+
+        assertTrue(inventory.isPageLoaded(0));
+        assertFalse(inventory.isPageLoaded(1));
+        assertSame(this.border.item(), inventory.getSlot(0, 0).getContent());
+        assertSame(this.button.item(), inventory.getSlot(0, 1).getContent());
+        assertSame(MenuSlot.DUMMY, inventory.getSlot(1, 0));
+        assertSame(MenuSlot.DUMMY, inventory.getSlot(2, 0));
+    }
+
+    @Test
+    void applyingLazilyFillsEachPageTheFirstTimeItIsShown() {
+        final PagedInventory inventory = PagedInventory.detached(3, 3);
+        paged().applyLazily(inventory);
+
+        inventory.setCurrentPage(1);
+
+        assertTrue(inventory.isPageLoaded(1));
+        assertSame(this.button.item(), inventory.getSlot(1, 0).getContent());
+        assertSame(MenuSlot.DUMMY, inventory.getSlot(2, 0));
+
+        inventory.setCurrentPageFor(2, 1);
+
+        assertSame(this.border.item(), inventory.getSlot(2, 1).getContent());
+        assertTrue(inventory.isPageLoaded(2), "every page counts as loaded once the loader is done");
+    }
+
+    @Test
+    void applyingLazilyLeavesPagesPastTheRecipeEmpty() {
+        final PagedInventory inventory = PagedInventory.detached(3, 4);
+        paged().applyLazily(inventory);
+
+        inventory.setCurrentPage(3);
+
+        assertSame(MenuSlot.DUMMY, inventory.getSlot(3, 0));
+    }
+
+    @Test
+    void applyingLazilyToAnInventoryTooSmallIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> paged().applyLazily(PagedInventory.detached(3, 2)));
+        assertThrows(IllegalArgumentException.class, () -> paged().applyLazily(PagedInventory.detached(2, 3)));
+    }
+
+    @Test
+    void reapplyingAKeyRebuildsOnlyItsSlots() {
+        final PagedInventory inventory = PagedInventory.detached(3, 3);
+        final MenuRecipe previous = paged();
+        previous.apply(inventory);
+        final MenuSlot kept = inventory.getSlot(0, 0);
+        final MenuStack replaced = stack();
+
+        previous.derive().map('b', replaced).build().reapply(inventory, 'b');
+
+        assertSame(kept, inventory.getSlot(0, 0));
+        assertSame(replaced.item(), inventory.getSlot(0, 1).getContent());
+        assertSame(replaced.item(), inventory.getSlot(1, 2).getContent());
+        assertSame(this.border.item(), inventory.getSlot(2, 0).getContent());
+    }
+
+    @Test
+    void reapplyingAKeyLeavesPagesNotYetLoadedToTheNewRecipe() {
+        final PagedInventory inventory = PagedInventory.detached(3, 3);
+        final MenuRecipe previous = paged();
+        previous.applyLazily(inventory);
+        final MenuStack replaced = stack();
+
+        previous.derive().map('b', replaced).build().reapply(inventory, 'b');
+
+        assertSame(replaced.item(), inventory.getSlot(0, 1).getContent());
+        assertSame(MenuSlot.DUMMY, inventory.getSlot(1, 0));
+        inventory.setCurrentPage(1);
+        assertSame(replaced.item(), inventory.getSlot(1, 0).getContent());
+    }
+
+    @Test
+    void reapplyingAnUnmappedKeyFails() {
+        final MenuRecipe recipe = MenuRecipe.builder().page(0, "#x#").map('#', this.border).build();
+
+        assertThrows(IllegalStateException.class, () -> recipe.reapply(PagedInventory.detached(3, 1), 'x'));
+    }
+
+    @Test
+    void reapplyingAgainstThePreviousRecipeRebuildsOnlyWhatDiffers() {
+        final PagedInventory inventory = PagedInventory.detached(3, 3);
+        final MenuRecipe previous = paged();
+        previous.apply(inventory);
+        final MenuSlot kept = inventory.getSlot(0, 0);
+        final MenuSlot keptOnTheNextPage = inventory.getSlot(1, 1);
+
+        MenuRecipe.builder()
+                .page(0, "##b")
+                .page(1, "bbb")
+                .map('#', this.border)
+                .map('b', this.button)
+                .build()
+                .reapply(inventory, previous);
+
+        assertSame(kept, inventory.getSlot(0, 0));
+        assertSame(this.border.item(), inventory.getSlot(0, 1).getContent());
+        assertSame(this.button.item(), inventory.getSlot(0, 2).getContent());
+        assertSame(keptOnTheNextPage, inventory.getSlot(1, 1));
+        assertSame(MenuSlot.DUMMY, inventory.getSlot(2, 0), "slots the recipe no longer covers are removed");
+    }
+
+    @Test
+    void reapplyingAgainstThePreviousRecipeRebuildsSlotsWhoseStackChanged() {
+        final PagedInventory inventory = PagedInventory.detached(3, 3);
+        final MenuRecipe previous = paged();
+        previous.apply(inventory);
+        final MenuStack replaced = stack();
+
+        previous.derive().map('#', replaced).build().reapply(inventory, previous);
+
+        assertSame(replaced.item(), inventory.getSlot(0, 0).getContent());
+        assertSame(replaced.item(), inventory.getSlot(2, 2).getContent());
+        assertSame(this.button.item(), inventory.getSlot(0, 1).getContent());
+    }
+
+    @Test
+    void reapplyingAgainstThePreviousRecipeLeavesPagesNotYetLoadedToTheNewRecipe() {
+        final PagedInventory inventory = PagedInventory.detached(3, 3);
+        final MenuRecipe previous = paged();
+        previous.applyLazily(inventory);
+        final MenuRecipe next = previous.derive().page(1, "b#b").build();
+
+        next.reapply(inventory, previous);
+
+        assertSame(MenuSlot.DUMMY, inventory.getSlot(1, 1));
+        inventory.setCurrentPage(1);
+        assertSame(this.border.item(), inventory.getSlot(1, 1).getContent());
+    }
+
+    @Test
+    void reapplyingAgainstThePreviousRecipeWritesRemovalsTogetherWithTheRebuiltSlots() {
+        final PagedInventory inventory = mock(PagedInventory.class);
+        when(inventory.getPageSize()).thenReturn(3);
+        when(inventory.getPages()).thenReturn(3);
+        when(inventory.isPageLoaded(anyInt())).thenReturn(true);
+        final List<MenuSlot> lastPage = List.of(mock(MenuSlot.class), mock(MenuSlot.class), mock(MenuSlot.class));
+        for (int index = 0; index < 3; index++) {
+            when(inventory.getSlot(2, index)).thenReturn(lastPage.get(index));
+        }
+
+        MenuRecipe.builder()
+                .page(0, "#b#")
+                .page(1, "bbb")
+                .map('#', this.border)
+                .map('b', this.button)
+                .build()
+                .reapply(inventory, paged());
+
+        verify(inventory).setItems(List.of(), lastPage);
+        verify(inventory, never()).removeItem(anyInt(), anyInt());
+    }
+
+    @Test
+    void reapplyingAgainstARecipeOfAnotherPageSizeIsRejected() {
+        final PagedInventory inventory = PagedInventory.detached(3, 3);
+        final MenuRecipe previous = MenuRecipe.builder().page(0, "##").map('#', this.border).build();
+
+        assertThrows(IllegalArgumentException.class, () -> paged().reapply(inventory, previous));
+    }
+}
@@ -0,0 +1,72 @@
+package sh.miles.menukit.strings;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static sh.miles.menukit.menu.MenuEventCallback.CLICK_NOTHING;
+import static sh.miles.menukit.menu.MenuEventCallback.DRAG_NOTHING;
+
+/**
+ * Tests for {@link MenuStackTemplate}, focused on how placeholders are found when a template is parsed and filled in
+ * when it is rendered.
+ */
+class MenuStackTemplateTest {
+
+    private static MenuStack stack() {
+        final ItemStack item = mock(ItemStack.class);
+        when(item.clone()).thenReturn(item);
+        return new MenuStack(item, CLICK_NOTHING, DRAG_NOTHING);
+    }
+
+    private static String plain(final Component component) {
+        return PlainTextComponentSerializer.plainText().serialize(component);
+    }
+
+    @Test
+    void keysAreListedOnceInTheOrderTheyFirstAppear() {
+        final MenuStackTemplate template = MenuStackTemplate.of(stack(), "<gold>{player}'s balance",
+                List.of("<gray>You have <yellow>{balance}</yellow> coins", "{player}"));
+
+        assertEquals(List.of("player", "balance"), template.getKeys());
+    }
+
+    @Test
+    void placeholdersAreFilledInWithTheirValues() {
+        final MenuStackTemplate template = MenuStackTemplate.of(stack(), "<gold>{player}'s balance",
+                List.of("<gray>You have <yellow>{balance}</yellow> coins", "{player}"));
+
+        assertEquals("Steve's balance", plain(template.renderName(List.of("Steve", "10"))));
+        assertEquals(List.of("You have 10 coins", "Steve"), template.renderLore(List.of("Steve", "10")).stream().map(MenuStackTemplateTest::plain).toList());
+    }
+
+    @Test
+    void valuesAreNotParsedAsMiniMessage() {
+        final MenuStackTemplate template = MenuStackTemplate.of(stack(), "<gold>{player}", List.of());
+
+        assertEquals("<red>Steve", plain(template.renderName(List.of("<red>Steve"))));
+    }
+
+    @Test
+    void bracesAroundAnythingButAKeyAreKeptAsText() {
+        final MenuStackTemplate template = MenuStackTemplate.of(stack(), "{not a key} {} {rank", List.of());
+
+        assertEquals(List.of(), template.getKeys());
+        assertEquals("{not a key} {} {rank", plain(template.renderName(List.of())));
+    }
+
+    @Test
+    void aTemplateWithoutNameOrLoreKeepsTheItems() {
+        final MenuStackTemplate template = MenuStackTemplate.of(stack(), null, List.of());
+
+        assertNull(template.renderName(List.of()));
+        assertEquals(List.of(), template.renderLore(List.of()));
+    }
+}
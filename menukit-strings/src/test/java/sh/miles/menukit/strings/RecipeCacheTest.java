@@ -0,0 +1,102 @@
+package sh.miles.menukit.strings;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for {@link RecipeCache} and the binary form of {@link CompiledRecipe} it stores.
+ */
+class RecipeCacheTest {
+
+    private static final byte[] DIGEST = {1, 2, 3, 4};
+
+    @TempDir
+    Path directory;
+
+    private static CompiledRecipe compiled() {
+        return RecipeParser.compile("[page 0]\n#b#\n[page 2]\n###\n[keys]\n# = border\nb = buy-button\n");
+    }
+
+    private static void assertSameRecipe(final CompiledRecipe expected, final CompiledRecipe actual) {
+        assertEquals(expected.pageSize(), actual.pageSize());
+        assertEquals(expected.pages(), actual.pages());
+        assertArrayEquals(expected.pattern(), actual.pattern());
+        assertEquals(expected.keys(), actual.keys());
+    }
+
+    @Test
+    void aCompiledRecipeReadsBackAsWritten() {
+        final CompiledRecipe compiled = compiled();
+        final ByteBuffer buffer = ByteBuffer.allocate(compiled.size());
+
+        compiled.write(buffer);
+        assertFalse(buffer.hasRemaining(), "size must match what write writes");
+        buffer.flip();
+
+        assertSameRecipe(compiled, CompiledRecipe.read(buffer));
+    }
+
+    @Test
+    void aTruncatedCompiledRecipeIsRejected() {
+        final CompiledRecipe compiled = compiled();
+        final ByteBuffer buffer = ByteBuffer.allocate(compiled.size());
+        compiled.write(buffer);
+
+        assertThrows(IllegalArgumentException.class, () -> CompiledRecipe.read(ByteBuffer.wrap(Arrays.copyOf(buffer.array(), compiled.size() - 1))));
+    }
+
+    @Test
+    void anEntryReadsBackForTheDigestItWasWrittenWith() {
+        final RecipeCache cache = new RecipeCache(this.directory.resolve("cache"));
+        final CompiledRecipe compiled = compiled();
+
+        cache.write("shop", DIGEST, compiled);
+        final CompiledRecipe read = cache.read("shop", DIGEST);
+
+        assertNotNull(read);
+        assertSameRecipe(compiled, read);
+    }
+
+    @Test
+    void anEntryWrittenForAnotherSourceIsIgnored() {
+        final RecipeCache cache = new RecipeCache(this.directory);
+        cache.write("shop", DIGEST, compiled());
+
+        assertNull(cache.read("shop", new byte[]{1, 2, 3, 5}));
+        assertNull(cache.read("shop", new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    void missingCorruptedAndDeletedEntriesAreIgnored() throws IOException {
+        final RecipeCache cache = new RecipeCache(this.directory);
+        assertNull(cache.read("shop", DIGEST));
+
+        Files.write(this.directory.resolve("shop" + RecipeCache.EXTENSION), new byte[]{0x4D, 0x4B});
+        assertNull(cache.read("shop", DIGEST));
+
+        cache.write("shop", DIGEST, compiled());
+        cache.delete("shop");
+        assertNull(cache.read("shop", DIGEST));
+    }
+
+    @Test
+    void aFailedWriteIsNotThrown() throws IOException {
+        final Path file = Files.createFile(this.directory.resolve("not-a-directory"));
+
+        assertDoesNotThrow(() -> new RecipeCache(file).write("shop", DIGEST, compiled()));
+    }
+}
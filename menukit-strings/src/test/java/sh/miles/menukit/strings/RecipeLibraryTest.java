@@ -0,0 +1,74 @@
+package sh.miles.menukit.strings;
+
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static sh.miles.menukit.menu.MenuEventCallback.CLICK_NOTHING;
+import static sh.miles.menukit.menu.MenuEventCallback.DRAG_NOTHING;
+
+/**
+ * Tests for {@link RecipeLibrary}, focused on every failure of either compile phase being reported together.
+ */
+class RecipeLibraryTest {
+
+    private static final String BORDER = "[page 0]\n###\n[keys]\n# = border\n";
+
+    @TempDir
+    Path directory;
+
+    private final MenuStack border = stack();
+
+    private static MenuStack stack() {
+        final ItemStack item = mock(ItemStack.class);
+        when(item.clone()).thenReturn(item);
+        return new MenuStack(item, CLICK_NOTHING, DRAG_NOTHING);
+    }
+
+    private MenuStack resolve(final String name) {
+        return name.equals("border") ? this.border : null;
+    }
+
+    @Test
+    void compilesEveryRecipeOfADirectory() throws IOException {
+        Files.writeString(this.directory.resolve("shop" + RecipeLoader.EXTENSION), BORDER);
+        Files.writeString(this.directory.resolve("bank" + RecipeLoader.EXTENSION), BORDER);
+        Files.writeString(this.directory.resolve("notes.txt"), "not a recipe");
+
+        final RecipeLibrary library = RecipeLibrary.compile(this.directory, this::resolve, ForkJoinPool.commonPool());
+
+        assertEquals(Set.of("shop", "bank"), library.getNames());
+        assertSame(this.border, library.get("shop").getMenuStack('#'));
+    }
+
+    @Test
+    void failuresOfBothPhasesAreReportedTogether() {
+        final Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("valid", BORDER);
+        sources.put("malformed", "[page 0]\n#x#\n[keys]\n# = border\n");
+        sources.put("unresolved", "[page 0]\n###\n[keys]\n# = nowhere\n");
+        sources.put("also-unresolved", "[page 0]\n###\n[keys]\n# = nothing\n");
+
+        final IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> RecipeLibrary.compile(sources, this::resolve, ForkJoinPool.commonPool()));
+
+        assertEquals("3 of 4 recipe(s) failed to compile", exception.getMessage());
+        assertEquals(Set.of("Failed to compile recipe malformed", "Failed to resolve recipe unresolved", "Failed to resolve recipe also-unresolved"),
+                Arrays.stream(exception.getSuppressed()).map(Throwable::getMessage).collect(Collectors.toSet()));
+    }
+}
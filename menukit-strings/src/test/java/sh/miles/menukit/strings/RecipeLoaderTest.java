@@ -0,0 +1,166 @@
+package sh.miles.menukit.strings;
+
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static sh.miles.menukit.menu.MenuEventCallback.CLICK_NOTHING;
+import static sh.miles.menukit.menu.MenuEventCallback.DRAG_NOTHING;
+
+/**
+ * Tests for {@link RecipeLoader}, focused on which recipes a load or poll parses, keeps and removes.
+ */
+class RecipeLoaderTest {
+
+    private static final String BORDER = "[page 0]\n###\n[keys]\n# = border\n";
+    private static final String BUTTONS = "[page 0]\n#b#\n[keys]\n# = border\nb = button\n";
+
+    @TempDir
+    Path directory;
+
+    private final Map<String, MenuStack> stacks = Map.of("border", stack(), "button", stack());
+
+    private static MenuStack stack() {
+        final ItemStack item = mock(ItemStack.class);
+        when(item.clone()).thenReturn(item);
+        return new MenuStack(item, CLICK_NOTHING, DRAG_NOTHING);
+    }
+
+    private RecipeLoader loader() {
+        return new RecipeLoader(this.directory, this.stacks::get);
+    }
+
+    /**
+     * Writes a recipe file in one go, so that a poll never sees it half written.
+     *
+     * @param name   the name of the recipe
+     * @param source the source of the recipe
+     */
+    private void write(final String name, final String source) throws IOException {
+        final Path temporary = Files.writeString(this.directory.resolve(name + ".tmp"), source);
+        Files.move(temporary, this.directory.resolve(name + RecipeLoader.EXTENSION), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Polls until the watch service reported a change or ten seconds went by, as file events arrive asynchronously.
+     *
+     * @param loader the watching loader
+     * @return the names the poll that saw the change returned
+     */
+    private static Set<String> pollUntilChanged(final RecipeLoader loader) throws IOException, InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        Set<String> changed = loader.poll();
+        while (changed.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            changed = loader.poll();
+        }
+        return changed;
+    }
+
+    @Test
+    void loadAllParsesOnlyRecipesWhoseFilesChanged() throws IOException {
+        write("first", BORDER);
+        write("second", BORDER);
+        final RecipeLoader loader = loader();
+        final List<MenuRecipe> replaced = new ArrayList<>();
+        loader.addListener("first", replaced::add);
+
+        assertEquals(Set.of("first", "second"), loader.loadAll());
+        assertEquals(Set.of(), loader.loadAll());
+
+        write("first", BUTTONS);
+        assertEquals(Set.of("first"), loader.loadAll());
+        assertEquals(2, replaced.size());
+        assertSame(replaced.get(1), loader.get("first"));
+    }
+
+    @Test
+    void aRecipeThatFailsToParseKeepsItsPreviousVersion() throws IOException {
+        write("shop", BORDER);
+        final RecipeLoader loader = loader();
+        loader.loadAll();
+        final MenuRecipe previous = loader.get("shop");
+
+        write("shop", "[page 0]\n###\n[keys]\n#border\n");
+        final IllegalStateException exception = assertThrows(IllegalStateException.class, loader::loadAll);
+
+        assertEquals(1, exception.getSuppressed().length);
+        assertSame(previous, loader.get("shop"));
+    }
+
+    @Test
+    void aRecipeThatCanNotBeReadDoesNotStopTheOthersFromLoading() throws IOException {
+        write("locked", BORDER);
+        final Path locked = this.directory.resolve("locked" + RecipeLoader.EXTENSION);
+        assumeTrue(locked.toFile().setReadable(false) && !Files.isReadable(locked), "the file system ignores read permissions");
+        write("shop", BUTTONS);
+        final RecipeLoader loader = loader();
+
+        final IllegalStateException exception = assertThrows(IllegalStateException.class, loader::loadAll);
+
+        assertEquals(1, exception.getSuppressed().length);
+        assertInstanceOf(IOException.class, exception.getSuppressed()[0].getCause());
+        assertNotNull(loader.get("shop"));
+        assertNull(loader.get("locked"));
+    }
+
+    @Test
+    void aRecipeWhoseFileIsGoneIsRemovedOnLoad() throws IOException {
+        write("shop", BORDER);
+        final RecipeLoader loader = loader();
+        final AtomicInteger removals = new AtomicInteger();
+        loader.addRemovalListener("shop", removals::incrementAndGet);
+        loader.loadAll();
+
+        Files.delete(this.directory.resolve("shop" + RecipeLoader.EXTENSION));
+
+        assertEquals(Set.of("shop"), loader.loadAll());
+        assertNull(loader.get("shop"));
+        assertEquals(1, removals.get());
+    }
+
+    @Test
+    void pollPicksUpChangedAndDeletedFiles() throws IOException, InterruptedException {
+        write("shop", BORDER);
+        try (final RecipeLoader loader = loader()) {
+            final AtomicInteger removals = new AtomicInteger();
+            loader.addRemovalListener("shop", removals::incrementAndGet);
+            loader.loadAll();
+            loader.watch();
+
+            write("shop", BUTTONS);
+            assertEquals(Set.of("shop"), pollUntilChanged(loader));
+            assertNotNull(loader.get("shop").getMenuStack('b'));
+
+            Files.delete(this.directory.resolve("shop" + RecipeLoader.EXTENSION));
+            assertEquals(Set.of("shop"), pollUntilChanged(loader));
+            assertNull(loader.get("shop"));
+            assertEquals(1, removals.get());
+        }
+    }
+
+    @Test
+    void pollRequiresTheLoaderToBeWatching() {
+        assertThrows(IllegalStateException.class, () -> loader().poll());
+    }
+}
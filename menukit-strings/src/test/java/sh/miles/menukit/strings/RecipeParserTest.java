@@ -0,0 +1,109 @@
+package sh.miles.menukit.strings;
+
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static sh.miles.menukit.menu.MenuEventCallback.CLICK_NOTHING;
+import static sh.miles.menukit.menu.MenuEventCallback.DRAG_NOTHING;
+
+/**
+ * Tests for {@link RecipeParser}, focused on the recipe file syntax and the errors malformed files are reported with.
+ */
+class RecipeParserTest {
+
+    private static MenuStack stack() {
+        final ItemStack item = mock(ItemStack.class);
+        when(item.clone()).thenReturn(item);
+        return new MenuStack(item, CLICK_NOTHING, DRAG_NOTHING);
+    }
+
+    @Test
+    void parsesPagesAndKeysIgnoringCommentsAndBlankLines() {
+        final CompiledRecipe compiled = RecipeParser.compile("""
+                // a shop
+                [page 0]
+                ###
+                #b#
+
+                [keys]
+                // the border
+                # = border
+                b = buy-button
+                """);
+
+        assertEquals(6, compiled.pageSize());
+        assertEquals(1, compiled.pages());
+        assertArrayEquals("####b#".toCharArray(), compiled.pattern());
+        assertEquals("border", compiled.keys().get('#'));
+        assertEquals("buy-button", compiled.keys().get('b'));
+    }
+
+    @Test
+    void rowsOfNothingButSpacesAreRowsOfSpaceKeys() {
+        final CompiledRecipe compiled = RecipeParser.compile("[page 0]\n   \n###\n   \n[keys]\n  = air\n# = border\n");
+
+        assertEquals(9, compiled.pageSize());
+        assertArrayEquals("   ###   ".toCharArray(), compiled.pattern());
+        assertEquals("air", compiled.keys().get(' '));
+    }
+
+    @Test
+    void pagesWithoutALayoutAreLeftWithoutKeys() {
+        final CompiledRecipe compiled = RecipeParser.compile("[page 0]\n##\n[page 2]\n##\n[keys]\n# = border\n");
+
+        assertEquals(3, compiled.pages());
+        assertArrayEquals(new char[]{'#', '#', MenuRecipe.NO_KEY, MenuRecipe.NO_KEY, '#', '#'}, compiled.pattern());
+    }
+
+    @Test
+    void parseResolvesKeysToTheirMenuStacks() {
+        final MenuStack border = stack();
+
+        final MenuRecipe recipe = RecipeParser.parse("[page 0]\n##\n[keys]\n# = border\n", Map.of("border", border)::get);
+
+        assertSame(border, recipe.getMenuStack('#'));
+        assertEquals(2, recipe.getPageSize());
+    }
+
+    @Test
+    void malformedSourcesAreRejectedWithTheirLineNumber() {
+        assertLineError("##\n[page 0]\n##\n", 1);
+        assertLineError("[page 0]\n##\n[keys]\n#border\n", 4);
+        assertLineError("[page 0]\n##\n[keys]\n# =  \n", 4);
+        assertLineError("[page x]\n##\n", 1);
+        assertLineError("[page -1]\n##\n", 1);
+    }
+
+    @Test
+    void keysTheLayoutUsesButDoesNotMapAreRejected() {
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> RecipeParser.compile("[page 0]\n#ab\n[keys]\n# = border\n"));
+
+        assertTrue(exception.getMessage().contains("ab"), exception.getMessage());
+    }
+
+    @Test
+    void unknownMenuStacksAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> RecipeParser.parse("[page 0]\n##\n[keys]\n# = border\n", name -> null));
+    }
+
+    @Test
+    void recipesWithoutPagesOrWithPagesOfDifferentSizesAreRejected() {
+        assertThrows(IllegalStateException.class, () -> RecipeParser.compile("[keys]\n# = border\n"));
+        assertThrows(IllegalStateException.class, () -> RecipeParser.compile("[page 0]\n###\n[page 1]\n##\n[keys]\n# = border\n"));
+    }
+
+    private static void assertLineError(final String source, final int line) {
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> RecipeParser.compile(source));
+        assertTrue(exception.getMessage().startsWith("Line " + line + ":"), exception.getMessage());
+    }
+}
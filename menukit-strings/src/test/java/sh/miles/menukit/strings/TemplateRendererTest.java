@@ -0,0 +1,108 @@
+package sh.miles.menukit.strings;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static sh.miles.menukit.menu.MenuEventCallback.CLICK_CANCEL;
+import static sh.miles.menukit.menu.MenuEventCallback.DRAG_CANCEL;
+
+/**
+ * Tests for {@link TemplateRenderer}, focused on which renders are cache hits and which menu stacks get evicted.
+ *
+ * <p>Writing data components to an item reaches through to the server's registries, so the template is spied on and
+ * renders a fresh mocked item instead.
+ */
+class TemplateRendererTest {
+
+    private final Player steve = mock(Player.class);
+    private final Player alex = mock(Player.class);
+    private final Player notch = mock(Player.class);
+    private final Map<Player, String> ranks = Map.of(this.steve, "member", this.alex, "vip", this.notch, "admin");
+    private final TemplateRenderer renderer = new TemplateRenderer();
+    private MenuStackTemplate template;
+
+    private static ItemStack item() {
+        final ItemStack item = mock(ItemStack.class);
+        when(item.clone()).thenReturn(item);
+        return item;
+    }
+
+    @BeforeEach
+    void setUp() {
+        this.template = spy(MenuStackTemplate.of(new MenuStack(item(), CLICK_CANCEL, DRAG_CANCEL), "{rank}", List.of()));
+        doAnswer((invocation) -> item()).when(this.template).render(anyList());
+        this.renderer.register("rank", this.ranks::get);
+    }
+
+    @Test
+    void rendersOfTheSameValuesShareOneMenuStack() {
+        final MenuStack rendered = this.renderer.render(this.template, this.steve);
+
+        assertSame(rendered, this.renderer.render(this.template, this.steve));
+        assertSame(CLICK_CANCEL, rendered.click());
+        assertSame(DRAG_CANCEL, rendered.drag());
+        verify(this.template, times(1)).render(anyList());
+    }
+
+    @Test
+    void rendersOfOtherValuesAreCachedApart() {
+        final MenuStack member = this.renderer.render(this.template, this.steve);
+        final MenuStack vip = this.renderer.render(this.template, this.alex);
+
+        assertNotSame(member, vip);
+        assertEquals(2, this.renderer.getCachedCount());
+        verify(this.template).render(List.of("member"));
+        verify(this.template).render(List.of("vip"));
+    }
+
+    @Test
+    void theLeastRecentlyUsedMenuStackIsEvictedOnceTheCacheIsFull() {
+        this.renderer.setCacheSize(2);
+        final MenuStack member = this.renderer.render(this.template, this.steve);
+        this.renderer.render(this.template, this.alex);
+        this.renderer.render(this.template, this.steve);
+
+        this.renderer.render(this.template, this.notch);
+
+        assertEquals(2, this.renderer.getCachedCount());
+        assertSame(member, this.renderer.render(this.template, this.steve));
+        this.renderer.render(this.template, this.alex);
+        verify(this.template, times(2)).render(List.of("vip"));
+    }
+
+    @Test
+    void shrinkingTheCacheEvictsRightAway() {
+        this.renderer.render(this.template, this.steve);
+        this.renderer.render(this.template, this.alex);
+
+        this.renderer.setCacheSize(1);
+        assertEquals(1, this.renderer.getCachedCount());
+
+        this.renderer.setCacheSize(0);
+        this.renderer.render(this.template, this.steve);
+        assertEquals(0, this.renderer.getCachedCount());
+    }
+
+    @Test
+    void aPlaceholderWithoutResolverFails() {
+        this.renderer.unregister("rank");
+
+        assertThrows(IllegalStateException.class, () -> this.renderer.render(this.template, this.steve));
+    }
+}
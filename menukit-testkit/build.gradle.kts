@@ -0,0 +1,56 @@
+plugins {
+    `java-library`
+    `maven-publish`
+}
+
+version = rootProject.version
+
+repositories {
+    maven("https://repo.papermc.io/repository/maven-public/")
+    mavenCentral()
+}
+
+/*
+ * Like menukit-core's tests, the tests here need paper on their classpath, so the test configuration inherits the
+ * compile only dependency rather than declaring paper a second time.
+ */
+configurations.testImplementation {
+    extendsFrom(configurations.compileOnly.get())
+}
+
+dependencies {
+    compileOnly(libs.papermc)
+    api(libs.jspecify)
+
+    testImplementation(platform(libs.junit.bom))
+    testImplementation(libs.junit.jupiter)
+    testRuntimeOnly(libs.junit.platform.launcher)
+}
+
+java {
+    withSourcesJar()
+    withJavadocJar()
+    toolchain.languageVersion.set(JavaLanguageVersion.of(21))
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
+
+publishing {
+    repositories {
+        maven("https://maven.miles.sh/snapshots") {
+            credentials {
+                username = System.getenv("REPO_USERNAME")
+                password = System.getenv("REPO_PASSWORD")
+            }
+        }
+    }
+
+    publications {
+        create<MavenPublication>("maven") {
+            groupId = rootProject.group as String
+            from(components["java"])
+        }
+    }
+}
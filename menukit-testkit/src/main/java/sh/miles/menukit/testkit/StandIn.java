@@ -0,0 +1,83 @@
+package sh.miles.menukit.testkit;
+
+import org.jspecify.annotations.Nullable;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * The shared base of every stand-in. A stand-in answers the methods of a Bukkit interface that MenuKit calls from
+ * plain fields, and fails loudly on every other method so that a test can never silently depend on a no-op.
+ * <p>
+ * Bukkit's interfaces are implemented through a {@link Proxy} rather than a class, so that they keep up with the
+ * methods each Paper release adds without the test kit having to.
+ *
+ * @param <T> the Bukkit interface stood in for
+ */
+abstract class StandIn<T> {
+
+    private final T proxy;
+
+    @SuppressWarnings("unchecked")
+    StandIn(final Class<T> type) {
+        this.proxy = (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new Handler(this));
+    }
+
+    /**
+     * Gets the Bukkit object this stand-in answers for.
+     *
+     * @return the proxy
+     */
+    final T proxy() {
+        return this.proxy;
+    }
+
+    /**
+     * Answers a method of the Bukkit interface.
+     *
+     * @param method the name of the method
+     * @param args   the arguments, empty for none
+     * @return the result
+     * @throws UnsupportedOperationException thrown if this stand-in does not support the method
+     */
+    abstract @Nullable Object answer(String method, Object[] args) throws UnsupportedOperationException;
+
+    /**
+     * Gets the stand-in behind a Bukkit object.
+     *
+     * @param object the Bukkit object
+     * @param type   the type of stand-in expected
+     * @param <S>    the type of stand-in
+     * @return the stand-in, or null if the object is not one of the given type
+     */
+    static <S extends StandIn<?>> @Nullable S of(final @Nullable Object object, final Class<S> type) {
+        if (object == null || !Proxy.isProxyClass(object.getClass())) {
+            return null;
+        }
+        if (Proxy.getInvocationHandler(object) instanceof Handler handler && type.isInstance(handler.owner)) {
+            return type.cast(handler.owner);
+        }
+        return null;
+    }
+
+    static UnsupportedOperationException unsupported(final String method) {
+        return new UnsupportedOperationException(method + " is not supported by the test kit");
+    }
+
+    private record Handler(StandIn<?> owner) implements InvocationHandler {
+
+        private static final Object[] NO_ARGS = new Object[0];
+
+        @Override
+        public @Nullable Object invoke(final Object proxy, final Method method, final Object @Nullable [] args) {
+            final Object[] arguments = args == null ? NO_ARGS : args;
+            return switch (method.getName()) {
+                case "equals" -> arguments.length == 1 && proxy == arguments[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> this.owner.toString();
+                default -> this.owner.answer(method.getName(), arguments);
+            };
+        }
+    }
+}
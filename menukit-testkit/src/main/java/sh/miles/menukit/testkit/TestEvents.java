@@ -0,0 +1,116 @@
+package sh.miles.menukit.testkit;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Creates the inventory events MenuKit listens to for a {@link TestView}, filled in the way the server would fill them
+ * in. The events are only created, it is up to the test to hand them to whatever it is testing.
+ *
+ * @since 2.1.1-SNAPSHOT
+ */
+public final class TestEvents {
+
+    private TestEvents() {
+    }
+
+    /**
+     * Creates a left click picking up the whole stack in a slot.
+     *
+     * @param view    the view clicked in
+     * @param rawSlot the raw slot clicked
+     * @return the event
+     * @since 2.1.1-SNAPSHOT
+     */
+    public static InventoryClickEvent click(final TestView view, final int rawSlot) {
+        return click(view, rawSlot, ClickType.LEFT, InventoryAction.PICKUP_ALL);
+    }
+
+    /**
+     * Creates a click in a slot.
+     *
+     * @param view    the view clicked in
+     * @param rawSlot the raw slot clicked, or -999 for outside the window
+     * @param click   the type of click
+     * @param action  the action the click results in
+     * @return the event
+     * @since 2.1.1-SNAPSHOT
+     */
+    public static InventoryClickEvent click(final TestView view, final int rawSlot, final ClickType click, final InventoryAction action) {
+        Preconditions.checkArgument(view != null, "The provided view must not be null");
+        Preconditions.checkArgument(click != null, "The provided click type must not be null");
+        Preconditions.checkArgument(action != null, "The provided action must not be null");
+        Preconditions.checkArgument(rawSlot < view.view().countSlots(), "The raw slot %s is outside of the view", rawSlot);
+        return new InventoryClickEvent(view.view(), view.view().getSlotType(rawSlot), rawSlot, click, action);
+    }
+
+    /**
+     * Creates a drag of the given item across slots.
+     *
+     * @param view   the view dragged in
+     * @param cursor the item on the cursor before the drag
+     * @param slots  the item each raw slot ends up with
+     * @return the event
+     * @since 2.1.1-SNAPSHOT
+     */
+    public static InventoryDragEvent drag(final TestView view, final ItemStack cursor, final Map<Integer, ItemStack> slots) {
+        Preconditions.checkArgument(view != null, "The provided view must not be null");
+        Preconditions.checkArgument(cursor != null, "The provided cursor must not be null");
+        Preconditions.checkArgument(slots != null && !slots.isEmpty(), "The provided slots must not be empty");
+        for (final int rawSlot : slots.keySet()) {
+            Preconditions.checkArgument(rawSlot >= 0 && rawSlot < view.view().countSlots(), "The raw slot %s is outside of the view", rawSlot);
+        }
+        return new InventoryDragEvent(view.view(), null, cursor, false, slots);
+    }
+
+    /**
+     * Creates a drag of a single item across slots, each slot ending up with one copy of it.
+     *
+     * @param view     the view dragged in
+     * @param rawSlots the raw slots dragged across
+     * @return the event
+     * @since 2.1.1-SNAPSHOT
+     */
+    public static InventoryDragEvent drag(final TestView view, final int... rawSlots) {
+        Preconditions.checkArgument(rawSlots != null, "The provided raw slots must not be null");
+        final ItemStack cursor = new TestItem("dragged");
+        final Map<Integer, ItemStack> slots = new HashMap<>();
+        for (final int rawSlot : rawSlots) {
+            slots.put(rawSlot, cursor.clone());
+        }
+        return drag(view, cursor, slots);
+    }
+
+    /**
+     * Creates the event of a view being opened.
+     *
+     * @param view the view opened
+     * @return the event
+     * @since 2.1.1-SNAPSHOT
+     */
+    public static InventoryOpenEvent open(final TestView view) {
+        Preconditions.checkArgument(view != null, "The provided view must not be null");
+        return new InventoryOpenEvent(view.view());
+    }
+
+    /**
+     * Creates the event of a view being closed.
+     *
+     * @param view the view closed
+     * @return the event
+     * @since 2.1.1-SNAPSHOT
+     */
+    public static InventoryCloseEvent close(final TestView view) {
+        Preconditions.checkArgument(view != null, "The provided view must not be null");
+        return new InventoryCloseEvent(view.view());
+    }
+}
@@ -0,0 +1,195 @@
+package sh.miles.menukit.testkit;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An {@link Inventory} backed by a plain array that counts every write made to it.
+ * <p>
+ * A write is any call that sets a slot, {@link Inventory#setItem(int, ItemStack)} as well as each slot of
+ * {@link Inventory#setContents(ItemStack[])} and the clear methods, whether or not the content actually changed. This
+ * is what lets a test assert exactly how many slot updates an operation produced, which is what a client would have
+ * been sent.
+ *
+ * @since 2.1.1-SNAPSHOT
+ */
+public final class TestInventory extends StandIn<Inventory> {
+
+    private final InventoryType type;
+    private final @Nullable ItemStack[] contents;
+    private final int[] writes;
+    private final List<HumanEntity> viewers = new ArrayList<>();
+    private int totalWrites = 0;
+
+    /**
+     * Creates a new chest inventory.
+     *
+     * @param size the number of slots
+     * @since 2.1.1-SNAPSHOT
+     */
+    public TestInventory(final int size) {
+        this(size, InventoryType.CHEST);
+    }
+
+    /**
+     * Creates a new inventory of the given type. A {@link InventoryType#PLAYER player} inventory implements
+     * {@link PlayerInventory}.
+     *
+     * @param size the number of slots
+     * @param type the type of the inventory
+     * @since 2.1.1-SNAPSHOT
+     */
+    @SuppressWarnings("unchecked")
+    public TestInventory(final int size, final InventoryType type) {
+        super((Class<Inventory>) (Class<?>) (type == InventoryType.PLAYER ? PlayerInventory.class : Inventory.class));
+        Preconditions.checkArgument(size > 0, "The size must be positive");
+        Preconditions.checkArgument(type != null, "The provided type must not be null");
+        this.type = type;
+        this.contents = new ItemStack[size];
+        this.writes = new int[size];
+    }
+
+    /**
+     * Gets the stand-in behind an inventory.
+     *
+     * @param inventory the inventory
+     * @return the stand-in, or null if the inventory is not a test inventory
+     * @since 2.1.1-SNAPSHOT
+     */
+    @Nullable
+    public static TestInventory of(final @Nullable Inventory inventory) {
+        return StandIn.of(inventory, TestInventory.class);
+    }
+
+    /**
+     * Gets the Bukkit inventory this stand-in answers for.
+     *
+     * @return the inventory
+     * @since 2.1.1-SNAPSHOT
+     */
+    public Inventory inventory() {
+        return proxy();
+    }
+
+    /**
+     * Gets the number of writes made to every slot together since the last {@link #resetWrites()}.
+     *
+     * @return the write count
+     * @since 2.1.1-SNAPSHOT
+     */
+    public int getWrites() {
+        return this.totalWrites;
+    }
+
+    /**
+     * Gets the number of writes made to a single slot since the last {@link #resetWrites()}.
+     *
+     * @param slot the slot
+     * @return the write count
+     * @since 2.1.1-SNAPSHOT
+     */
+    public int getWrites(final int slot) {
+        return this.writes[slot];
+    }
+
+    /**
+     * Sets every write count back to zero.
+     *
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void resetWrites() {
+        Arrays.fill(this.writes, 0);
+        this.totalWrites = 0;
+    }
+
+    /**
+     * Reads a slot without the read going through the Bukkit interface.
+     *
+     * @param slot the slot
+     * @return the content, or null if the slot was never set or was cleared
+     * @since 2.1.1-SNAPSHOT
+     */
+    @Nullable
+    public ItemStack peek(final int slot) {
+        return this.contents[slot];
+    }
+
+    void addViewer(final HumanEntity viewer) {
+        if (!this.viewers.contains(viewer)) {
+            this.viewers.add(viewer);
+        }
+    }
+
+    void removeViewer(final HumanEntity viewer) {
+        this.viewers.remove(viewer);
+    }
+
+    private void write(final int slot, final @Nullable ItemStack item) {
+        this.contents[slot] = item;
+        this.writes[slot]++;
+        this.totalWrites++;
+    }
+
+    @Override
+    @Nullable
+    Object answer(final String method, final Object[] args) {
+        return switch (method) {
+            case "getSize" -> this.contents.length;
+            case "getMaxStackSize" -> 99;
+            case "getType" -> this.type;
+            case "getItem" -> this.contents[(int) args[0]];
+            case "setItem" -> {
+                if (args.length != 2 || !(args[0] instanceof Integer slot)) {
+                    throw unsupported("setItem(EquipmentSlot, ItemStack)");
+                }
+                write(slot, (ItemStack) args[1]);
+                yield null;
+            }
+            case "getContents", "getStorageContents" -> this.contents.clone();
+            case "setContents", "setStorageContents" -> {
+                final ItemStack[] items = (ItemStack[]) args[0];
+                Preconditions.checkArgument(items.length <= this.contents.length, "Invalid inventory size (%s), expected %s or less", items.length, this.contents.length);
+                for (int slot = 0; slot < this.contents.length; slot++) {
+                    write(slot, slot < items.length ? items[slot] : null);
+                }
+                yield null;
+            }
+            case "clear" -> {
+                if (args.length == 1) {
+                    write((int) args[0], null);
+                } else {
+                    for (int slot = 0; slot < this.contents.length; slot++) {
+                        write(slot, null);
+                    }
+                }
+                yield null;
+            }
+            case "isEmpty" -> Arrays.stream(this.contents).allMatch((item) -> item == null || item.isEmpty());
+            case "firstEmpty" -> {
+                for (int slot = 0; slot < this.contents.length; slot++) {
+                    if (this.contents[slot] == null || this.contents[slot].isEmpty()) {
+                        yield slot;
+                    }
+                }
+                yield -1;
+            }
+            case "getViewers" -> new ArrayList<>(this.viewers);
+            case "getHolder", "getLocation" -> null;
+            default -> throw unsupported(method);
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "TestInventory[" + this.type + ", " + this.contents.length + "]";
+    }
+}
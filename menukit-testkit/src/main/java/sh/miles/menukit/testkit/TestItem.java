@@ -0,0 +1,60 @@
+package sh.miles.menukit.testkit;
+
+import org.bukkit.inventory.ItemStack;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An item stack that lives entirely on the heap, told apart from others by its name alone, so that items can be
+ * created, cloned and compared without a server backing them. An item with an empty name counts as empty.
+ *
+ * @since 2.1.1-SNAPSHOT
+ */
+public final class TestItem extends ItemStack {
+
+    private final String name;
+
+    /**
+     * Creates a new test item.
+     *
+     * @param name the name telling this item apart from others
+     * @since 2.1.1-SNAPSHOT
+     */
+    public TestItem(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name of this item.
+     *
+     * @return the name
+     * @since 2.1.1-SNAPSHOT
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public ItemStack clone() {
+        return new TestItem(this.name);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.name.isEmpty();
+    }
+
+    @Override
+    public boolean equals(final @Nullable Object other) {
+        return other instanceof TestItem item && item.name.equals(this.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "TestItem[" + this.name + "]";
+    }
+}
@@ -0,0 +1,171 @@
+package sh.miles.menukit.testkit;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * A {@link Player} that can open and close {@link TestView}s.
+ * <p>
+ * Opening and closing only moves the player between views and keeps the viewers of the top inventories up to date, no
+ * events are fired as there is no server to fire them. Tests dispatch the events they need themselves, created with
+ * {@link TestEvents}.
+ *
+ * @since 2.1.1-SNAPSHOT
+ */
+public final class TestPlayer extends StandIn<Player> {
+
+    private final String name;
+    private final UUID uuid;
+    private final TestInventory inventory = new TestInventory(36, InventoryType.PLAYER);
+    /*
+     * what getOpenInventory answers while no other view is open, as with a real player
+     */
+    private final TestView idle;
+    private @Nullable TestView open = null;
+    private boolean online = true;
+    private int opens = 0;
+
+    /**
+     * Creates a new player, whose uuid is derived from the name so that it is the same on every run.
+     *
+     * @param name the name of the player
+     * @since 2.1.1-SNAPSHOT
+     */
+    public TestPlayer(final String name) {
+        super(Player.class);
+        Preconditions.checkArgument(name != null, "The provided name must not be null");
+        this.name = name;
+        this.uuid = UUID.nameUUIDFromBytes(("TestPlayer:" + name).getBytes(StandardCharsets.UTF_8));
+        this.idle = new TestView(this, new TestInventory(5, InventoryType.CRAFTING));
+    }
+
+    /**
+     * Gets the stand-in behind a player.
+     *
+     * @param player the player
+     * @return the stand-in, or null if the player is not a test player
+     * @since 2.1.1-SNAPSHOT
+     */
+    @Nullable
+    public static TestPlayer of(final @Nullable Player player) {
+        return StandIn.of(player, TestPlayer.class);
+    }
+
+    /**
+     * Gets the Bukkit player this stand-in answers for.
+     *
+     * @return the player
+     * @since 2.1.1-SNAPSHOT
+     */
+    public Player player() {
+        return proxy();
+    }
+
+    /**
+     * Gets the name of this player.
+     *
+     * @return the name
+     * @since 2.1.1-SNAPSHOT
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets the player's own inventory.
+     *
+     * @return the inventory
+     * @since 2.1.1-SNAPSHOT
+     */
+    public TestInventory getInventory() {
+        return this.inventory;
+    }
+
+    /**
+     * Gets the view this player has open, other than their own inventory.
+     *
+     * @return the open view, or null if none is open
+     * @since 2.1.1-SNAPSHOT
+     */
+    @Nullable
+    public TestView getOpenView() {
+        return this.open;
+    }
+
+    /**
+     * Gets the number of views this player opened.
+     *
+     * @return the open count
+     * @since 2.1.1-SNAPSHOT
+     */
+    public int getOpens() {
+        return this.opens;
+    }
+
+    /**
+     * Sets whether this player is online.
+     *
+     * @param online true if the player is online
+     * @since 2.1.1-SNAPSHOT
+     */
+    public void setOnline(final boolean online) {
+        this.online = online;
+    }
+
+    private void openView(final TestView view) {
+        closeView();
+        this.open = view;
+        this.opens++;
+        view.getTop().addViewer(player());
+    }
+
+    private void closeView() {
+        if (this.open != null) {
+            this.open.getTop().removeViewer(player());
+            this.open = null;
+        }
+    }
+
+    @Override
+    @Nullable
+    Object answer(final String method, final Object[] args) {
+        return switch (method) {
+            case "getUniqueId" -> this.uuid;
+            case "getName" -> this.name;
+            case "isOnline" -> this.online;
+            case "getInventory" -> this.inventory.inventory();
+            case "getOpenInventory" -> (this.open == null ? this.idle : this.open).view();
+            case "openInventory" -> {
+                if (args[0] instanceof InventoryView given) {
+                    final TestView view = TestView.of(given);
+                    Preconditions.checkArgument(view != null, "Only test views can be opened by a test player");
+                    openView(view);
+                    yield null;
+                }
+
+                final TestInventory top = TestInventory.of((Inventory) args[0]);
+                Preconditions.checkArgument(top != null, "Only test inventories can be opened by a test player");
+                final TestView view = new TestView(this, top);
+                openView(view);
+                yield view.view();
+            }
+            case "closeInventory" -> {
+                closeView();
+                yield null;
+            }
+            default -> throw unsupported(method);
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "TestPlayer[" + this.name + "]";
+    }
+}
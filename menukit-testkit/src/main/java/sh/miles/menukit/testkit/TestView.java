@@ -0,0 +1,182 @@
+package sh.miles.menukit.testkit;
+
+import com.google.common.base.Preconditions;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An {@link InventoryView} of a {@link TestInventory} on top of a {@link TestPlayer}'s own inventory.
+ * <p>
+ * Raw slots are numbered the way Bukkit numbers them, the top inventory first and the bottom inventory right after it.
+ * Title changes through {@link InventoryView#setTitle(String)} are counted, as the client handles each as a resend of
+ * the window.
+ *
+ * @since 2.1.1-SNAPSHOT
+ */
+public final class TestView extends StandIn<InventoryView> {
+
+    private final TestPlayer player;
+    private final TestInventory top;
+    private final Component originalTitle;
+    private Component title;
+    private @Nullable ItemStack cursor = null;
+    private int titleChanges = 0;
+
+    /**
+     * Creates a new view.
+     *
+     * @param player the player viewing
+     * @param top    the top inventory
+     * @param title  the title of the window
+     * @since 2.1.1-SNAPSHOT
+     */
+    public TestView(final TestPlayer player, final TestInventory top, final Component title) {
+        super(InventoryView.class);
+        Preconditions.checkArgument(player != null, "The provided player must not be null");
+        Preconditions.checkArgument(top != null, "The provided top inventory must not be null");
+        Preconditions.checkArgument(title != null, "The provided title must not be null");
+        this.player = player;
+        this.top = top;
+        this.originalTitle = title;
+        this.title = title;
+    }
+
+    /**
+     * Creates a new view with an empty title.
+     *
+     * @param player the player viewing
+     * @param top    the top inventory
+     * @since 2.1.1-SNAPSHOT
+     */
+    public TestView(final TestPlayer player, final TestInventory top) {
+        this(player, top, Component.empty());
+    }
+
+    /**
+     * Gets the stand-in behind a view.
+     *
+     * @param view the view
+     * @return the stand-in, or null if the view is not a test view
+     * @since 2.1.1-SNAPSHOT
+     */
+    @Nullable
+    public static TestView of(final @Nullable InventoryView view) {
+        return StandIn.of(view, TestView.class);
+    }
+
+    /**
+     * Gets the Bukkit view this stand-in answers for.
+     *
+     * @return the view
+     * @since 2.1.1-SNAPSHOT
+     */
+    public InventoryView view() {
+        return proxy();
+    }
+
+    /**
+     * Gets the top inventory of this view.
+     *
+     * @return the top inventory
+     * @since 2.1.1-SNAPSHOT
+     */
+    public TestInventory getTop() {
+        return this.top;
+    }
+
+    /**
+     * Gets the bottom inventory of this view, the player's own.
+     *
+     * @return the bottom inventory
+     * @since 2.1.1-SNAPSHOT
+     */
+    public TestInventory getBottom() {
+        return this.player.getInventory();
+    }
+
+    /**
+     * Gets the player viewing.
+     *
+     * @return the player
+     * @since 2.1.1-SNAPSHOT
+     */
+    public TestPlayer getPlayer() {
+        return this.player;
+    }
+
+    /**
+     * Gets the number of times the title of this view was changed.
+     *
+     * @return the title change count
+     * @since 2.1.1-SNAPSHOT
+     */
+    public int getTitleChanges() {
+        return this.titleChanges;
+    }
+
+    private TestInventory inventoryOf(final int rawSlot) {
+        return rawSlot < this.top.inventory().getSize() ? this.top : getBottom();
+    }
+
+    private int convert(final int rawSlot) {
+        final int topSize = this.top.inventory().getSize();
+        return rawSlot < topSize ? rawSlot : rawSlot - topSize;
+    }
+
+    @Override
+    @Nullable
+    Object answer(final String method, final Object[] args) {
+        return switch (method) {
+            case "getTopInventory" -> this.top.inventory();
+            case "getBottomInventory" -> getBottom().inventory();
+            case "getPlayer" -> this.player.player();
+            case "getType" -> this.top.inventory().getType();
+            case "title" -> this.title;
+            case "originalTitle" -> this.originalTitle;
+            case "getTitle" -> LegacyComponentSerializer.legacySection().serialize(this.title);
+            case "getOriginalTitle" -> LegacyComponentSerializer.legacySection().serialize(this.originalTitle);
+            case "setTitle" -> {
+                this.title = LegacyComponentSerializer.legacySection().deserialize((String) args[0]);
+                this.titleChanges++;
+                yield null;
+            }
+            case "countSlots" -> this.top.inventory().getSize() + getBottom().inventory().getSize();
+            case "getInventory" -> {
+                final int rawSlot = (int) args[0];
+                yield rawSlot < 0 ? null : inventoryOf(rawSlot).inventory();
+            }
+            case "convertSlot" -> convert((int) args[0]);
+            case "getSlotType" -> (int) args[0] < 0 ? InventoryType.SlotType.OUTSIDE : InventoryType.SlotType.CONTAINER;
+            case "getItem" -> {
+                final int rawSlot = (int) args[0];
+                yield rawSlot < 0 ? null : inventoryOf(rawSlot).inventory().getItem(convert(rawSlot));
+            }
+            case "setItem" -> {
+                final int rawSlot = (int) args[0];
+                if (rawSlot >= 0) {
+                    inventoryOf(rawSlot).inventory().setItem(convert(rawSlot), (ItemStack) args[1]);
+                }
+                yield null;
+            }
+            case "getCursor" -> this.cursor;
+            case "setCursor" -> {
+                this.cursor = (ItemStack) args[0];
+                yield null;
+            }
+            case "close" -> {
+                this.player.player().closeInventory();
+                yield null;
+            }
+            default -> throw unsupported(method);
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "TestView[" + this.player.getName() + ", " + this.top + "]";
+    }
+}
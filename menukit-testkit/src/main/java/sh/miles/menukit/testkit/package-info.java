@@ -0,0 +1,10 @@
+/**
+ * Fast in-memory stand-ins for the Bukkit pieces MenuKit touches, for tests and benchmarks that should not pay for
+ * mocks
+ *
+ * @since 2.1.1-SNAPSHOT
+ */
+@NullMarked
+package sh.miles.menukit.testkit;
+
+import org.jspecify.annotations.NullMarked;
@@ -0,0 +1,71 @@
+package sh.miles.menukit.testkit;
+
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for {@link TestInventory}, focused on every kind of write being counted exactly once per slot.
+ */
+class TestInventoryTest {
+
+    @Test
+    void everySetItemIsCountedEvenWhenNothingChanges() {
+        final TestInventory stand = new TestInventory(9);
+        final Inventory inventory = stand.inventory();
+        final ItemStack item = new TestItem("item");
+
+        inventory.setItem(2, item);
+        inventory.setItem(2, item);
+
+        assertEquals(2, stand.getWrites());
+        assertEquals(2, stand.getWrites(2));
+        assertEquals(0, stand.getWrites(3));
+        assertSame(item, inventory.getItem(2));
+    }
+
+    @Test
+    void bulkWritesCountOncePerSlot() {
+        final TestInventory stand = new TestInventory(9);
+        final Inventory inventory = stand.inventory();
+
+        inventory.setContents(new ItemStack[]{new TestItem("a"), new TestItem("b")});
+        inventory.clear(0);
+        inventory.clear();
+
+        assertEquals(19, stand.getWrites());
+        assertEquals(3, stand.getWrites(0));
+        assertNull(stand.peek(1));
+    }
+
+    @Test
+    void resetWritesStartsCountingOver() {
+        final TestInventory stand = new TestInventory(9);
+        stand.inventory().setItem(0, new TestItem("item"));
+
+        stand.resetWrites();
+
+        assertEquals(0, stand.getWrites());
+        assertEquals(0, stand.getWrites(0));
+    }
+
+    @Test
+    void theStandInIsFoundBehindItsInventory() {
+        final TestInventory stand = new TestInventory(9);
+
+        assertSame(stand, TestInventory.of(stand.inventory()));
+        assertEquals(stand.inventory(), stand.inventory());
+    }
+
+    @Test
+    void methodsThatAreNotStoodInForFail() {
+        final Inventory inventory = new TestInventory(9).inventory();
+
+        assertThrows(UnsupportedOperationException.class, () -> inventory.addItem(new TestItem("item")));
+    }
+}
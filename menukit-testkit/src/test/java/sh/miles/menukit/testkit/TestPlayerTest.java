@@ -0,0 +1,76 @@
+package sh.miles.menukit.testkit;
+
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.inventory.InventoryView;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link TestPlayer} and the {@link TestView}s it opens, including the events {@link TestEvents} creates for
+ * them.
+ */
+class TestPlayerTest {
+
+    @Test
+    void openingAnInventoryMakesThePlayerAViewer() {
+        final TestPlayer player = new TestPlayer("viewer");
+        final TestInventory top = new TestInventory(27);
+
+        final InventoryView view = player.player().openInventory(top.inventory());
+
+        assertSame(top.inventory(), view.getTopInventory());
+        assertSame(view, player.player().getOpenInventory());
+        assertEquals(List.of(player.player()), top.inventory().getViewers());
+        assertEquals(1, player.getOpens());
+    }
+
+    @Test
+    void closingLeavesThePlayerInTheirOwnInventory() {
+        final TestPlayer player = new TestPlayer("viewer");
+        final TestInventory top = new TestInventory(27);
+        player.player().openInventory(top.inventory());
+
+        player.player().closeInventory();
+
+        assertNull(player.getOpenView());
+        assertTrue(top.inventory().getViewers().isEmpty());
+        assertSame(player.getInventory().inventory(), player.player().getOpenInventory().getBottomInventory());
+    }
+
+    @Test
+    void rawSlotsPastTheTopInventoryReachTheBottom() {
+        final TestPlayer player = new TestPlayer("viewer");
+        final TestView view = new TestView(player, new TestInventory(9));
+
+        view.view().setItem(12, new TestItem("item"));
+
+        assertEquals(45, view.view().countSlots());
+        assertEquals(1, player.getInventory().getWrites(3));
+        assertEquals(0, view.getTop().getWrites());
+    }
+
+    @Test
+    void eventsAreFilledInForTheSlotsOfTheView() {
+        final TestView view = new TestView(new TestPlayer("viewer"), new TestInventory(9));
+
+        final InventoryClickEvent click = TestEvents.click(view, 10);
+        final InventoryDragEvent drag = TestEvents.drag(view, 1, 2);
+
+        assertSame(view.getBottom().inventory(), click.getClickedInventory());
+        assertEquals(1, click.getSlot());
+        assertEquals(Set.of(1, 2), drag.getRawSlots());
+    }
+
+    @Test
+    void uuidsFollowFromTheName() {
+        assertEquals(new TestPlayer("same").player().getUniqueId(), new TestPlayer("same").player().getUniqueId());
+    }
+}
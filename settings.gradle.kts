@@ -4,4 +4,4 @@ gradle.rootProject {
     version = "2.1.1-SNAPSHOT"
 }
 
-include("menukit-core", "menukit-plugin", "menukit-strings")
+include("menukit-core", "menukit-plugin", "menukit-strings", "menukit-benchmarks", "menukit-testkit")